@@ -0,0 +1,83 @@
+package myproject.java.utils.benchmarks;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myproject.java.utils.ClassPathScanner;
+
+/**
+ * {@link ClassPathScanner}のベンチマークを実行します。
+ * <p>
+ * JMHのクラスが配置されているjarファイル（ベンチマークのjarファイル）について、
+ * パッケージで絞り込んだクラスの列挙と、{@link State}アノテーションが付けられた
+ * クラスの列挙を、単一スレッドと複数スレッドで計測します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassPathScannerBenchmark {
+
+    /** クラスファイルを複数のスレッドで読み込む場合はtrue。 */
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    /** パッケージで絞り込むスキャナ。 */
+    private ClassPathScanner packageScanner;
+
+    /** アノテーションで絞り込むスキャナ。 */
+    private ClassPathScanner annotationScanner;
+
+    /**
+     * ベンチマークで使用するスキャナを作成します。
+     * @throws URISyntaxException URIの構文が間違っている場合
+     */
+    @Setup
+    public void setup() throws URISyntaxException {
+        this.packageScanner = ClassPathScanner.forClass(State.class).packages("org.openjdk.jmh")
+                .parallel(this.parallel);
+        this.annotationScanner = ClassPathScanner.forClass(State.class).packages("org.openjdk.jmh")
+                .annotatedWith(State.class).parallel(this.parallel);
+    }
+
+    /**
+     * パッケージで絞り込んだクラスを列挙します。
+     * @return クラス名の一覧を返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Benchmark
+    public List<String> scanPackage() throws IOException {
+        return this.packageScanner.scanClasses();
+    }
+
+    /**
+     * アノテーションが付けられたクラスを列挙します。
+     * @return クラス名の一覧を返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Benchmark
+    public List<String> scanAnnotated() throws IOException {
+        return this.annotationScanner.scanClasses();
+    }
+}
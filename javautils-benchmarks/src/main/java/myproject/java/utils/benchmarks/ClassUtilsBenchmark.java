@@ -0,0 +1,324 @@
+package myproject.java.utils.benchmarks;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myproject.java.utils.ClassUtils;
+
+/**
+ * {@link ClassUtils}のベンチマークを実行します。
+ * <p>
+ * インターフェースを実装した10階層のクラス階層に対して、最下位のクラスで定義された
+ * メンバー、最上位のクラスで定義されたメンバー、インターフェースで定義されたメンバー、
+ * 存在しないメンバーを検索する時間を計測します。また、リフレクションと
+ * {@link ClassUtils#getterFor(Class, String)}などで作成したアクセサで
+ * フィールドの値の取得、メソッドの呼び出しを行う時間を計測します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassUtilsBenchmark {
+
+    /** クラス階層の最上位のクラスが実装するインターフェース。 */
+    public interface Marker {
+        /** インターフェースで定義された定数。 */
+        int MARKER = 1;
+
+        /**
+         * インターフェースで定義されたメソッド。
+         * @return 任意の値を返します。
+         */
+        int marker();
+    }
+
+    /** クラス階層の最上位のクラス。 */
+    public static class Level0 implements Marker {
+        /** 最上位のクラスで定義されたフィールド。 */
+        protected int field0;
+
+        /**
+         * 最上位のクラスで定義されたメソッド。
+         * @param value 任意の値
+         */
+        public void method0(int value) {
+            this.field0 = value;
+        }
+
+        @Override
+        public int marker() {
+            return MARKER;
+        }
+    }
+
+    /** クラス階層の２番目のクラス。 */
+    public static class Level1 extends Level0 implements Cloneable { }
+
+    /** クラス階層の３番目のクラス。 */
+    public static class Level2 extends Level1 { }
+
+    /** クラス階層の４番目のクラス。 */
+    public static class Level3 extends Level2 implements Comparable<Level3> {
+        @Override
+        public int compareTo(Level3 o) {
+            return 0;
+        }
+    }
+
+    /** クラス階層の５番目のクラス。 */
+    public static class Level4 extends Level3 { }
+
+    /** クラス階層の６番目のクラス。 */
+    public static class Level5 extends Level4 implements Runnable {
+        @Override
+        public void run() { }
+    }
+
+    /** クラス階層の７番目のクラス。 */
+    public static class Level6 extends Level5 { }
+
+    /** クラス階層の８番目のクラス。 */
+    public static class Level7 extends Level6 { }
+
+    /** クラス階層の９番目のクラス。 */
+    public static class Level8 extends Level7 { }
+
+    /** クラス階層の最下位のクラス。 */
+    public static class Level9 extends Level8 {
+        /** 最下位のクラスで定義されたフィールド。 */
+        private int field9;
+
+        /**
+         * 最下位のクラスで定義されたメソッド。
+         * @param value 任意の値
+         */
+        public void method9(int value) {
+            this.field9 = value;
+        }
+    }
+
+    /** フィールドの値の取得、メソッドの呼び出しを行うインスタンス。 */
+    private final Level9 target = new Level9();
+
+    /** リフレクションで値を取得するフィールド。 */
+    private Field field;
+
+    /** リフレクションで呼び出すメソッド。 */
+    private Method method;
+
+    /** {@link ClassUtils#getterFor(Class, String)}で作成したフィールドのgetter。 */
+    private Function<Level9, Object> getter;
+
+    /** {@link ClassUtils#invokerFor(Class, String, Class[], Class)}で作成したメソッドの呼び出し。 */
+    private ToIntFunction<Level9> invoker;
+
+    /**
+     * リフレクションで使用するメンバー、及びアクセサを作成します。
+     * @throws ReflectiveOperationException メンバーが見つからない、またはアクセスできない場合
+     */
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws ReflectiveOperationException {
+        this.field = ClassUtils.findField(Level9.class, "field0", -1);
+        this.field.setAccessible(true);
+        this.method = ClassUtils.findMethod(Level9.class, "marker", null, -1);
+        this.getter = ClassUtils.getterFor(Level9.class, "field0");
+        this.invoker = ClassUtils.invokerFor(Level9.class, "marker", null, ToIntFunction.class);
+    }
+
+    /**
+     * 最下位のクラスで定義されたフィールドを検索します。
+     * @return 見つかったフィールドを返します。
+     * @throws NoSuchFieldException フィールドが見つからない場合
+     */
+    @Benchmark
+    public Field findFieldDeclared() throws NoSuchFieldException {
+        return ClassUtils.findField(Level9.class, "field9", -1);
+    }
+
+    /**
+     * 最上位のクラスで定義されたフィールドを検索します。
+     * @return 見つかったフィールドを返します。
+     * @throws NoSuchFieldException フィールドが見つからない場合
+     */
+    @Benchmark
+    public Field findFieldInherited() throws NoSuchFieldException {
+        return ClassUtils.findField(Level9.class, "field0", -1);
+    }
+
+    /**
+     * インターフェースで定義された定数を検索します。
+     * @return 見つかったフィールドを返します。
+     * @throws NoSuchFieldException フィールドが見つからない場合
+     */
+    @Benchmark
+    public Field findFieldInterface() throws NoSuchFieldException {
+        return ClassUtils.findField(Level9.class, "MARKER", -1);
+    }
+
+    /**
+     * 存在しないフィールドを検索します。
+     * @return 例外が発生した場合はnullを返します。
+     */
+    @Benchmark
+    public Field findFieldMissing() {
+        try {
+            return ClassUtils.findField(Level9.class, "missing", -1);
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 存在しないフィールドを例外を発生させずに検索します。
+     * @return 空の{@link Optional}を返します。
+     */
+    @Benchmark
+    public Optional<Field> tryFindFieldMissing() {
+        return ClassUtils.tryFindField(Level9.class, "missing", -1);
+    }
+
+    /**
+     * 最下位のクラスで定義されたメソッドを検索します。
+     * @return 見つかったメソッドを返します。
+     * @throws NoSuchMethodException メソッドが見つからない場合
+     */
+    @Benchmark
+    public Method findMethodDeclared() throws NoSuchMethodException {
+        return ClassUtils.findMethod(Level9.class, "method9", new Class<?>[] {int.class}, -1);
+    }
+
+    /**
+     * 最上位のクラスで定義されたメソッドを検索します。
+     * @return 見つかったメソッドを返します。
+     * @throws NoSuchMethodException メソッドが見つからない場合
+     */
+    @Benchmark
+    public Method findMethodInherited() throws NoSuchMethodException {
+        return ClassUtils.findMethod(Level9.class, "method0", new Class<?>[] {int.class}, -1);
+    }
+
+    /**
+     * 存在しないメソッドを検索します。
+     * @return 例外が発生した場合はnullを返します。
+     */
+    @Benchmark
+    public Method findMethodMissing() {
+        try {
+            return ClassUtils.findMethod(Level9.class, "missing", new Class<?>[] {int.class}, -1);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 存在しないメソッドを例外を発生させずに検索します。
+     * @return 空の{@link Optional}を返します。
+     */
+    @Benchmark
+    public Optional<Method> tryFindMethodMissing() {
+        return ClassUtils.tryFindMethod(Level9.class, "missing", new Class<?>[] {int.class}, -1);
+    }
+
+    /**
+     * {@link ClassUtils#index(Class)}の索引から最上位のクラスで定義されたフィールドを取得します。
+     * @return 見つかったフィールドを返します。
+     */
+    @Benchmark
+    public Optional<Field> indexFieldInherited() {
+        return ClassUtils.index(Level9.class).field("field0", -1);
+    }
+
+    /**
+     * {@link ClassUtils#index(Class)}の索引から存在しないフィールドを取得します。
+     * @return 空の{@link Optional}を返します。
+     */
+    @Benchmark
+    public Optional<Field> indexFieldMissing() {
+        return ClassUtils.index(Level9.class).field("missing", -1);
+    }
+
+    /**
+     * {@link ClassUtils#index(Class)}の索引から最上位のクラスで定義されたメソッドを取得します。
+     * @return 見つかったメソッドを返します。
+     */
+    @Benchmark
+    public Optional<Method> indexMethodInherited() {
+        return ClassUtils.index(Level9.class).method("method0", new Class<?>[] {int.class}, -1);
+    }
+
+    /**
+     * クラスが配置されているクラスパスの親ディレクトリを取得します。
+     * @return 取得したディレクトリを返します。
+     * @throws URISyntaxException URIの構文が間違っている場合
+     */
+    @Benchmark
+    public File getClassDirParent() throws URISyntaxException {
+        return ClassUtils.getClassDirParent(Level9.class);
+    }
+
+    /**
+     * {@link Field#get(Object)}でフィールドの値を取得します。
+     * @return 取得した値を返します。
+     * @throws IllegalAccessException フィールドにアクセスできない場合
+     */
+    @Benchmark
+    public Object fieldGetReflection() throws IllegalAccessException {
+        return this.field.get(this.target);
+    }
+
+    /**
+     * {@link ClassUtils#getterFor(Class, String)}で作成したgetterでフィールドの値を取得します。
+     * @return 取得した値を返します。
+     */
+    @Benchmark
+    public Object fieldGetAccessor() {
+        return this.getter.apply(this.target);
+    }
+
+    /**
+     * {@link Method#invoke(Object, Object...)}でメソッドを呼び出します。
+     * @return メソッドの戻り値を返します。
+     * @throws IllegalAccessException メソッドにアクセスできない場合
+     * @throws InvocationTargetException メソッドで例外が発生した場合
+     */
+    @Benchmark
+    public Object invokeReflection() throws IllegalAccessException, InvocationTargetException {
+        return this.method.invoke(this.target);
+    }
+
+    /**
+     * {@link ClassUtils#invokerFor(Class, String, Class[], Class)}で作成した関数型インタフェースで
+     * メソッドを呼び出します。
+     * @return メソッドの戻り値を返します。
+     */
+    @Benchmark
+    public int invokeAccessor() {
+        return this.invoker.applyAsInt(this.target);
+    }
+}
@@ -0,0 +1,166 @@
+package myproject.java.utils.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import myproject.java.utils.CsvCursor;
+import myproject.java.utils.CsvIterator;
+import myproject.java.utils.CsvWriter;
+
+/**
+ * {@link CsvIterator}、{@link CsvCursor}、{@link CsvWriter}のベンチマークを実行します。
+ * <p>
+ * 項目数、「"」で囲まれた項目の割合、改行を含む項目の割合を変えて生成した
+ * {@link #ROWS}行のCSVデータを、全て読み込む（または出力する）時間を計測します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvBenchmark {
+
+    /** 生成するCSVデータの行数。 */
+    private static final int ROWS = 2000;
+
+    /** １行の項目数。 */
+    @Param({"10", "100"})
+    private int columns;
+
+    /** 「"」で囲まれ、カンマと「""」を含む項目の割合（%）。 */
+    @Param({"0", "50"})
+    private int quotedPercent;
+
+    /** 「"」で囲まれた改行を含む項目の割合（%）。 */
+    @Param({"0", "10"})
+    private int multilinePercent;
+
+    /** 生成したCSVデータ。 */
+    private String csv;
+
+    /** 生成したCSVデータをUTF-8で符号化したバイト列。 */
+    private byte[] bytes;
+
+    /** 生成したCSVデータを{@link CsvIterator}で読み込んだ行。 */
+    private List<List<String>> rows;
+
+    /** 選択して読み込む項目の位置。 */
+    private int[] selection;
+
+    /**
+     * ベンチマークで使用するCSVデータを生成します。
+     */
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < this.columns; c++) {
+                if (c > 0) {
+                    sb.append(',');
+                }
+                int p = random.nextInt(100);
+                if (p < this.multilinePercent) {
+                    sb.append("\"line").append(r).append("\r\nあいう").append(c).append('"');
+                } else if (p < this.multilinePercent + this.quotedPercent) {
+                    sb.append("\"v").append(r).append(",\"\"").append(c).append("\"\"\"");
+                } else {
+                    sb.append("value").append(r).append('_').append(c);
+                }
+            }
+            sb.append("\r\n");
+        }
+        this.csv = sb.toString();
+        this.bytes = this.csv.getBytes(StandardCharsets.UTF_8);
+        this.rows = new CsvIterator(new StringReader(this.csv)).stream().collect(Collectors.toList());
+        this.selection = new int[] {0, this.columns / 2, this.columns - 1};
+    }
+
+    /**
+     * {@link CsvIterator#CsvIterator(java.io.Reader)}で全ての行を読み込みます。
+     * @param bh 結果を消費する{@link Blackhole}
+     */
+    @Benchmark
+    public void iteratorReader(Blackhole bh) {
+        for (List<String> rowdata : new CsvIterator(new StringReader(this.csv))) {
+            bh.consume(rowdata);
+        }
+    }
+
+    /**
+     * {@link CsvIterator#CsvIterator(java.io.InputStream, java.nio.charset.Charset)}で
+     * 全ての行を読み込みます。
+     * @param bh 結果を消費する{@link Blackhole}
+     */
+    @Benchmark
+    public void iteratorBytes(Blackhole bh) {
+        for (List<String> rowdata : new CsvIterator(new ByteArrayInputStream(this.bytes), StandardCharsets.UTF_8)) {
+            bh.consume(rowdata);
+        }
+    }
+
+    /**
+     * {@link CsvIterator#select(int...)}で先頭、中央、最後の項目のみを読み込みます。
+     * @param bh 結果を消費する{@link Blackhole}
+     */
+    @Benchmark
+    public void iteratorSelect(Blackhole bh) {
+        for (List<String> rowdata : new CsvIterator(new StringReader(this.csv)).select(this.selection)) {
+            bh.consume(rowdata);
+        }
+    }
+
+    /**
+     * {@link CsvCursor}で全ての行を読み込み、項目をビューとして参照します。
+     * @param bh 結果を消費する{@link Blackhole}
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Benchmark
+    public void cursor(Blackhole bh) throws IOException {
+        CsvCursor cursor = new CsvCursor(new StringReader(this.csv));
+        while (cursor.advance()) {
+            for (int i = 0; i < cursor.fieldCount(); i++) {
+                bh.consume(cursor.field(i).length());
+            }
+        }
+    }
+
+    /**
+     * {@link CsvWriter#writeRow(List)}で全ての行を出力します。
+     * @throws IOException 出力に失敗した場合
+     */
+    @Benchmark
+    public void writer() throws IOException {
+        try (CsvWriter writer = new CsvWriter(Writer.nullWriter())) {
+            for (List<String> rowdata : this.rows) {
+                writer.writeRow(rowdata);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package myproject.java.utils.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myproject.java.utils.ExceptionAggregator;
+import myproject.java.utils.ExceptionUtils;
+
+/**
+ * {@link ExceptionAggregator}のベンチマークを実行します。
+ * <p>
+ * 同じ箇所で繰り返し発生する例外を、抽出する割合を変えて{@link ExceptionAggregator#record(Throwable)}で
+ * 記録する時間と、毎回{@link ExceptionUtils#getStackTraceString(Exception)}で文字列に変換する時間を
+ * 計測します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionAggregatorBenchmark {
+
+    /** 指紋とスタックトレースの文字列に含めるフレーム数の上限。 */
+    private static final int MAX_FRAMES = 20;
+
+    /** ２回目以降の発生でスタックトレースを文字列に変換する割合。 */
+    @Param({"0", "100"})
+    private int sampleRate;
+
+    /** 記録する例外。 */
+    private Exception exception;
+
+    /** 例外を記録する集計。 */
+    private ExceptionAggregator aggregator;
+
+    /**
+     * ベンチマークで使用する例外と集計を作成します。
+     */
+    @Setup
+    public void setup() {
+        this.exception = new RuntimeException("wrapped", new IllegalStateException("failure"));
+        this.aggregator = new ExceptionAggregator(MAX_FRAMES, this.sampleRate);
+    }
+
+    /**
+     * {@link ExceptionAggregator#record(Throwable)}で例外を記録します。
+     * @return スタックトレースを変換した文字列を返します。変換しない場合はnullを返します。
+     */
+    @Benchmark
+    public String record() {
+        return this.aggregator.record(this.exception);
+    }
+
+    /**
+     * {@link ExceptionUtils#getStackTraceString(Exception)}で毎回スタックトレースを文字列に変換します。
+     * @return 変換した文字列を返します。
+     */
+    @Benchmark
+    public String getStackTraceString() {
+        return ExceptionUtils.getStackTraceString(this.exception);
+    }
+}
@@ -0,0 +1,167 @@
+package myproject.java.utils.benchmarks;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myproject.java.utils.ExceptionUtils;
+
+/**
+ * {@link ExceptionUtils}のベンチマークを実行します。
+ * <p>
+ * 呼び出しの深さを変えて発生させた、原因となった例外を持つ例外のスタックトレースを
+ * 文字列に変換する時間を計測します。比較のため{@link Throwable#printStackTrace(PrintWriter)}の
+ * 時間と、フレーム数の上限を指定して再利用する{@link StringBuilder}に追加する時間も計測します。
+ * </p>
+ * <p>
+ * 例外の指紋は、{@link ExceptionUtils#fingerprint(Throwable, int)}とスタックトレースの文字列の
+ * ハッシュ値を比較します。呼び出し箇所の取得は、呼び出しの深さの位置で
+ * {@link ExceptionUtils#callSiteFingerprint(int, int)}と{@link Throwable#getStackTrace()}を比較します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionUtilsBenchmark {
+
+    /** {@link #appendStackTrace()}で出力するフレーム数の上限。 */
+    private static final int MAX_FRAMES = 20;
+
+    /** 指紋に含めるフレーム数の上限。 */
+    private static final int FINGERPRINT_FRAMES = 8;
+
+    /** 例外を発生させる呼び出しの深さ。 */
+    @Param({"10", "200"})
+    private int depth;
+
+    /** 変換する例外。 */
+    private Exception exception;
+
+    /** {@link #appendStackTrace()}で再利用する{@link StringBuilder}。 */
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * ベンチマークで使用する例外を発生させます。
+     */
+    @Setup
+    public void setup() {
+        try {
+            recurse(this.depth);
+        } catch (IllegalStateException e) {
+            this.exception = new RuntimeException("wrapped", e);
+        }
+    }
+
+    /**
+     * 指定された深さまで再帰呼び出しを行い、呼び出し箇所の処理を実行します。
+     * @param n 残りの呼び出しの深さ
+     * @param callSite 呼び出し箇所の処理
+     * @return 呼び出し箇所の処理の結果を返します。
+     */
+    private static long recurse(int n, LongSupplier callSite) {
+        if (n <= 0) {
+            return callSite.getAsLong();
+        }
+        return recurse(n - 1, callSite) + 1;
+    }
+
+    /**
+     * 指定された深さまで再帰呼び出しを行い、例外を発生させます。
+     * @param n 残りの呼び出しの深さ
+     * @return 値を返すことはありません。
+     */
+    private static int recurse(int n) {
+        if (n <= 0) {
+            throw new IllegalStateException("depth reached");
+        }
+        return recurse(n - 1) + 1;
+    }
+
+    /**
+     * {@link ExceptionUtils#getStackTraceString(Exception)}でスタックトレースを
+     * 文字列に変換します。
+     * @return 変換した文字列を返します。
+     */
+    @Benchmark
+    public String getStackTraceString() {
+        return ExceptionUtils.getStackTraceString(this.exception);
+    }
+
+    /**
+     * {@link Throwable#printStackTrace(PrintWriter)}でスタックトレースを文字列に変換します。
+     * @return 変換した文字列を返します。
+     */
+    @Benchmark
+    public String printStackTrace() {
+        StringWriter sw = new StringWriter();
+        this.exception.printStackTrace(new PrintWriter(sw));
+        return sw.toString();
+    }
+
+    /**
+     * {@link ExceptionUtils#appendStackTrace(StringBuilder, Throwable, int)}で、フレーム数の上限を
+     * 指定してスタックトレースを再利用する{@link StringBuilder}に追加します。
+     * @return スタックトレースを追加した{@link StringBuilder}の長さを返します。
+     */
+    @Benchmark
+    public int appendStackTrace() {
+        this.buffer.setLength(0);
+        return ExceptionUtils.appendStackTrace(this.buffer, this.exception, MAX_FRAMES).length();
+    }
+
+    /**
+     * {@link ExceptionUtils#fingerprint(Throwable, int)}で例外の指紋を計算します。
+     * @return ハッシュ値を返します。
+     */
+    @Benchmark
+    public long fingerprint() {
+        return ExceptionUtils.fingerprint(this.exception, FINGERPRINT_FRAMES);
+    }
+
+    /**
+     * スタックトレースの文字列のハッシュ値で例外の指紋を計算します。
+     * @return ハッシュ値を返します。
+     */
+    @Benchmark
+    public long fingerprintString() {
+        return ExceptionUtils.getStackTraceString(this.exception).hashCode();
+    }
+
+    /**
+     * {@link ExceptionUtils#callSiteFingerprint(int, int)}で呼び出し箇所の指紋を計算します。
+     * @return ハッシュ値を返します。
+     */
+    @Benchmark
+    public long callSiteFingerprint() {
+        return recurse(this.depth, () -> ExceptionUtils.callSiteFingerprint(0, FINGERPRINT_FRAMES));
+    }
+
+    /**
+     * {@link Throwable#getStackTrace()}で呼び出し箇所のフレームを取得します。
+     * @return フレーム数を返します。
+     */
+    @Benchmark
+    public long callSiteThrowable() {
+        return recurse(this.depth, () -> new Throwable().getStackTrace().length);
+    }
+}
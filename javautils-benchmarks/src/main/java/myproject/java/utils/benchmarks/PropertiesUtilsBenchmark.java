@@ -0,0 +1,153 @@
+package myproject.java.utils.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myproject.java.utils.ConfigSnapshot;
+import myproject.java.utils.PropertiesParser;
+import myproject.java.utils.PropertiesUtils;
+
+/**
+ * {@link PropertiesUtils}のベンチマークを実行します。
+ * <p>
+ * {@link PropertiesUtils#replaceKeyword(Properties)}は、プロパティ数を変えて、
+ * 値の半数が他のプロパティまたはシステムプロパティを「${}」で参照する
+ * {@link Properties}を置換する時間を計測します。置換は引数の{@link Properties}を
+ * 変更するため、計測時間には元の{@link Properties}の複写を含みます。
+ * </p>
+ * <p>
+ * プロパティファイルの解析は、同じプロパティ数のコメント、エスケープ、継続行を含む内容を
+ * {@link Properties#load(java.io.InputStream)}と{@link PropertiesParser#parse(byte[])}で
+ * 解析する時間を計測します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertiesUtilsBenchmark {
+
+    /** 読み込むプロパティファイルのクラスパス。 */
+    private static final String RESOURCE = "benchmark.properties";
+
+    /** プロパティ数。 */
+    @Param({"100", "1000"})
+    private int size;
+
+    /** 置換前のプロパティ。 */
+    private Properties source;
+
+    /** 解析するプロパティファイルの内容。 */
+    private byte[] content;
+
+    /**
+     * ベンチマークで使用するプロパティを生成します。
+     */
+    @Setup
+    public void setup() {
+        this.source = new Properties();
+        for (int i = 0; i < this.size; i++) {
+            String value;
+            if (i % 4 == 1) {
+                value = "${key" + (i - 1) + "}/dir" + i;
+            } else if (i % 4 == 3) {
+                value = "${user.dir}/file" + i + ".txt";
+            } else {
+                value = "value" + i;
+            }
+            this.source.setProperty("key" + i, value);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < this.size; i++) {
+            if (i % 10 == 0) {
+                sb.append("# comment ").append(i).append('\n');
+            }
+            if (i % 4 == 1) {
+                sb.append("key").append(i).append(" = \\u5024").append(i).append("\\tvalue\n");
+            } else if (i % 4 == 3) {
+                sb.append("key").append(i).append("=first line \\\n    second line ").append(i).append('\n');
+            } else {
+                sb.append("key").append(i).append("=${user.dir}/file").append(i).append(".txt\n");
+            }
+        }
+        this.content = sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * {@link PropertiesUtils#replaceKeyword(Properties)}でキーワードを置換します。
+     * @return 置換したプロパティを返します。
+     */
+    @Benchmark
+    public Properties replaceKeyword() {
+        Properties properties = new Properties();
+        properties.putAll(this.source);
+        PropertiesUtils.replaceKeyword(properties);
+        return properties;
+    }
+
+    /**
+     * {@link PropertiesUtils#loadResource(String)}でプロパティファイルを読み込みます。
+     * @return 読み込んだプロパティを返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Benchmark
+    public Properties loadResource() throws IOException {
+        return PropertiesUtils.loadResource(RESOURCE);
+    }
+
+    /**
+     * {@link Properties#load(java.io.InputStream)}でプロパティファイルの内容を解析します。
+     * @return 解析したプロパティを返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Benchmark
+    public Properties parseProperties() throws IOException {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(this.content));
+        return properties;
+    }
+
+    /**
+     * {@link PropertiesParser#parse(byte[])}でプロパティファイルの内容を解析します。
+     * @return 解析したキーと値の表を返します。
+     */
+    @Benchmark
+    public Map<String, String> parseParser() {
+        return PropertiesParser.parse(this.content);
+    }
+
+    /**
+     * {@link PropertiesUtils#loadConfig(String)}でキャッシュされた設定値を取得し、
+     * 値をintに変換して取得します。
+     * @return 取得した値を返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    @Benchmark
+    public int loadConfigGetInt() throws IOException {
+        ConfigSnapshot config = PropertiesUtils.loadConfig(RESOURCE);
+        return config.getInt("size", 0);
+    }
+}
@@ -0,0 +1,141 @@
+package myproject.java.utils.benchmarks;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JButton;
+import javax.swing.JPanel;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import myproject.java.utils.ComponentNameIndex;
+import myproject.java.utils.SwingUtils;
+
+/**
+ * {@link SwingUtils}、{@link ComponentNameIndex}のベンチマークを実行します。
+ * <p>
+ * パネルを入れ子にした画面から、最後に追加したボタンを名前で取得する時間と、
+ * 各パネルの最初のボタンを名前でまとめて取得する時間を計測します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwingUtilsBenchmark {
+
+    /** パネルごとのボタンの数。 */
+    private static final int BUTTONS = 10;
+
+    /** 画面に含まれるパネルの数。 */
+    @Param({"10", "100"})
+    private int panels;
+
+    /** 画面のルートのパネル。 */
+    private Container root;
+
+    /** 取得するボタンの名前。 */
+    private String name;
+
+    /** まとめて取得するボタンの名前。 */
+    private String[] names;
+
+    /** ルートのパネルの索引。 */
+    private ComponentNameIndex index;
+
+    /**
+     * ベンチマークで使用する画面と索引を作成します。
+     */
+    @Setup
+    public void setup() {
+        this.root = new JPanel();
+        Container parent = this.root;
+        this.names = new String[this.panels];
+        for (int i = 0; i < this.panels; i++) {
+            JPanel panel = new JPanel();
+            panel.setName("panel" + i);
+            this.names[i] = "button" + i + "_0";
+            for (int j = 0; j < BUTTONS; j++) {
+                this.name = "button" + i + "_" + j;
+                JButton button = new JButton(this.name);
+                button.setName(this.name);
+                panel.add(button);
+            }
+            // 半分のパネルは入れ子にする
+            if (i % 2 == 0) {
+                parent.add(panel);
+                parent = panel;
+            } else {
+                this.root.add(panel);
+            }
+        }
+        this.index = new ComponentNameIndex(this.root);
+    }
+
+    /**
+     * 索引を破棄します。
+     */
+    @TearDown
+    public void tearDown() {
+        this.index.dispose();
+    }
+
+    /**
+     * {@link SwingUtils#getComponentByName(Container, String)}で画面を検索します。
+     * @return 取得したボタンを返します。
+     */
+    @Benchmark
+    public Component getComponentByName() {
+        return SwingUtils.getComponentByName(this.root, this.name);
+    }
+
+    /**
+     * {@link ComponentNameIndex#get(String)}で索引から取得します。
+     * @return 取得したボタンを返します。
+     */
+    @Benchmark
+    public Component indexGet() {
+        return this.index.get(this.name);
+    }
+
+    /**
+     * {@link SwingUtils#getComponentByName(Container, String)}で名前ごとに画面を検索します。
+     * @return 最後に取得したボタンを返します。
+     */
+    @Benchmark
+    public Component getComponentByNameEach() {
+        Component component = null;
+        for (String n : this.names) {
+            component = SwingUtils.getComponentByName(this.root, n);
+        }
+        return component;
+    }
+
+    /**
+     * {@link SwingUtils#getComponentsByName(Container, String...)}で１回の検索でまとめて取得します。
+     * @return 取得したボタンの表を返します。
+     */
+    @Benchmark
+    public Map<String, Component> getComponentsByName() {
+        return SwingUtils.getComponentsByName(this.root, this.names);
+    }
+}
@@ -0,0 +1,628 @@
+package myproject.java.utils;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * クラスファイルをクラスとしてロードせずに解析し、クラス名、スーパー・クラス、
+ * インターフェース、アノテーション、フィールド及びメソッドの情報を取得します。
+ * <p>
+ * コンストラクタでは定数プールの位置とクラスの情報のみを読み込み、定数プールの文字列は
+ * 参照された時に変換します。フィールド及びメソッドは{@link #getFields()}、
+ * {@link #getMethods()}を最初に呼び出した時に解析します。{@link ByteBuffer}を指定した場合は
+ * バッファの内容を複写せずに解析するため、メモリマップされたファイルを直接指定できます。
+ * アノテーションは、保存ポリシーが{@link java.lang.annotation.RetentionPolicy#RUNTIME}及び
+ * {@link java.lang.annotation.RetentionPolicy#CLASS}のものを取得します。
+ * </p>
+ * <p>
+ * このクラスのインスタンスはスレッド・セーフではありません。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.ClassFileReader;
+ * ...
+ * ClassFileReader reader = new ClassFileReader(Files.readAllBytes(path));
+ * if (reader.hasAnnotation("com.example.Plugin")) {
+ *     for (ClassFileReader.MemberInfo method : reader.getMethods()) {
+ *         if (method.getName().equals("init") &amp;&amp; method.getDescriptor().equals("()V")) {
+ *             Class&lt;?&gt; pluginClass = Class.forName(reader.getClassName());
+ *             ...
+ *         }
+ *     }
+ * }
+ * </pre></td></tr></table>
+ */
+public class ClassFileReader {
+
+    /** クラスファイルのマジックナンバー。 */
+    private static final int CLASS_MAGIC = 0xCAFEBABE;
+
+    /** 定数プールのタグ：UTF-8文字列。 */
+    private static final int CONSTANT_UTF8 = 1;
+
+    /** 定数プールのタグ：int。 */
+    private static final int CONSTANT_INTEGER = 3;
+
+    /** 定数プールのタグ：float。 */
+    private static final int CONSTANT_FLOAT = 4;
+
+    /** 定数プールのタグ：long。 */
+    private static final int CONSTANT_LONG = 5;
+
+    /** 定数プールのタグ：double。 */
+    private static final int CONSTANT_DOUBLE = 6;
+
+    /** 定数プールのタグ：クラス。 */
+    private static final int CONSTANT_CLASS = 7;
+
+    /** 定数プールのタグ：文字列。 */
+    private static final int CONSTANT_STRING = 8;
+
+    /** 定数プールのタグ：フィールドの参照。 */
+    private static final int CONSTANT_FIELDREF = 9;
+
+    /** 定数プールのタグ：メソッドの参照。 */
+    private static final int CONSTANT_METHODREF = 10;
+
+    /** 定数プールのタグ：インタフェースのメソッドの参照。 */
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+
+    /** 定数プールのタグ：名前と型。 */
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    /** 定数プールのタグ：メソッドハンドル。 */
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+
+    /** 定数プールのタグ：メソッドの型。 */
+    private static final int CONSTANT_METHOD_TYPE = 16;
+
+    /** 定数プールのタグ：動的に計算される定数。 */
+    private static final int CONSTANT_DYNAMIC = 17;
+
+    /** 定数プールのタグ：invokedynamic命令の呼び出し元。 */
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+    /** 定数プールのタグ：モジュール。 */
+    private static final int CONSTANT_MODULE = 19;
+
+    /** 定数プールのタグ：パッケージ。 */
+    private static final int CONSTANT_PACKAGE = 20;
+
+    /** 定数プールのエントリのうち、定数プールの位置１つを保持するエントリのバイト数。 */
+    private static final int INDEX_ENTRY_SIZE = 2;
+
+    /** 定数プールのエントリのうち、メソッドハンドルのエントリのバイト数。 */
+    private static final int METHOD_HANDLE_ENTRY_SIZE = 3;
+
+    /** 定数プールのエントリのうち、４バイトの値または定数プールの位置２つを保持するエントリのバイト数。 */
+    private static final int WORD_ENTRY_SIZE = 4;
+
+    /** 定数プールのエントリのうち、long及びdoubleのエントリのバイト数。 */
+    private static final int LONG_ENTRY_SIZE = 8;
+
+    /** 実行時に参照できるアノテーションの属性名。 */
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    /** 実行時に参照できないアノテーションの属性名。 */
+    private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+
+    /** ジェネリクスのシグネチャの属性名。 */
+    private static final String SIGNATURE = "Signature";
+
+    /** クラスファイルの内容。 */
+    private final ByteBuffer buf;
+
+    /** 定数プールの各エントリの、タグの次の位置。 */
+    private final int[] offsets;
+
+    /** 変換した定数プールの文字列。 */
+    private final String[] strings;
+
+    /** メジャー・バージョン。 */
+    private final int majorVersion;
+
+    /** クラスのアクセス修飾子。 */
+    private final int accessFlags;
+
+    /** クラスの定数プールの位置。 */
+    private final int thisClass;
+
+    /** スーパー・クラスの定数プールの位置。 */
+    private final int superClass;
+
+    /** インターフェースの定数プールの位置。 */
+    private final int[] interfaces;
+
+    /** フィールドの開始位置。 */
+    private final int fieldsOffset;
+
+    /** クラスのアノテーションの型の記述子。 */
+    private final List<String> annotationDescriptors;
+
+    /** クラスのジェネリクスのシグネチャ。 */
+    private final String signature;
+
+    /** フィールドの一覧。解析前はnull。 */
+    private List<MemberInfo> fields = null;
+
+    /** メソッドの一覧。解析前はnull。 */
+    private List<MemberInfo> methods = null;
+
+    /**
+     * クラスファイルの内容を指定して、クラスファイルを解析します。
+     * @param bytes クラスファイルの内容
+     * @throws IOException クラスファイルの形式が正しくない場合
+     */
+    public ClassFileReader(byte[] bytes) throws IOException {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * クラスファイルの内容を格納したバッファを指定して、クラスファイルを解析します。
+     * バッファの現在位置からリミットまでをクラスファイルとして解析します。
+     * 指定したバッファの位置は変更しませんが、このインスタンスを使用している間は
+     * バッファの内容を変更しないでください。
+     * @param buffer クラスファイルの内容を格納したバッファ
+     * @throws IOException クラスファイルの形式が正しくない場合
+     */
+    public ClassFileReader(ByteBuffer buffer) throws IOException {
+        this.buf = buffer.slice();
+        try {
+            if (this.buf.getInt() != CLASS_MAGIC) {
+                throw new IOException("Invalid class file magic");
+            }
+            this.buf.getShort();
+            this.majorVersion = this.buf.getShort() & 0xFFFF;
+
+            int count = this.buf.getShort() & 0xFFFF;
+            this.offsets = new int[count];
+            this.strings = new String[count];
+            for (int i = 1; i < count; i++) {
+                int tag = this.buf.get();
+                this.offsets[i] = this.buf.position();
+                switch (tag) {
+                case CONSTANT_UTF8:
+                    skip(this.buf.getShort() & 0xFFFF);
+                    break;
+                case CONSTANT_CLASS: case CONSTANT_STRING: case CONSTANT_METHOD_TYPE:
+                case CONSTANT_MODULE: case CONSTANT_PACKAGE:
+                    skip(INDEX_ENTRY_SIZE);
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    skip(METHOD_HANDLE_ENTRY_SIZE);
+                    break;
+                case CONSTANT_INTEGER: case CONSTANT_FLOAT: case CONSTANT_FIELDREF: case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF: case CONSTANT_NAME_AND_TYPE: case CONSTANT_DYNAMIC:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    skip(WORD_ENTRY_SIZE);
+                    break;
+                case CONSTANT_LONG: case CONSTANT_DOUBLE:
+                    // long及びdoubleは定数プールの２エントリを使用する
+                    skip(LONG_ENTRY_SIZE);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Invalid constant pool tag " + tag + " at " + i);
+                }
+            }
+
+            this.accessFlags = this.buf.getShort() & 0xFFFF;
+            this.thisClass = this.buf.getShort() & 0xFFFF;
+            this.superClass = this.buf.getShort() & 0xFFFF;
+            this.interfaces = new int[this.buf.getShort() & 0xFFFF];
+            for (int i = 0; i < this.interfaces.length; i++) {
+                this.interfaces[i] = this.buf.getShort() & 0xFFFF;
+            }
+
+            this.fieldsOffset = this.buf.position();
+            for (int member = 0; member < 2; member++) {
+                int memberCount = this.buf.getShort() & 0xFFFF;
+                for (int i = 0; i < memberCount; i++) {
+                    skip(6);
+                    int attributeCount = this.buf.getShort() & 0xFFFF;
+                    for (int j = 0; j < attributeCount; j++) {
+                        skip(2);
+                        skip(this.buf.getInt());
+                    }
+                }
+            }
+
+            List<String> annotations = new ArrayList<String>();
+            this.signature = readAttributes(annotations);
+            this.annotationDescriptors = annotations;
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Invalid class file", e);
+        }
+    }
+
+    /**
+     * クラスファイルのメジャー・バージョンを取得します。
+     * @return メジャー・バージョンを返します（Java 11の場合は55）。
+     */
+    public int getMajorVersion() {
+        return this.majorVersion;
+    }
+
+    /**
+     * クラスのアクセス修飾子を取得します。
+     * @return アクセス修飾子を返します。値は{@link java.lang.reflect.Modifier}の定数、及び
+     *      クラスファイルのACC_INTERFACE、ACC_ANNOTATION、ACC_ENUMなどのフラグの和です。
+     */
+    public int getAccessFlags() {
+        return this.accessFlags;
+    }
+
+    /**
+     * クラスのバイナリ名を取得します。
+     * @return 「.」区切りのクラス名（入れ子クラスは「$」区切り）を返します。
+     */
+    public String getClassName() {
+        return className(this.thisClass);
+    }
+
+    /**
+     * スーパー・クラスのバイナリ名を取得します。
+     * @return スーパー・クラス名を返します。{@link Object}及びmodule-infoの場合はnullを返します。
+     */
+    public String getSuperclassName() {
+        return this.superClass != 0 ? className(this.superClass) : null;
+    }
+
+    /**
+     * 実装しているインターフェースのバイナリ名を取得します。
+     * @return インターフェース名の一覧を、宣言されている順に返します。
+     */
+    public List<String> getInterfaceNames() {
+        List<String> names = new ArrayList<String>(this.interfaces.length);
+        for (int index : this.interfaces) {
+            names.add(className(index));
+        }
+        return names;
+    }
+
+    /**
+     * クラスのジェネリクスのシグネチャを取得します。
+     * @return シグネチャを返します。Signature属性がない場合はnullを返します。
+     */
+    public String getSignature() {
+        return this.signature;
+    }
+
+    /**
+     * クラスに付けられているアノテーションのバイナリ名を取得します。
+     * @return アノテーション名の一覧を返します。
+     */
+    public List<String> getAnnotationNames() {
+        return annotationNames(this.annotationDescriptors);
+    }
+
+    /**
+     * クラスに指定したアノテーションが付けられているかどうかを判定します。
+     * アノテーション名は変換せずに記述子と比較するため、{@link #getAnnotationNames()}より
+     * 高速です。
+     * @param annotationName アノテーションのバイナリ名
+     * @return アノテーションが付けられている場合はtrueを返します。
+     */
+    public boolean hasAnnotation(String annotationName) {
+        return containsAnnotation(this.annotationDescriptors, annotationName);
+    }
+
+    /**
+     * クラスで宣言されているフィールドを取得します。
+     * @return フィールドの変更不可の一覧を、宣言されている順に返します。
+     * @throws IllegalStateException クラスファイルの形式が正しくない場合
+     */
+    public List<MemberInfo> getFields() {
+        if (this.fields == null) {
+            parseMembers();
+        }
+        return this.fields;
+    }
+
+    /**
+     * クラスで宣言されているメソッドを取得します。コンストラクタ（&lt;init&gt;）及び
+     * クラス初期化子（&lt;clinit&gt;）を含みます。
+     * @return メソッドの変更不可の一覧を、宣言されている順に返します。
+     * @throws IllegalStateException クラスファイルの形式が正しくない場合
+     */
+    public List<MemberInfo> getMethods() {
+        if (this.methods == null) {
+            parseMembers();
+        }
+        return this.methods;
+    }
+
+    /**
+     * 定数プールのUTF-8文字列を取得します。
+     * @param index 定数プールの位置
+     * @return 文字列を返します。位置が０の場合はnullを返します。
+     * @throws IllegalArgumentException 位置がUTF-8文字列のエントリでない場合
+     */
+    public String getUtf8(int index) {
+        if (index == 0) {
+            return null;
+        }
+        String s = this.strings[index];
+        if (s == null) {
+            int offset = this.offsets[index];
+            if (offset == 0 || this.buf.get(offset - 1) != CONSTANT_UTF8) {
+                throw new IllegalArgumentException("Not a UTF-8 constant: " + index);
+            }
+            s = decodeUtf8(offset + 2, this.buf.getShort(offset) & 0xFFFF);
+            this.strings[index] = s;
+        }
+        return s;
+    }
+
+    /**
+     * フィールドとメソッドを解析します。
+     * @throws IllegalStateException クラスファイルの形式が正しくない場合
+     */
+    private void parseMembers() {
+        try {
+            this.buf.position(this.fieldsOffset);
+            this.fields = readMembers();
+            this.methods = readMembers();
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalStateException("Invalid class file", e);
+        }
+    }
+
+    /**
+     * 現在位置からフィールドまたはメソッドの一覧を読み込みます。
+     * @return フィールドまたはメソッドの変更不可の一覧を返します。
+     */
+    private List<MemberInfo> readMembers() {
+        int count = this.buf.getShort() & 0xFFFF;
+        List<MemberInfo> members = new ArrayList<MemberInfo>(count);
+        for (int i = 0; i < count; i++) {
+            int access = this.buf.getShort() & 0xFFFF;
+            String name = getUtf8(this.buf.getShort() & 0xFFFF);
+            String descriptor = getUtf8(this.buf.getShort() & 0xFFFF);
+            List<String> annotations = new ArrayList<String>();
+            String memberSignature = readAttributes(annotations);
+            members.add(new MemberInfo(access, name, descriptor, memberSignature, annotations));
+        }
+        return Collections.unmodifiableList(members);
+    }
+
+    /**
+     * 現在位置から属性を読み込み、アノテーションの型の記述子とシグネチャを取得します。
+     * @param annotations アノテーションの型の記述子を追加する一覧
+     * @return シグネチャを返します。Signature属性がない場合はnullを返します。
+     */
+    private String readAttributes(List<String> annotations) {
+        String result = null;
+        int count = this.buf.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            String name = getUtf8(this.buf.getShort() & 0xFFFF);
+            int length = this.buf.getInt();
+            int end = this.buf.position() + length;
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name) || RUNTIME_INVISIBLE_ANNOTATIONS.equals(name)) {
+                int annotationCount = this.buf.getShort() & 0xFFFF;
+                for (int j = 0; j < annotationCount; j++) {
+                    annotations.add(getUtf8(this.buf.getShort() & 0xFFFF));
+                    skipElementValuePairs();
+                }
+            } else if (SIGNATURE.equals(name)) {
+                result = getUtf8(this.buf.getShort() & 0xFFFF);
+            }
+            this.buf.position(end);
+        }
+        return result;
+    }
+
+    /**
+     * アノテーションの要素と値の組を読み飛ばします。
+     */
+    private void skipElementValuePairs() {
+        int count = this.buf.getShort() & 0xFFFF;
+        for (int i = 0; i < count; i++) {
+            skip(2);
+            skipElementValue();
+        }
+    }
+
+    /**
+     * アノテーションの要素の値を読み飛ばします。
+     */
+    private void skipElementValue() {
+        int tag = this.buf.get();
+        switch (tag) {
+        case 'e':
+            skip(4);
+            break;
+        case '@':
+            skip(2);
+            skipElementValuePairs();
+            break;
+        case '[':
+            int count = this.buf.getShort() & 0xFFFF;
+            for (int i = 0; i < count; i++) {
+                skipElementValue();
+            }
+            break;
+        default:
+            skip(2);
+            break;
+        }
+    }
+
+    /**
+     * 現在位置を指定したバイト数だけ進めます。
+     * @param length 進めるバイト数
+     * @throws IllegalArgumentException バッファの終わりを超える場合
+     */
+    private void skip(int length) {
+        this.buf.position(this.buf.position() + length);
+    }
+
+    /**
+     * 定数プールのクラスのエントリから、クラスのバイナリ名を取得します。
+     * @param index 定数プールの位置
+     * @return 「.」区切りのクラス名を返します。
+     */
+    private String className(int index) {
+        return getUtf8(this.buf.getShort(this.offsets[index]) & 0xFFFF).replace('/', '.');
+    }
+
+    /**
+     * クラスファイルの修正UTF-8形式の文字列を変換します。
+     * @param offset 文字列の開始位置
+     * @param length 文字列のバイト数
+     * @return 変換した文字列を返します。
+     */
+    private String decodeUtf8(int offset, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            int b = this.buf.get(i) & 0xFF;
+            if (b < 0x80) {
+                chars[count++] = (char) b;
+            } else if ((b & 0xE0) == 0xC0) {
+                chars[count++] = (char) (((b & 0x1F) << 6) | (this.buf.get(++i) & 0x3F));
+            } else {
+                int b2 = this.buf.get(++i) & 0x3F;
+                int b3 = this.buf.get(++i) & 0x3F;
+                chars[count++] = (char) (((b & 0x0F) << 12) | (b2 << 6) | b3);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    /**
+     * アノテーションの型の記述子の一覧を、バイナリ名の一覧に変換します。
+     * @param descriptors アノテーションの型の記述子の一覧
+     * @return アノテーションのバイナリ名の一覧を返します。
+     */
+    private static List<String> annotationNames(List<String> descriptors) {
+        List<String> names = new ArrayList<String>(descriptors.size());
+        for (String descriptor : descriptors) {
+            names.add(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'));
+        }
+        return names;
+    }
+
+    /**
+     * アノテーションの型の記述子の一覧に、指定したアノテーションが含まれるかどうかを判定します。
+     * @param descriptors アノテーションの型の記述子の一覧
+     * @param annotationName アノテーションのバイナリ名
+     * @return 含まれる場合はtrueを返します。
+     */
+    private static boolean containsAnnotation(List<String> descriptors, String annotationName) {
+        for (String descriptor : descriptors) {
+            if (descriptor.length() == annotationName.length() + 2) {
+                boolean matches = true;
+                for (int i = 0; i < annotationName.length() && matches; i++) {
+                    char c = annotationName.charAt(i);
+                    matches = descriptor.charAt(i + 1) == (c == '.' ? '/' : c);
+                }
+                if (matches) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * クラスファイルから読み込んだフィールドまたはメソッドの情報。
+     */
+    public static final class MemberInfo {
+        /** アクセス修飾子。 */
+        private final int accessFlags;
+
+        /** 名前。 */
+        private final String name;
+
+        /** 型の記述子。 */
+        private final String descriptor;
+
+        /** ジェネリクスのシグネチャ。 */
+        private final String signature;
+
+        /** アノテーションの型の記述子。 */
+        private final List<String> annotationDescriptors;
+
+        /**
+         * メンバーの情報を構築します。
+         * @param accessFlags アクセス修飾子
+         * @param name 名前
+         * @param descriptor 型の記述子
+         * @param signature ジェネリクスのシグネチャ
+         * @param annotationDescriptors アノテーションの型の記述子
+         */
+        private MemberInfo(int accessFlags, String name, String descriptor, String signature,
+                List<String> annotationDescriptors) {
+            this.accessFlags = accessFlags;
+            this.name = name;
+            this.descriptor = descriptor;
+            this.signature = signature;
+            this.annotationDescriptors = annotationDescriptors;
+        }
+
+        /**
+         * アクセス修飾子を取得します。
+         * @return アクセス修飾子を返します。値は{@link java.lang.reflect.Modifier}の定数、及び
+         *      クラスファイルのACC_SYNTHETIC、ACC_BRIDGEなどのフラグの和です。
+         */
+        public int getAccessFlags() {
+            return this.accessFlags;
+        }
+
+        /**
+         * 名前を取得します。
+         * @return フィールド名またはメソッド名を返します。
+         */
+        public String getName() {
+            return this.name;
+        }
+
+        /**
+         * 型の記述子を取得します。
+         * @return フィールドの場合は「Ljava/lang/String;」、メソッドの場合は「(I)V」などの
+         *      記述子を返します。
+         */
+        public String getDescriptor() {
+            return this.descriptor;
+        }
+
+        /**
+         * ジェネリクスのシグネチャを取得します。
+         * @return シグネチャを返します。Signature属性がない場合はnullを返します。
+         */
+        public String getSignature() {
+            return this.signature;
+        }
+
+        /**
+         * 付けられているアノテーションのバイナリ名を取得します。
+         * @return アノテーション名の一覧を返します。
+         */
+        public List<String> getAnnotationNames() {
+            return annotationNames(this.annotationDescriptors);
+        }
+
+        /**
+         * 指定したアノテーションが付けられているかどうかを判定します。
+         * @param annotationName アノテーションのバイナリ名
+         * @return アノテーションが付けられている場合はtrueを返します。
+         */
+        public boolean hasAnnotation(String annotationName) {
+            return containsAnnotation(this.annotationDescriptors, annotationName);
+        }
+
+        @Override
+        public String toString() {
+            return this.name + this.descriptor;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package myproject.java.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * クラスパスのディレクトリまたはjarファイルに配置されているクラス及びリソースを列挙します。
+ * <p>
+ * jarファイルは{@link ZipFile}で開き、中央ディレクトリのエントリ名のみから列挙するため、
+ * パッケージで絞り込む場合はエントリの内容を読み込みません。アノテーションで絞り込む
+ * 場合は、対象のパッケージのクラスファイルのみを読み込み、クラスをロードせずに
+ * {@link ClassFileReader}でクラスに付けられたアノテーションを判定します。
+ * クラスファイルの読み込みと判定は、{@link #parallel(boolean)}でfalseを指定しない限り
+ * {@link Stream#parallel()}で複数のスレッドに分散して実行します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.ClassPathScanner;
+ * ...
+ * List&lt;String&gt; classNames = ClassPathScanner.forClass(PluginLoader.class)
+ *         .packages("com.example.plugins")
+ *         .annotatedWith(Plugin.class)
+ *         .scanClasses();
+ * for (String className : classNames) {
+ *     Class&lt;?&gt; pluginClass = Class.forName(className);
+ *     ...
+ * }
+ * </pre></td></tr></table>
+ */
+public class ClassPathScanner {
+
+    /** クラスファイルの拡張子。 */
+    private static final String CLASS_SUFFIX = ".class";
+
+    /** 列挙するディレクトリまたはjarファイル。 */
+    private final Path location;
+
+    /** 列挙するパッケージのパス（「/」区切りで「/」で終わる）。全てのパッケージを列挙する場合は空です。 */
+    private final List<String> packagePaths = new ArrayList<String>();
+
+    /** クラスに付けられているアノテーションのクラス名。絞り込まない場合は空です。 */
+    private final List<String> annotationNames = new ArrayList<String>();
+
+    /** クラスファイルを複数のスレッドで読み込む場合はtrue。 */
+    private boolean parallel = true;
+
+    /**
+     * 列挙するディレクトリまたはjarファイルを指定して、スキャナを構築します。
+     * @param location 列挙するディレクトリまたはjarファイル
+     */
+    public ClassPathScanner(Path location) {
+        this.location = location;
+    }
+
+    /**
+     * クラスを指定して、そのクラスが配置されているクラスパスのディレクトリまたはjarファイルを
+     * 列挙するスキャナを構築します。
+     * @param cls クラス
+     * @return 構築したスキャナを返します。クラスが配置されている場所を取得できなかった
+     *      場合はnullを返します。
+     * @throws URISyntaxException URIの構文が間違っている場合
+     * @see ClassUtils#getClassLocation(Class)
+     */
+    public static ClassPathScanner forClass(Class<?> cls) throws URISyntaxException {
+        Path location = ClassUtils.getClassLocation(cls);
+        return location != null ? new ClassPathScanner(location) : null;
+    }
+
+    /**
+     * 列挙するパッケージを指定します。サブパッケージも列挙します。
+     * 空文字列のパッケージ名は無名パッケージを表し、全てのパッケージがサブパッケージとなるため
+     * 全てのパッケージを列挙します。
+     * @param packageNames パッケージ名。nullまたは空の場合は全てのパッケージを列挙します。
+     * @return このスキャナを返します。
+     */
+    public ClassPathScanner packages(String... packageNames) {
+        this.packagePaths.clear();
+        if (packageNames != null) {
+            for (String packageName : packageNames) {
+                // 無名パッケージは全てのエントリに一致する空のパスとする
+                this.packagePaths.add(packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/");
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 列挙するクラスを、クラスに付けられているアノテーションで絞り込みます。
+     * 指定したアノテーションのいずれかが付けられているクラスを列挙します。
+     * 保存ポリシーが{@link java.lang.annotation.RetentionPolicy#CLASS}のアノテーションも
+     * 判定できます。
+     * @param annotationNames アノテーションのクラス名。nullまたは空の場合は絞り込みません。
+     * @return このスキャナを返します。
+     */
+    public ClassPathScanner annotatedWith(String... annotationNames) {
+        this.annotationNames.clear();
+        if (annotationNames != null) {
+            this.annotationNames.addAll(Arrays.asList(annotationNames));
+        }
+        return this;
+    }
+
+    /**
+     * 列挙するクラスを、クラスに付けられているアノテーションで絞り込みます。
+     * @param annotationType アノテーションの型
+     * @return このスキャナを返します。
+     * @see #annotatedWith(String...)
+     */
+    public ClassPathScanner annotatedWith(Class<? extends Annotation> annotationType) {
+        return annotatedWith(annotationType.getName());
+    }
+
+    /**
+     * クラスファイルを複数のスレッドで読み込むかどうかを指定します。
+     * @param parallel 複数のスレッドで読み込む場合はtrue
+     * @return このスキャナを返します。
+     */
+    public ClassPathScanner parallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * 条件に一致するクラスを列挙します。module-info及び
+     * jarファイルのMETA-INF配下のクラスは列挙しません。
+     * @return クラスのバイナリ名（「$」区切りの入れ子クラス名を含む）をソートした一覧を返します。
+     * @throws IOException ディレクトリまたはjarファイルの読み込みに失敗した場合、または
+     *      クラスファイルの形式が正しくない場合
+     */
+    public List<String> scanClasses() throws IOException {
+        return scanClasses(null);
+    }
+
+    /**
+     * 条件に一致し、クラスファイルが指定した条件を満たすクラスを列挙します。
+     * クラスファイルはクラスとしてロードせずに{@link ClassFileReader}で解析し、
+     * 条件の判定は{@link #parallel(boolean)}の指定に従って複数のスレッドで実行します。
+     * @param predicate クラスファイルの条件。nullの場合は{@link #scanClasses()}と同じです。
+     * @return クラスのバイナリ名をソートした一覧を返します。
+     * @throws IOException ディレクトリまたはjarファイルの読み込みに失敗した場合、または
+     *      クラスファイルの形式が正しくない場合
+     */
+    public List<String> scanClasses(Predicate<ClassFileReader> predicate) throws IOException {
+        List<String> result = new ArrayList<String>();
+        for (String entry : scan(true, predicate)) {
+            result.add(entry.substring(0, entry.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+        }
+        return result;
+    }
+
+    /**
+     * 指定したパッケージに配置されている、クラスファイル以外のリソースを列挙します。
+     * アノテーションによる絞り込みは適用しません。
+     * @return リソースのパス（「/」区切りで、先頭に「/」を含まない）をソートした一覧を返します。
+     * @throws IOException ディレクトリまたはjarファイルの読み込みに失敗した場合
+     */
+    public List<String> scanResources() throws IOException {
+        return scan(false, null);
+    }
+
+    /**
+     * ディレクトリまたはjarファイルのエントリを列挙します。
+     * @param classes クラスファイルを列挙する場合はtrue、それ以外のファイルを列挙する場合はfalse
+     * @param predicate クラスファイルの条件。条件がない場合はnull
+     * @return エントリのパスをソートした一覧を返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    private List<String> scan(boolean classes, Predicate<ClassFileReader> predicate) throws IOException {
+        if (Files.isDirectory(this.location)) {
+            List<String> entries;
+            try (Stream<Path> files = Files.walk(this.location)) {
+                entries = files.filter(Files::isRegularFile)
+                        .map(file -> this.location.relativize(file).toString().replace(file.getFileSystem()
+                                .getSeparator(), "/"))
+                        .filter(entry -> accepts(entry, classes))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return filter(entries, classes, predicate, entry -> Files.readAllBytes(this.location.resolve(entry)));
+        }
+
+        try (ZipFile zip = new ZipFile(this.location.toFile())) {
+            List<String> entries = new ArrayList<String>();
+            for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements();) {
+                ZipEntry entry = e.nextElement();
+                if (!entry.isDirectory() && accepts(entry.getName(), classes)) {
+                    entries.add(entry.getName());
+                }
+            }
+            return filter(entries, classes, predicate, entry -> {
+                try (InputStream in = zip.getInputStream(zip.getEntry(entry))) {
+                    return in.readAllBytes();
+                }
+            });
+        }
+    }
+
+    /**
+     * エントリのパスが、列挙する種類及びパッケージに一致するかどうかを判定します。
+     * @param entry エントリのパス
+     * @param classes クラスファイルを列挙する場合はtrue
+     * @return 一致する場合はtrueを返します。
+     */
+    private boolean accepts(String entry, boolean classes) {
+        if (entry.endsWith(CLASS_SUFFIX) != classes) {
+            return false;
+        }
+        if (classes && (entry.startsWith("META-INF/") || entry.endsWith("module-info.class"))) {
+            return false;
+        }
+        if (this.packagePaths.isEmpty()) {
+            return true;
+        }
+        for (String packagePath : this.packagePaths) {
+            if (entry.startsWith(packagePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * クラスファイルをアノテーション及び条件で絞り込み、ソートします。
+     * @param entries エントリのパスの一覧
+     * @param classes クラスファイルの場合はtrue
+     * @param predicate クラスファイルの条件。条件がない場合はnull
+     * @param reader エントリの内容を読み込む関数
+     * @return 絞り込んでソートしたエントリのパスの一覧を返します。
+     * @throws IOException 読み込みに失敗した場合、またはクラスファイルの形式が正しくない場合
+     */
+    private List<String> filter(List<String> entries, boolean classes, Predicate<ClassFileReader> predicate,
+            EntryReader reader) throws IOException {
+        if (!classes || this.annotationNames.isEmpty() && predicate == null) {
+            Collections.sort(entries);
+            return entries;
+        }
+        Stream<String> stream = this.parallel ? entries.parallelStream() : entries.stream();
+        try {
+            return stream.filter(entry -> {
+                ClassFileReader classFile;
+                try {
+                    classFile = new ClassFileReader(reader.read(entry));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(new IOException(e.getMessage() + ": " + entry, e));
+                }
+                return isAnnotated(classFile) && (predicate == null || predicate.test(classFile));
+            }).sorted().collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * クラスに指定したアノテーションのいずれかが付けられているかどうかを判定します。
+     * @param classFile クラスファイル
+     * @return アノテーションが付けられている場合、またはアノテーションで絞り込まない場合は
+     *      trueを返します。
+     */
+    private boolean isAnnotated(ClassFileReader classFile) {
+        if (this.annotationNames.isEmpty()) {
+            return true;
+        }
+        for (String annotationName : this.annotationNames) {
+            if (classFile.hasAnnotation(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * エントリの内容を読み込む関数。
+     */
+    @FunctionalInterface
+    private interface EntryReader {
+        /**
+         * エントリの内容を読み込みます。
+         * @param entry エントリのパス
+         * @return エントリの内容を返します。
+         * @throws IOException 読み込みに失敗した場合
+         */
+        byte[] read(String entry) throws IOException;
+    }
+}
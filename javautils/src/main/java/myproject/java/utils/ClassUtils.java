@@ -1,13 +1,32 @@
 package myproject.java.utils;
 
 import java.io.File;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.CodeSource;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * {@link java.lang.Class}の操作を提供します。
@@ -16,6 +35,44 @@ import java.util.Arrays;
  * https://github.com/ycookjp/
  */
 public class ClassUtils {
+    /**
+     * {@link #findField(Class, String, int)}の検索結果をクラスごとに保持するキャッシュ。
+     * {@link ClassValue}に保持するため、キャッシュがクラスのアンロードを妨げることはありません。
+     */
+    private static final ClassValue<Map<MemberKey, Object>> FIELD_CACHE = new MemberCache();
+
+    /**
+     * {@link #findMethod(Class, String, Class[], int)}の検索結果をクラスごとに保持するキャッシュ。
+     */
+    private static final ClassValue<Map<MemberKey, Object>> METHOD_CACHE = new MemberCache();
+
+    /**
+     * {@link #getterFor(Class, String)}、{@link #invokerFor(Class, String, Class[])}、
+     * {@link #invokerFor(Class, String, Class[], Class)}が作成したアクセサをクラスごとに
+     * 保持するキャッシュ。
+     */
+    private static final ClassValue<Map<MemberKey, Object>> ACCESSOR_CACHE = new MemberCache();
+
+    /** {@link #ACCESSOR_CACHE}のキーの種類：{@link #getterFor(Class, String)}の{@link Function}。 */
+    private static final int GETTER = 0;
+
+    /** {@link #ACCESSOR_CACHE}のキーの種類：{@link #invokerFor(Class, String, Class[])}の{@link MethodHandle}。 */
+    private static final int HANDLE = 1;
+
+    /** {@link #ACCESSOR_CACHE}のキーの種類：{@link #invokerFor(Class, String, Class[], Class)}の関数型インタフェース。 */
+    private static final int FUNCTION = 2;
+
+    /** {@link #index(Class)}で作成したメンバーの索引をクラスごとに保持するキャッシュ。 */
+    private static final ClassValue<MemberIndex> INDEX_CACHE = new ClassValue<MemberIndex>() {
+        @Override
+        protected MemberIndex computeValue(Class<?> type) {
+            return new MemberIndex(type);
+        }
+    };
+
+    /** メンバーが見つからなかったことを表すキャッシュの値。 */
+    private static final Object MISSING = new Object();
+
     /**
      *  外部からのインスタンス化を抑止するためのコンストラクタ。
      */
@@ -54,6 +111,26 @@ public class ClassUtils {
         }
     }
 
+    /**
+     * クラスを指定して、そのクラスが配置されているクラスパスのディレクトリ、またはjarファイルの
+     * パスを取得します。
+     * @param cls クラスを指定します。
+     * @return 取得したディレクトリまたはjarファイルの{@link Path}を返します。
+     *      パスを取得できなかった場合（主にセキュリティの制約による）はnullを返します。
+     * @throws URISyntaxException URIの構文が間違っている場合
+     * @see ClassPathScanner#forClass(Class)
+     */
+    public static Path getClassLocation(Class<?> cls) throws URISyntaxException {
+        if (cls == null) {
+            return null;
+        }
+        CodeSource cs = cls.getProtectionDomain().getCodeSource();
+        if (cs == null || cs.getLocation() == null) {
+            return null;
+        }
+        return Paths.get(cs.getLocation().toURI());
+    }
+
     /**
      * フィールド名を指定して、クラスで定義されているフィールドを取得します。
      * <p>
@@ -71,6 +148,12 @@ public class ClassUtils {
      *   検索する。
      * </li>
      * </ol>
+     * <p>
+     * 検索結果は、見つからなかった場合も含めてクラス、フィールド名、アクセス修飾子ごとに
+     * キャッシュされ、同じ引数で２回目以降に呼び出した場合は検索を行いません。
+     * 返される{@link Field}のインスタンスは呼び出し元の間で共有されるため、
+     * {@link Field#setAccessible(boolean)}による変更は他の呼び出し元にも影響します。
+     * </p>
      *
      * @param classz クラス
      * @param name フィールド名
@@ -88,32 +171,100 @@ public class ClassUtils {
             return null;
         }
 
-        Field field = null;
-        try {
-            field = classz.getDeclaredField(name);
-        } catch (NoSuchFieldException e) {
-            for (Class<?> iface : classz.getInterfaces()) {
-                try {
-                    field = findField(iface, name, modifiers);
-                    break;
-                } catch (NoSuchFieldException ee) { }
-            }
-
-            if (field == null) {
-                Class<?> superClass = classz.getSuperclass();
-                if (superClass != null) {
-                    field = findField(superClass, name, modifiers);
-                } else {
-                    throw e;
+        Field field = lookupField(classz, name, modifiers);
+        if (field == null) {
+            throw new NoSuchFieldException(classz.getName() + "." + name);
+        }
+        return field;
+    }
+
+    /**
+     * フィールド名を指定して、クラスで定義されているフィールドを例外を発生させずに取得します。
+     * <p>
+     * 検索の手順及びキャッシュは{@link #findField(Class, String, int)}と同じです。
+     * フィールドが見つからない場合に{@link NoSuchFieldException}を発生させる代わりに
+     * 空の{@link Optional}を返します。
+     * </p>
+     * @param classz クラス
+     * @param name フィールド名
+     * @param modifiers フィールドの取得対象のアクセス修飾子を{@link java.lang.reflect.Modifier}クラスの定数の和で
+     *      指定する。取得対象のアクセス修飾子を指定しない場合は、-1を指定すること。
+     * @return 見つかったフィールドを返します。フィールドが見つからなかった場合、または
+     *      クラスまたはフィールド名にnullを指定した場合は空の{@link Optional}を返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    public static Optional<Field> tryFindField(Class<?> classz, String name, int modifiers)
+            throws SecurityException {
+        if (classz == null || name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(lookupField(classz, name, modifiers));
+    }
+
+    /**
+     * キャッシュを使用してフィールドを検索します。
+     * @param classz クラス
+     * @param name フィールド名
+     * @param modifiers フィールドの取得対象のアクセス修飾子
+     * @return 見つかったフィールドを返します。見つからなかった場合はnullを返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    private static Field lookupField(Class<?> classz, String name, int modifiers) throws SecurityException {
+        Map<MemberKey, Object> cache = FIELD_CACHE.get(classz);
+        MemberKey key = new MemberKey(name, null, modifiers);
+        Object cached = cache.get(key);
+        if (cached == null) {
+            Field field = searchField(classz, name, modifiers);
+            cached = field != null ? field : MISSING;
+            cache.putIfAbsent(key, cached);
+        }
+        return cached != MISSING ? (Field) cached : null;
+    }
+
+    /**
+     * {@link #findField(Class, String, int)}の検索をキャッシュを使わず、例外を発生させずに
+     * 実行します。スーパー・クラスはループで、インターフェースは再帰呼び出しで検索します。
+     * <p>
+     * 最初に名前が一致したフィールドのアクセス修飾子が一致しない場合、インターフェースの
+     * 検索中であれば次のインターフェースの検索を続け、クラスの検索中であれば検索を
+     * 終了します。
+     * </p>
+     * @param classz クラス
+     * @param name フィールド名
+     * @param modifiers フィールドの取得対象のアクセス修飾子
+     * @return 見つかったフィールドを返します。見つからなかった場合はnullを返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    private static Field searchField(Class<?> classz, String name, int modifiers) throws SecurityException {
+        for (Class<?> c = classz; c != null; c = c.getSuperclass()) {
+            Field field = getDeclaredField(c, name);
+            if (field != null) {
+                return matchesModifiers(field.getModifiers(), modifiers) ? field : null;
+            }
+            for (Class<?> iface : c.getInterfaces()) {
+                field = searchField(iface, name, modifiers);
+                if (field != null) {
+                    return field;
                 }
             }
         }
+        return null;
+    }
 
-        if (modifiers > 0 && (field.getModifiers() & modifiers) == 0) {
-            throw new NoSuchFieldException(classz.getName() + "." + name + "does not match modifiers");
+    /**
+     * クラスで宣言されているフィールドを{@link Class#getDeclaredFields()}から検索します。
+     * @param classz クラス
+     * @param name フィールド名
+     * @return 見つかったフィールドを返します。見つからなかった場合はnullを返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    private static Field getDeclaredField(Class<?> classz, String name) throws SecurityException {
+        for (Field field : classz.getDeclaredFields()) {
+            if (field.getName().equals(name)) {
+                return field;
+            }
         }
-
-        return field;
+        return null;
     }
 
     /**
@@ -134,6 +285,13 @@ public class ClassUtils {
      *   検索する。
      * </li>
      * </ol>
+     * <p>
+     * 検索結果は、見つからなかった場合も含めてクラス、メソッド名、パラメータの型、
+     * アクセス修飾子ごとにキャッシュされます。ただし、指定されたクラスのクラスローダーから
+     * 参照できないクラスローダーのクラスがパラメータの型に含まれる場合は、そのクラスの
+     * アンロードを妨げないようにキャッシュしません。返される{@link Method}のインスタンスは
+     * 呼び出し元の間で共有されます。
+     * </p>
      *
      * @param classz クラス
      * @param name メソッド名
@@ -153,35 +311,738 @@ public class ClassUtils {
             return null;
         }
 
-        Method method = null;
+        Class<?>[] types = parameterTypes != null ? parameterTypes.clone() : new Class<?>[0];
+        Method method = lookupMethod(classz, name, types, modifiers);
+        if (method == null) {
+            throw new NoSuchMethodException(classz.getName() + "." + name + "(" + Arrays.asList(types) + ")");
+        }
+        return method;
+    }
+
+    /**
+     * メソッド名とパラメータの型を指定して、クラスで定義されているメソッドを例外を
+     * 発生させずに取得します。
+     * <p>
+     * 検索の手順及びキャッシュは{@link #findMethod(Class, String, Class[], int)}と同じです。
+     * メソッドが見つからない場合に{@link NoSuchMethodException}を発生させる代わりに
+     * 空の{@link Optional}を返します。
+     * </p>
+     * @param classz クラス
+     * @param name メソッド名
+     * @param parameterTypes パラメータの型の配列。メソッドのパラメータの順番にパラメータの
+     *      クラスを配列に設定する。
+     * @param modifiers メソッドの取得対象のアクセス修飾子を{@link java.lang.reflect.Modifier}クラスの定数の和で
+     *      指定する。取得対象のアクセス修飾子を指定しない場合は、-1を指定すること。
+     * @return 見つかったメソッドを返します。メソッドが見つからなかった場合、または
+     *      クラスまたはメソッド名にnullを指定した場合は空の{@link Optional}を返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    public static Optional<Method> tryFindMethod(Class<?> classz, String name, Class<?>[] parameterTypes,
+            int modifiers) throws SecurityException {
+        if (classz == null || name == null) {
+            return Optional.empty();
+        }
+        Class<?>[] types = parameterTypes != null ? parameterTypes.clone() : new Class<?>[0];
+        return Optional.ofNullable(lookupMethod(classz, name, types, modifiers));
+    }
+
+    /**
+     * キャッシュを使用してメソッドを検索します。
+     * @param classz クラス
+     * @param name メソッド名
+     * @param parameterTypes パラメータの型の配列。呼び出し元から変更されないものを指定すること。
+     * @param modifiers メソッドの取得対象のアクセス修飾子
+     * @return 見つかったメソッドを返します。見つからなかった場合はnullを返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    private static Method lookupMethod(Class<?> classz, String name, Class<?>[] parameterTypes, int modifiers)
+            throws SecurityException {
+        if (!isCacheable(classz, parameterTypes)) {
+            return searchMethod(classz, name, parameterTypes, modifiers);
+        }
+        Map<MemberKey, Object> cache = METHOD_CACHE.get(classz);
+        MemberKey key = new MemberKey(name, parameterTypes, modifiers);
+        Object cached = cache.get(key);
+        if (cached == null) {
+            Method method = searchMethod(classz, name, parameterTypes, modifiers);
+            cached = method != null ? method : MISSING;
+            cache.putIfAbsent(key, cached);
+        }
+        return cached != MISSING ? (Method) cached : null;
+    }
+
+    /**
+     * {@link #findMethod(Class, String, Class[], int)}の検索をキャッシュを使わず、例外を
+     * 発生させずに実行します。検索の順序は{@link #searchField(Class, String, int)}と同じです。
+     * @param classz クラス
+     * @param name メソッド名
+     * @param parameterTypes パラメータの型の配列
+     * @param modifiers メソッドの取得対象のアクセス修飾子
+     * @return 見つかったメソッドを返します。見つからなかった場合はnullを返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    private static Method searchMethod(Class<?> classz, String name, Class<?>[] parameterTypes, int modifiers)
+            throws SecurityException {
+        for (Class<?> c = classz; c != null; c = c.getSuperclass()) {
+            Method method = getDeclaredMethod(c, name, parameterTypes);
+            if (method != null) {
+                return matchesModifiers(method.getModifiers(), modifiers) ? method : null;
+            }
+            for (Class<?> iface : c.getInterfaces()) {
+                method = searchMethod(iface, name, parameterTypes, modifiers);
+                if (method != null) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * クラスで宣言されているメソッドを{@link Class#getDeclaredMethods()}から検索します。
+     * 名前とパラメータの型が一致するメソッドが複数ある場合（ブリッジ・メソッドなど）は、
+     * {@link Class#getDeclaredMethod(String, Class...)}と同様に戻り値の型が最も
+     * 具体的なメソッドを返します。
+     * @param classz クラス
+     * @param name メソッド名
+     * @param parameterTypes パラメータの型の配列
+     * @return 見つかったメソッドを返します。見つからなかった場合はnullを返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    private static Method getDeclaredMethod(Class<?> classz, String name, Class<?>[] parameterTypes)
+            throws SecurityException {
+        Method result = null;
+        for (Method method : classz.getDeclaredMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == parameterTypes.length
+                    && Arrays.equals(method.getParameterTypes(), parameterTypes)
+                    && (result == null || result.getReturnType() != method.getReturnType()
+                            && result.getReturnType().isAssignableFrom(method.getReturnType()))) {
+                result = method;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * メンバーのアクセス修飾子が、取得対象のアクセス修飾子に一致するかどうかを判定します。
+     * @param memberModifiers メンバーのアクセス修飾子
+     * @param modifiers 取得対象のアクセス修飾子。０以下の場合は全てのメンバーが対象です。
+     * @return 一致する場合はtrueを返します。
+     */
+    private static boolean matchesModifiers(int memberModifiers, int modifiers) {
+        return modifiers <= 0 || (memberModifiers & modifiers) != 0;
+    }
+
+    /**
+     * クラスから参照できる全てのフィールド及びメソッドの索引を取得します。
+     * <p>
+     * 索引はクラス階層を１回だけ走査して作成し、フィールド名、またはメソッド名とパラメータの
+     * 型から、{@link #findField(Class, String, int)}及び{@link #findMethod(Class, String, Class[], int)}と
+     * 同じ優先順位（クラスで宣言されたメンバー、インターフェース、スーパー・クラスの順）で
+     * 見つかるメンバーをハッシュ表で直接取得します。同じクラスの複数のメンバーを検索する場合は、
+     * メンバーごとに{@link #findField(Class, String, int)}などを呼び出すより高速です。
+     * </p>
+     * <p>
+     * 索引は変更不可で、クラスごとにキャッシュされ、複数のスレッドから同時に使用できます。
+     * </p>
+     * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+     * ClassUtils.MemberIndex index = ClassUtils.index(Item.class);
+     * for (String name : names) {
+     *     Optional&lt;Field&gt; field = index.field(name, -1);
+     *     ...
+     * }
+     * </pre></td></tr></table>
+     * @param classz クラス
+     * @return メンバーの索引を返します。
+     * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+     */
+    public static MemberIndex index(Class<?> classz) throws SecurityException {
+        return INDEX_CACHE.get(classz);
+    }
+
+    /**
+     * フィールド名を指定して、インスタンスからフィールドの値を取得する{@link Function}を返します。
+     * <p>
+     * フィールドは{@link #findField(Class, String, int)}で検索します。「get」＋フィールド名
+     * （先頭は大文字）、またはフィールドの型がbooleanの場合は「is」＋フィールド名の
+     * 引数なしのpublicメソッドがある場合はそのメソッドを、ない場合はフィールドの値を
+     * 直接取得します。getterメソッドは{@link LambdaMetafactory}で生成したクラスから
+     * 直接呼び出すため、{@link Method#invoke(Object, Object...)}による呼び出しより
+     * 高速です。フィールドは{@link MethodHandle}で取得します。
+     * 作成した{@link Function}はクラス及びフィールド名ごとにキャッシュされます。
+     * </p>
+     * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+     * Function&lt;Item, Object&gt; getter = ClassUtils.getterFor(Item.class, "price");
+     * for (Item item : items) {
+     *     Object price = getter.apply(item);
+     *     ...
+     * }
+     * </pre></td></tr></table>
+     * @param <T> インスタンスの型
+     * @param classz クラス
+     * @param name フィールド名
+     * @return フィールドの値を取得する{@link Function}を返します。プリミティブ型の値は
+     *      ラッパークラスに変換して返します。staticフィールドの場合、引数は無視されます。
+     * @throws NoSuchFieldException 指定された名前と一致するフィールドが見つからなかった場合
+     * @throws IllegalAccessException フィールドまたはgetterメソッドにアクセスできない場合
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Function<T, Object> getterFor(Class<T> classz, String name)
+            throws NoSuchFieldException, IllegalAccessException {
+        Map<MemberKey, Object> cache = ACCESSOR_CACHE.get(classz);
+        MemberKey key = new MemberKey(name, null, GETTER);
+        Object getter = cache.get(key);
+        if (getter == null) {
+            getter = createGetter(classz, name);
+            Object previous = cache.putIfAbsent(key, getter);
+            if (previous != null) {
+                getter = previous;
+            }
+        }
+        return (Function<T, Object>) getter;
+    }
+
+    /**
+     * メソッド名とパラメータの型を指定して、メソッドを呼び出す{@link MethodHandle}を返します。
+     * <p>
+     * メソッドは{@link #findMethod(Class, String, Class[], int)}で検索し、public以外の
+     * メソッドも呼び出せる{@link MethodHandle}を作成します。インスタンス・メソッドの
+     * 場合は最初の引数がインスタンスとなります。作成した{@link MethodHandle}は
+     * キャッシュされます。
+     * </p>
+     * @param classz クラス
+     * @param name メソッド名
+     * @param parameterTypes パラメータの型の配列
+     * @return メソッドを呼び出す{@link MethodHandle}を返します。
+     * @throws NoSuchMethodException 指定された名前及び型に一致するメソッドが見つからなかった場合
+     * @throws IllegalAccessException メソッドにアクセスできない場合
+     */
+    public static MethodHandle invokerFor(Class<?> classz, String name, Class<?>[] parameterTypes)
+            throws NoSuchMethodException, IllegalAccessException {
+        Class<?>[] types = parameterTypes != null ? parameterTypes.clone() : new Class<?>[0];
+        Map<MemberKey, Object> cache = isCacheable(classz, types) ? ACCESSOR_CACHE.get(classz) : null;
+        MemberKey key = new MemberKey(name, types, HANDLE);
+        Object handle = cache != null ? cache.get(key) : null;
+        if (handle == null) {
+            handle = unreflect(findMethod(classz, name, types, -1));
+            if (cache != null) {
+                cache.putIfAbsent(key, handle);
+            }
+        }
+        return (MethodHandle) handle;
+    }
+
+    /**
+     * メソッド名とパラメータの型を指定して、メソッドを呼び出す関数型インタフェースの
+     * インスタンスを返します。
+     * <p>
+     * 関数型インタフェースの抽象メソッドの引数は、インスタンス・メソッドの場合は
+     * （インスタンス, メソッドの引数...）、staticメソッドの場合は（メソッドの引数...）と
+     * します。関数型インタフェースの実装は{@link LambdaMetafactory}で生成するため、
+     * 直接呼び出した場合とほぼ同じ速度でメソッドを呼び出せます。生成できない場合
+     * （メソッドを定義したモジュールが開かれていない場合など）は
+     * {@link MethodHandleProxies#asInterfaceInstance(Class, MethodHandle)}で作成します。
+     * 作成したインスタンスはキャッシュされます。
+     * </p>
+     * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+     * BiConsumer&lt;Item, String&gt; setName = ClassUtils.invokerFor(Item.class, "setName",
+     *         new Class[] {String.class}, BiConsumer.class);
+     * setName.accept(item, "abc");
+     * </pre></td></tr></table>
+     * @param <F> 関数型インタフェースの型
+     * @param classz クラス
+     * @param name メソッド名
+     * @param parameterTypes パラメータの型の配列
+     * @param functionalInterface 関数型インタフェース
+     * @return 関数型インタフェースのインスタンスを返します。
+     * @throws NoSuchMethodException 指定された名前及び型に一致するメソッドが見つからなかった場合
+     * @throws IllegalAccessException メソッドにアクセスできない場合
+     * @throws IllegalArgumentException 関数型インタフェースでない場合、または抽象メソッドの
+     *      引数の数がメソッドと一致しない場合
+     */
+    public static <F> F invokerFor(Class<?> classz, String name, Class<?>[] parameterTypes,
+            Class<F> functionalInterface) throws NoSuchMethodException, IllegalAccessException {
+        Class<?>[] types = parameterTypes != null ? parameterTypes.clone() : new Class<?>[0];
+        Class<?>[] keyTypes = Arrays.copyOf(types, types.length + 1);
+        keyTypes[types.length] = functionalInterface;
+        Map<MemberKey, Object> cache = isCacheable(classz, keyTypes) ? ACCESSOR_CACHE.get(classz) : null;
+        MemberKey key = new MemberKey(name, keyTypes, FUNCTION);
+        Object function = cache != null ? cache.get(key) : null;
+        if (function == null) {
+            function = createFunction(findMethod(classz, name, types, -1), functionalInterface);
+            if (cache != null) {
+                Object previous = cache.putIfAbsent(key, function);
+                if (previous != null) {
+                    function = previous;
+                }
+            }
+        }
+        return functionalInterface.cast(function);
+    }
+
+    /**
+     * フィールドの値を取得する{@link Function}を作成します。
+     * @param classz クラス
+     * @param name フィールド名
+     * @return フィールドの値を取得する{@link Function}を返します。
+     * @throws NoSuchFieldException 指定された名前と一致するフィールドが見つからなかった場合
+     * @throws IllegalAccessException フィールドまたはgetterメソッドにアクセスできない場合
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> createGetter(Class<?> classz, String name)
+            throws NoSuchFieldException, IllegalAccessException {
+        Field field = findField(classz, name, -1);
+        String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Optional<Method> getter = tryFindMethod(classz, "get" + suffix, null, Modifier.PUBLIC);
+        if (!getter.isPresent() && field.getType() == boolean.class) {
+            getter = tryFindMethod(classz, "is" + suffix, null, Modifier.PUBLIC);
+        }
+        if (getter.isPresent() && !Modifier.isStatic(getter.get().getModifiers())) {
+            return (Function<Object, Object>) createFunction(getter.get(), Function.class);
+        }
+
+        MethodHandle handle;
         try {
-            method = classz.getDeclaredMethod(name, parameterTypes);
-        } catch (NoSuchMethodException e) {
-            for (Class<?> iface : classz.getInterfaces()) {
-                try {
-                    method = findMethod(iface, name, parameterTypes, modifiers);
-                    break;
-                } catch (NoSuchMethodException ee) { }
-            }
-
-            if (method == null) {
-                Class<?> superClass = classz.getSuperclass();
-                if (superClass != null) {
-                    method = findMethod(superClass, name, parameterTypes, modifiers);
-                } else {
-                    throw e;
+            field.setAccessible(true);
+        } catch (RuntimeException e) {
+            throw (IllegalAccessException) new IllegalAccessException(e.getMessage()).initCause(e);
+        }
+        handle = MethodHandles.lookup().unreflectGetter(field);
+        if (Modifier.isStatic(field.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return new HandleFunction(handle.asType(MethodType.methodType(Object.class, Object.class)));
+    }
+
+    /**
+     * メソッドを呼び出す関数型インタフェースのインスタンスを作成します。
+     * @param method 呼び出すメソッド
+     * @param functionalInterface 関数型インタフェース
+     * @return 関数型インタフェースのインスタンスを返します。
+     * @throws IllegalAccessException メソッドにアクセスできない場合
+     * @throws IllegalArgumentException 関数型インタフェースでない場合、または抽象メソッドの
+     *      引数の数がメソッドと一致しない場合
+     */
+    private static Object createFunction(Method method, Class<?> functionalInterface)
+            throws IllegalAccessException {
+        Method sam = findAbstractMethod(functionalInterface);
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+        MethodHandle handle = unreflect(method);
+        MethodType implType = handle.type();
+        if (samType.parameterCount() != implType.parameterCount()) {
+            throw new IllegalArgumentException(functionalInterface.getName() + "." + sam.getName()
+                    + " does not match " + method);
+        }
+
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            // 実装クラスがメソッドを定義したクラスと同じクラスローダーで定義されるよう、
+            // 常にメソッドを定義したクラスのLookupを使用する
+            MethodHandles.Lookup caller = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle impl = caller.unreflect(method);
+            CallSite site = LambdaMetafactory.metafactory(caller, sam.getName(),
+                    MethodType.methodType(functionalInterface), samType, impl,
+                    instantiatedType(samType, impl.type()));
+            return site.getTarget().invoke();
+        } catch (IllegalAccessException | LambdaConversionException | IllegalArgumentException e) {
+            // LambdaMetafactoryで生成できない場合はMethodHandleのプロキシを作成する
+            return MethodHandleProxies.asInterfaceInstance(functionalInterface, handle);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * 関数型インタフェースの抽象メソッドを返します。
+     * @param functionalInterface 関数型インタフェース
+     * @return 抽象メソッドを返します。
+     * @throws IllegalArgumentException インタフェースでない場合、または抽象メソッドが
+     *      １つでない場合
+     */
+    private static Method findAbstractMethod(Class<?> functionalInterface) {
+        if (!functionalInterface.isInterface()) {
+            throw new IllegalArgumentException(functionalInterface.getName() + " is not an interface");
+        }
+        Method result = null;
+        for (Method method : functionalInterface.getMethods()) {
+            if (!Modifier.isAbstract(method.getModifiers())
+                    || tryFindMethod(Object.class, method.getName(), method.getParameterTypes(), Modifier.PUBLIC)
+                            .isPresent()) {
+                continue;
+            }
+            if (result != null && !(result.getName().equals(method.getName())
+                    && Arrays.equals(result.getParameterTypes(), method.getParameterTypes()))) {
+                throw new IllegalArgumentException(functionalInterface.getName() + " is not a functional interface");
+            }
+            if (result == null || result.getReturnType().isAssignableFrom(method.getReturnType())) {
+                result = method;
+            }
+        }
+        if (result == null) {
+            throw new IllegalArgumentException(functionalInterface.getName() + " is not a functional interface");
+        }
+        return result;
+    }
+
+    /**
+     * {@link LambdaMetafactory}に指定する、抽象メソッドを特殊化した型を作成します。
+     * 抽象メソッドの型が参照型の位置は、呼び出すメソッドの型（プリミティブ型の場合は
+     * そのラッパークラス）が抽象メソッドの型に代入可能であればその型とします。
+     * @param samType 抽象メソッドの型
+     * @param implType 呼び出すメソッドの型
+     * @return 特殊化した型を返します。
+     */
+    private static MethodType instantiatedType(MethodType samType, MethodType implType) {
+        Class<?>[] types = new Class<?>[samType.parameterCount()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = specialize(samType.parameterType(i), implType.parameterType(i));
+        }
+        return MethodType.methodType(specialize(samType.returnType(), implType.returnType()), types);
+    }
+
+    /**
+     * 抽象メソッドの型を、呼び出すメソッドの型に特殊化します。
+     * @param samType 抽象メソッドの型
+     * @param implType 呼び出すメソッドの型
+     * @return 特殊化した型を返します。特殊化できない場合はsamTypeを返します。
+     */
+    private static Class<?> specialize(Class<?> samType, Class<?> implType) {
+        if (samType.isPrimitive() || implType == void.class) {
+            return samType;
+        }
+        Class<?> type = MethodType.methodType(implType).wrap().returnType();
+        return samType.isAssignableFrom(type) ? type : samType;
+    }
+
+    /**
+     * メソッドを呼び出す{@link MethodHandle}を、アクセス・チェックを抑止して作成します。
+     * @param method メソッド
+     * @return 作成した{@link MethodHandle}を返します。
+     * @throws IllegalAccessException メソッドにアクセスできない場合
+     */
+    private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            method.setAccessible(true);
+        } catch (RuntimeException e) {
+            throw (IllegalAccessException) new IllegalAccessException(e.getMessage()).initCause(e);
+        }
+        return MethodHandles.lookup().unreflect(method);
+    }
+
+    /**
+     * パラメータの型を含む検索結果をキャッシュしてもよいかどうかを判定します。
+     * <p>
+     * パラメータの型のクラスローダーが、指定されたクラスのクラスローダーまたはその祖先で
+     * ある場合（ブートストラップ・クラスローダーを含む）は、キャッシュしても
+     * パラメータの型のクラスはアンロードを妨げられないため、キャッシュ可能とします。
+     * </p>
+     * @param classz 検索対象のクラス
+     * @param parameterTypes パラメータの型の配列
+     * @return キャッシュしてもよい場合はtrueを返します。
+     */
+    private static boolean isCacheable(Class<?> classz, Class<?>[] parameterTypes) {
+        ClassLoader loader = classz.getClassLoader();
+        for (Class<?> type : parameterTypes) {
+            if (type == null) {
+                return false;
+            }
+            ClassLoader typeLoader = type.getClassLoader();
+            if (typeLoader == null || typeLoader == loader) {
+                continue;
+            }
+            ClassLoader ancestor = loader;
+            while (ancestor != null && ancestor != typeLoader) {
+                ancestor = ancestor.getParent();
+            }
+            if (ancestor == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * クラスから参照できるフィールド及びメソッドの索引。{@link ClassUtils#index(Class)}で取得します。
+     * <p>
+     * 名前（メソッドの場合は名前とパラメータの型）ごとに、アクセス修飾子を指定せずに
+     * {@link ClassUtils#findField(Class, String, int)}などで検索した場合に見つかるメンバーを
+     * 保持します。返される{@link Field}、{@link Method}のインスタンスは呼び出し元の間で
+     * 共有されます。
+     * </p>
+     */
+    public static final class MemberIndex {
+        /** 索引を作成したクラス。 */
+        private final Class<?> type;
+
+        /** フィールド名をキーとするフィールドの表。 */
+        private final Map<String, Field> fieldMap;
+
+        /** メソッド名とパラメータの型をキーとするメソッドの表。 */
+        private final Map<MemberKey, Method> methodMap;
+
+        /** メソッド名をキーとする、同じ名前のメソッドの一覧の表。 */
+        private final Map<String, List<Method>> overloadMap;
+
+        /** 全てのフィールドの一覧。 */
+        private final List<Field> fields;
+
+        /** 全てのメソッドの一覧。 */
+        private final List<Method> methods;
+
+        /**
+         * クラス階層を走査して索引を作成します。
+         * @param type 索引を作成するクラス
+         * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+         */
+        private MemberIndex(Class<?> type) throws SecurityException {
+            Map<String, Field> fieldMap = new LinkedHashMap<String, Field>();
+            Map<MemberKey, Method> methodMap = new LinkedHashMap<MemberKey, Method>();
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                addMembers(c, fieldMap, methodMap);
+            }
+            Map<String, List<Method>> overloadMap = new HashMap<String, List<Method>>();
+            for (Method method : methodMap.values()) {
+                overloadMap.computeIfAbsent(method.getName(), k -> new ArrayList<Method>()).add(method);
+            }
+            for (Map.Entry<String, List<Method>> entry : overloadMap.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+
+            this.type = type;
+            this.fieldMap = new HashMap<String, Field>(fieldMap);
+            this.methodMap = new HashMap<MemberKey, Method>(methodMap);
+            this.overloadMap = overloadMap;
+            this.fields = Collections.unmodifiableList(new ArrayList<Field>(fieldMap.values()));
+            this.methods = Collections.unmodifiableList(new ArrayList<Method>(methodMap.values()));
+        }
+
+        /**
+         * クラスで宣言されているメンバー、及びそのクラスが実装するインターフェースのメンバーを、
+         * 既に登録されているものを除いて表に登録します。インターフェースは再帰的に登録します。
+         * @param c クラスまたはインターフェース
+         * @param fieldMap フィールドの表
+         * @param methodMap メソッドの表
+         * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+         */
+        private static void addMembers(Class<?> c, Map<String, Field> fieldMap, Map<MemberKey, Method> methodMap)
+                throws SecurityException {
+            for (Field field : c.getDeclaredFields()) {
+                fieldMap.putIfAbsent(field.getName(), field);
+            }
+            // 同じクラスで名前とパラメータの型が一致するメソッドは戻り値の型が最も具体的なものとする
+            Map<MemberKey, Method> declared = new LinkedHashMap<MemberKey, Method>();
+            for (Method method : c.getDeclaredMethods()) {
+                MemberKey key = new MemberKey(method.getName(), method.getParameterTypes(), 0);
+                Method result = declared.get(key);
+                if (result == null || result.getReturnType() != method.getReturnType()
+                        && result.getReturnType().isAssignableFrom(method.getReturnType())) {
+                    declared.put(key, method);
                 }
             }
+            for (Map.Entry<MemberKey, Method> entry : declared.entrySet()) {
+                methodMap.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            for (Class<?> iface : c.getInterfaces()) {
+                addMembers(iface, fieldMap, methodMap);
+            }
+        }
+
+        /**
+         * 索引を作成したクラスを取得します。
+         * @return 索引を作成したクラスを返します。
+         */
+        public Class<?> getType() {
+            return this.type;
         }
 
-        if (modifiers > 0 && (method.getModifiers() & modifiers) == 0) {
-            if (parameterTypes == null) {
-                parameterTypes = new Class[] {};
+        /**
+         * フィールド名を指定してフィールドを取得します。
+         * <p>
+         * アクセス修飾子を指定した場合の結果は{@link ClassUtils#tryFindField(Class, String, int)}と
+         * 同じです。索引のフィールドのアクセス修飾子が一致しない場合は、
+         * {@link ClassUtils#tryFindField(Class, String, int)}で検索します。
+         * </p>
+         * @param name フィールド名
+         * @param modifiers フィールドの取得対象のアクセス修飾子を{@link Modifier}クラスの定数の和で
+         *      指定する。取得対象のアクセス修飾子を指定しない場合は、-1を指定すること。
+         * @return 見つかったフィールドを返します。見つからなかった場合、またはフィールド名に
+         *      nullを指定した場合は空の{@link Optional}を返します。
+         * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+         */
+        public Optional<Field> field(String name, int modifiers) throws SecurityException {
+            Field field = name != null ? this.fieldMap.get(name) : null;
+            if (field == null || matchesModifiers(field.getModifiers(), modifiers)) {
+                return Optional.ofNullable(field);
             }
-            throw new NoSuchMethodException(classz.getName() + "." + name + "(" + Arrays.asList(parameterTypes)
-                    + ") does not match modifiers");
+            return tryFindField(this.type, name, modifiers);
         }
 
-        return method;
+        /**
+         * メソッド名とパラメータの型を指定してメソッドを取得します。
+         * <p>
+         * アクセス修飾子を指定した場合の結果は{@link ClassUtils#tryFindMethod(Class, String, Class[], int)}と
+         * 同じです。索引のメソッドのアクセス修飾子が一致しない場合は、
+         * {@link ClassUtils#tryFindMethod(Class, String, Class[], int)}で検索します。
+         * </p>
+         * @param name メソッド名
+         * @param parameterTypes パラメータの型の配列。メソッドのパラメータの順番にパラメータの
+         *      クラスを配列に設定する。
+         * @param modifiers メソッドの取得対象のアクセス修飾子を{@link Modifier}クラスの定数の和で
+         *      指定する。取得対象のアクセス修飾子を指定しない場合は、-1を指定すること。
+         * @return 見つかったメソッドを返します。見つからなかった場合、またはメソッド名に
+         *      nullを指定した場合は空の{@link Optional}を返します。
+         * @throws SecurityException セキュリティ・マネージャでエラーが発生した場合
+         */
+        public Optional<Method> method(String name, Class<?>[] parameterTypes, int modifiers)
+                throws SecurityException {
+            if (name == null) {
+                return Optional.empty();
+            }
+            Class<?>[] types = parameterTypes != null ? parameterTypes : new Class<?>[0];
+            Method method = this.methodMap.get(new MemberKey(name, types, 0));
+            if (method == null || matchesModifiers(method.getModifiers(), modifiers)) {
+                return Optional.ofNullable(method);
+            }
+            return tryFindMethod(this.type, name, types, modifiers);
+        }
+
+        /**
+         * メソッド名を指定して、同じ名前の全てのメソッドを取得します。
+         * @param name メソッド名
+         * @return 見つかったメソッドの変更不可の一覧を返します。見つからなかった場合は
+         *      空の一覧を返します。
+         */
+        public List<Method> methods(String name) {
+            List<Method> list = this.overloadMap.get(name);
+            return list != null ? list : Collections.<Method>emptyList();
+        }
+
+        /**
+         * 全てのフィールドを、アクセス修飾子で絞り込んで取得します。
+         * @param modifiers フィールドの取得対象のアクセス修飾子を{@link Modifier}クラスの定数の和で
+         *      指定する。取得対象のアクセス修飾子を指定しない場合は、-1を指定すること。
+         * @return フィールドの一覧を、クラスで宣言されたもの、インターフェース、スーパー・クラスの
+         *      順で返します。
+         */
+        public List<Field> fields(int modifiers) {
+            if (modifiers <= 0) {
+                return this.fields;
+            }
+            List<Field> list = new ArrayList<Field>();
+            for (Field field : this.fields) {
+                if (matchesModifiers(field.getModifiers(), modifiers)) {
+                    list.add(field);
+                }
+            }
+            return list;
+        }
+
+        /**
+         * 全てのメソッドを、アクセス修飾子で絞り込んで取得します。
+         * @param modifiers メソッドの取得対象のアクセス修飾子を{@link Modifier}クラスの定数の和で
+         *      指定する。取得対象のアクセス修飾子を指定しない場合は、-1を指定すること。
+         * @return メソッドの一覧を、クラスで宣言されたもの、インターフェース、スーパー・クラスの
+         *      順で返します。
+         */
+        public List<Method> methods(int modifiers) {
+            if (modifiers <= 0) {
+                return this.methods;
+            }
+            List<Method> list = new ArrayList<Method>();
+            for (Method method : this.methods) {
+                if (matchesModifiers(method.getModifiers(), modifiers)) {
+                    list.add(method);
+                }
+            }
+            return list;
+        }
+    }
+
+    /**
+     * {@link MethodHandle}でフィールドの値を取得する{@link Function}。
+     */
+    private static final class HandleFunction implements Function<Object, Object> {
+        /** (Object)Objectの型のフィールドのgetter。 */
+        private final MethodHandle getter;
+
+        /**
+         * {@link Function}を構築します。
+         * @param getter (Object)Objectの型のフィールドのgetter
+         */
+        private HandleFunction(MethodHandle getter) {
+            this.getter = getter;
+        }
+
+        @Override
+        public Object apply(Object target) {
+            try {
+                return this.getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException(t);
+            }
+        }
+    }
+
+    /**
+     * クラスごとのメンバーの検索結果を保持するマップを作成する{@link ClassValue}。
+     */
+    private static final class MemberCache extends ClassValue<Map<MemberKey, Object>> {
+        @Override
+        protected Map<MemberKey, Object> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<MemberKey, Object>();
+        }
+    }
+
+    /**
+     * メンバーの検索結果のキャッシュのキー。メンバー名、パラメータの型、アクセス修飾子の
+     * 組み合わせです。
+     */
+    private static final class MemberKey {
+        /** メンバー名。 */
+        private final String name;
+
+        /** パラメータの型。フィールドの場合はnullです。 */
+        private final Class<?>[] parameterTypes;
+
+        /** アクセス修飾子。 */
+        private final int modifiers;
+
+        /** ハッシュコード。 */
+        private final int hash;
+
+        /**
+         * キーを構築します。
+         * @param name メンバー名
+         * @param parameterTypes パラメータの型。フィールドの場合はnull
+         * @param modifiers アクセス修飾子
+         */
+        private MemberKey(String name, Class<?>[] parameterTypes, int modifiers) {
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.modifiers = modifiers;
+            this.hash = (name.hashCode() * 31 + Arrays.hashCode(parameterTypes)) * 31 + modifiers;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MemberKey)) {
+                return false;
+            }
+            MemberKey other = (MemberKey) obj;
+            return this.modifiers == other.modifiers && this.name.equals(other.name)
+                    && Arrays.equals(this.parameterTypes, other.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
     }
 }
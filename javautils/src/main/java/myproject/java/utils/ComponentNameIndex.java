@@ -0,0 +1,259 @@
+package myproject.java.utils;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.event.ContainerEvent;
+import java.awt.event.ContainerListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link Container}に保持されている{@link Component}を、名前で検索するための索引を提供します。
+ * <p>
+ * 構築時に{@link Container}の全ての子孫の{@link Component}を名前で索引に登録し、
+ * {@link ContainerListener}で{@link Component}の追加と削除を、名前のプロパティの
+ * {@link PropertyChangeListener}で名前の変更を監視して索引を更新します。
+ * {@link #get(String)}は{@link SwingUtils#getComponentByName(Container, String)}のように
+ * {@link Component}の階層を辿らずに、索引から{@link Component}を取得します。
+ * </p>
+ * <p>
+ * Swingの{@link Component}と同じく、インスタンスはイベント・ディスパッチ・スレッドから使用してください。
+ * 索引が不要になった場合は{@link #dispose()}で登録したリスナーを削除してください。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.ComponentNameIndex;
+ * ...
+ * ComponentNameIndex index = new ComponentNameIndex(frame.getContentPane());
+ * ...
+ * JButton button = index.get("buttonName1", JButton.class);
+ * ...
+ * index.dispose();
+ * </pre></td></tr></table>
+ */
+public class ComponentNameIndex {
+
+    /** 索引を作成する{@link Container}。 */
+    private final Container root;
+
+    /** 名前と、その名前の{@link Component}の表。 */
+    private final Map<String, Set<Component>> index = new HashMap<String, Set<Component>>();
+
+    /** {@link Component}の追加、削除、名前の変更を監視するリスナー。 */
+    private final Listener listener = new Listener();
+
+    /**
+     * {@link Component}の追加、削除、名前の変更を監視して索引を更新します。
+     */
+    private final class Listener implements ContainerListener, PropertyChangeListener {
+        @Override
+        public void componentAdded(ContainerEvent e) {
+            add(e.getChild());
+        }
+
+        @Override
+        public void componentRemoved(ContainerEvent e) {
+            remove(e.getChild());
+        }
+
+        @Override
+        public void propertyChange(PropertyChangeEvent e) {
+            Component component = (Component) e.getSource();
+            unregister((String) e.getOldValue(), component);
+            register((String) e.getNewValue(), component);
+        }
+    }
+
+    /**
+     * 索引を作成する{@link Container}を指定して、子孫の{@link Component}を索引に登録します。
+     * @param root 索引を作成する{@link Container}
+     */
+    public ComponentNameIndex(Container root) {
+        this.root = root;
+        root.addContainerListener(this.listener);
+        for (Component component : root.getComponents()) {
+            add(component);
+        }
+    }
+
+    /**
+     * 名前を指定して{@link Component}を取得します。
+     * @param name {@link Component}の名前
+     * @return 取得した{@link Component}を返します。同じ名前の{@link Component}が複数ある場合は、
+     *      {@link SwingUtils#getComponentByName(Container, String)}と同じく最も浅い階層の
+     *      {@link Component}を、同じ階層に複数ある場合は階層の順に辿って先に見つかる
+     *      {@link Component}を返します。
+     *      nameにnullを指定した場合、及び指定された名前の{@link Component}が見つからなかった場合は
+     *      nullを返します。
+     */
+    public Component get(String name) {
+        Set<Component> components = this.index.get(name);
+        if (components == null) {
+            return null;
+        }
+        Iterator<Component> it = components.iterator();
+        Component result = it.next();
+        if (it.hasNext()) {
+            // 同じ名前が複数ある場合のみ、ルートからの位置を比較する
+            int[] resultPath = path(result);
+            while (it.hasNext()) {
+                Component component = it.next();
+                int[] componentPath = path(component);
+                if (comparePath(componentPath, resultPath) < 0) {
+                    result = component;
+                    resultPath = componentPath;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 名前と型を指定して{@link Component}を取得します。
+     * @param <T> {@link Component}の型
+     * @param name {@link Component}の名前
+     * @param type {@link Component}の型
+     * @return 取得した{@link Component}を返します。指定された名前の{@link Component}が
+     *      見つからなかった場合はnullを返します。
+     * @throws ClassCastException 取得した{@link Component}が指定した型でない場合
+     */
+    public <T extends Component> T get(String name, Class<T> type) {
+        return type.cast(get(name));
+    }
+
+    /**
+     * 索引を作成した{@link Container}を取得します。
+     * @return 索引を作成した{@link Container}を返します。
+     */
+    public Container getRoot() {
+        return this.root;
+    }
+
+    /**
+     * 登録したリスナーを削除し、索引を破棄します。
+     */
+    public void dispose() {
+        this.root.removeContainerListener(this.listener);
+        for (Component component : this.root.getComponents()) {
+            remove(component);
+        }
+        this.index.clear();
+    }
+
+    /**
+     * ルートの{@link Container}から{@link Component}までの、各階層の{@link Container}の中での
+     * 位置の配列を作成します。
+     * @param component {@link Component}
+     * @return ルートに近い階層から順に、{@link Container}の中での位置を格納した配列を返します。
+     */
+    private int[] path(Component component) {
+        Deque<Integer> indexes = new ArrayDeque<Integer>();
+        for (Component c = component; c != this.root && c.getParent() != null; c = c.getParent()) {
+            indexes.push(c.getParent().getComponentZOrder(c));
+        }
+        int[] path = new int[indexes.size()];
+        int i = 0;
+        for (Integer index : indexes) {
+            path[i++] = index;
+        }
+        return path;
+    }
+
+    /**
+     * 幅優先で辿る順に、{@link Component}の位置を比較します。
+     * <p>
+     * 階層が浅い方を先とし、同じ階層の場合はルートに近い階層の位置から順に比較します。
+     * </p>
+     * @param path1 {@link Component}の位置
+     * @param path2 {@link Component}の位置
+     * @return path1が先の場合は負の値、path2が先の場合は正の値、同じ場合は0を返します。
+     */
+    private static int comparePath(int[] path1, int[] path2) {
+        if (path1.length != path2.length) {
+            return Integer.compare(path1.length, path2.length);
+        }
+        for (int i = 0; i < path1.length; i++) {
+            if (path1[i] != path2[i]) {
+                return Integer.compare(path1[i], path2[i]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * {@link Component}とその子孫を索引に登録し、リスナーを登録します。
+     * @param component {@link Component}
+     */
+    private void add(Component component) {
+        Deque<Component> stack = new ArrayDeque<Component>();
+        stack.push(component);
+        while (!stack.isEmpty()) {
+            Component c = stack.pop();
+            c.addPropertyChangeListener("name", this.listener);
+            register(c.getName(), c);
+            if (c instanceof Container) {
+                Container container = (Container) c;
+                container.addContainerListener(this.listener);
+                for (Component child : container.getComponents()) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link Component}とその子孫を索引から削除し、リスナーを削除します。
+     * @param component {@link Component}
+     */
+    private void remove(Component component) {
+        Deque<Component> stack = new ArrayDeque<Component>();
+        stack.push(component);
+        while (!stack.isEmpty()) {
+            Component c = stack.pop();
+            c.removePropertyChangeListener("name", this.listener);
+            unregister(c.getName(), c);
+            if (c instanceof Container) {
+                Container container = (Container) c;
+                container.removeContainerListener(this.listener);
+                for (Component child : container.getComponents()) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * 名前と{@link Component}を索引に登録します。
+     * @param name 名前
+     * @param component {@link Component}
+     */
+    private void register(String name, Component component) {
+        if (name != null) {
+            this.index.computeIfAbsent(name, key -> new LinkedHashSet<Component>()).add(component);
+        }
+    }
+
+    /**
+     * 名前と{@link Component}を索引から削除します。
+     * @param name 名前
+     * @param component {@link Component}
+     */
+    private void unregister(String name, Component component) {
+        if (name != null) {
+            Set<Component> components = this.index.get(name);
+            if (components != null && components.remove(component) && components.isEmpty()) {
+                this.index.remove(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package myproject.java.utils;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * キーワードを置換済みの、変更不可の設定値を保持します。
+ * <p>
+ * 設定値は構築した後に変更されない表に保持し、参照時にロックを取得しません。公開する
+ * コンストラクタは指定された表を{@link HashMap}に複写し、このパッケージ内で設定値を
+ * 読み込むクラスは新しく作成した表を複写せずに保持させます。
+ * {@link #getInt(String, int)}などの型を指定して取得するメソッドは、最初に取得した時に
+ * 変換した値を{@link ConcurrentHashMap}に記憶し、２回目以降は変換せずに返します。
+ * インスタンスは複数のスレッドから同時に使用できます。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.ConfigSnapshot;
+ * import myproject.java.utils.PropertiesUtils;
+ * ...
+ * ConfigSnapshot config = PropertiesUtils.loadConfig("app/app.properties");
+ * int poolSize = config.getInt("pool.size", 10);
+ * Duration timeout = config.getDuration("request.timeout", Duration.ofSeconds(30));
+ * long maxUpload = config.getSize("upload.max", 10 * 1024 * 1024);
+ * </pre></td></tr></table>
+ */
+public final class ConfigSnapshot {
+
+    /** キーと値の表。 */
+    private final Map<String, String> values;
+
+    /** {@link #getInt(String, int)}で変換した値。 */
+    private final Map<String, Object> intValues = new ConcurrentHashMap<String, Object>();
+
+    /** {@link #getLong(String, long)}で変換した値。 */
+    private final Map<String, Object> longValues = new ConcurrentHashMap<String, Object>();
+
+    /** {@link #getDuration(String, Duration)}で変換した値。 */
+    private final Map<String, Object> durationValues = new ConcurrentHashMap<String, Object>();
+
+    /** {@link #getSize(String, long)}で変換した値。 */
+    private final Map<String, Object> sizeValues = new ConcurrentHashMap<String, Object>();
+
+    /**
+     * キーと値の表を指定して、設定値を構築します。表は複写して保持します。
+     * @param values キーと値の表
+     */
+    public ConfigSnapshot(Map<String, String> values) {
+        this(values, true);
+    }
+
+    /**
+     * キーと値の表を指定して、設定値を構築します。複写しない場合は表をそのまま保持するため、
+     * 構築した後に表を変更しないでください。
+     * <p>
+     * 複写せずに呼び出す{@link #of(Properties)}、{@link LayeredConfig}、{@link ReloadableConfig}、
+     * {@link PropertiesUtils#loadConfig(String)}は、いずれも呼び出しの中で新しく作成した表を渡し、
+     * 渡した後はその表を参照も変更もしません。呼び出し元を追加する場合も、この条件を守ってください。
+     * </p>
+     * @param values キーと値の表
+     * @param copy 表を複写する場合はtrue
+     */
+    ConfigSnapshot(Map<String, String> values, boolean copy) {
+        this.values = copy ? new HashMap<String, String>(values) : values;
+    }
+
+    /**
+     * {@link Properties}のキーと値が{@link String}のプロパティから、設定値を構築します。
+     * キーワードは置換しません。
+     * @param properties プロパティ
+     * @return 構築した設定値を返します。
+     */
+    public static ConfigSnapshot of(Properties properties) {
+        Map<String, String> values = new HashMap<String, String>();
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                values.put((String) entry.getKey(), (String) entry.getValue());
+            }
+        }
+        return new ConfigSnapshot(values, false);
+    }
+
+    /**
+     * 設定値を取得します。
+     * @param key キー
+     * @return 設定値を返します。設定されていない場合はnullを返します。
+     */
+    public String get(String key) {
+        return this.values.get(key);
+    }
+
+    /**
+     * 設定値を取得します。
+     * @param key キー
+     * @param defaultValue 設定されていない場合の値
+     * @return 設定値を返します。設定されていない場合はdefaultValueを返します。
+     */
+    public String get(String key, String defaultValue) {
+        String value = this.values.get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 設定値をintに変換して取得します。前後の空白は無視します。
+     * @param key キー
+     * @param defaultValue 設定されていない場合の値
+     * @return 設定値を返します。設定されていない場合はdefaultValueを返します。
+     * @throws NumberFormatException 設定値をintに変換できない場合
+     */
+    public int getInt(String key, int defaultValue) {
+        Integer value = (Integer) convert(this.intValues, key, s -> Integer.valueOf(s.trim()));
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 設定値をlongに変換して取得します。前後の空白は無視します。
+     * @param key キー
+     * @param defaultValue 設定されていない場合の値
+     * @return 設定値を返します。設定されていない場合はdefaultValueを返します。
+     * @throws NumberFormatException 設定値をlongに変換できない場合
+     */
+    public long getLong(String key, long defaultValue) {
+        Long value = (Long) convert(this.longValues, key, s -> Long.valueOf(s.trim()));
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 設定値を{@link Duration}に変換して取得します。
+     * <p>
+     * 設定値は「30s」のように数値と単位（ns、us、ms、s、m、h、d）で指定します。
+     * 単位を省略した場合はミリ秒とします。「PT30S」のようなISO-8601形式も指定できます。
+     * </p>
+     * @param key キー
+     * @param defaultValue 設定されていない場合の値
+     * @return 設定値を返します。設定されていない場合はdefaultValueを返します。
+     * @throws IllegalArgumentException 設定値を{@link Duration}に変換できない場合
+     */
+    public Duration getDuration(String key, Duration defaultValue) {
+        Duration value = (Duration) convert(this.durationValues, key, ConfigSnapshot::parseDuration);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 設定値をバイト数に変換して取得します。
+     * <p>
+     * 設定値は「512」、「64KB」、「10M」のように数値と単位（B、K、KB、M、MB、G、GB、T、TB。
+     * 大文字小文字を区別せず、1K=1024バイト）で指定します。単位を省略した場合はバイトとします。
+     * </p>
+     * @param key キー
+     * @param defaultValue 設定されていない場合の値
+     * @return 設定値を返します。設定されていない場合はdefaultValueを返します。
+     * @throws IllegalArgumentException 設定値をバイト数に変換できない場合
+     */
+    public long getSize(String key, long defaultValue) {
+        Long value = (Long) convert(this.sizeValues, key, ConfigSnapshot::parseSize);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * 全てのキーを取得します。
+     * @return キーの変更不可の集合を返します。
+     */
+    public Set<String> keySet() {
+        return Collections.unmodifiableSet(this.values.keySet());
+    }
+
+    /**
+     * キーと値の表を取得します。
+     * @return キーと値の変更不可の表を返します。
+     */
+    public Map<String, String> asMap() {
+        return Collections.unmodifiableMap(this.values);
+    }
+
+    /**
+     * 他の設定値と比較して、値が異なるキーを取得します。
+     * @param other 比較する設定値
+     * @return 一方にのみ存在するキー、及び値が異なるキーの集合を返します。
+     */
+    public Set<String> diff(ConfigSnapshot other) {
+        Set<String> keys = new HashSet<String>();
+        for (Map.Entry<String, String> entry : this.values.entrySet()) {
+            if (!entry.getValue().equals(other.values.get(entry.getKey()))) {
+                keys.add(entry.getKey());
+            }
+        }
+        for (String key : other.values.keySet()) {
+            if (!this.values.containsKey(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 設定値を複写した{@link Properties}を作成します。
+     * @return 作成した{@link Properties}を返します。
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.putAll(this.values);
+        return properties;
+    }
+
+    /**
+     * 設定値を変換し、変換した値を記憶します。
+     * @param cache 変換した値を記憶する表
+     * @param key キー
+     * @param converter 設定値を変換する関数
+     * @return 変換した値を返します。設定されていない場合はnullを返します。
+     */
+    private Object convert(Map<String, Object> cache, String key, Function<String, Object> converter) {
+        Object value = cache.get(key);
+        if (value == null) {
+            String s = this.values.get(key);
+            if (s == null) {
+                return null;
+            }
+            value = converter.apply(s);
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * 文字列を{@link Duration}に変換します。
+     * @param s 文字列
+     * @return 変換した値を返します。
+     * @throws IllegalArgumentException 変換できない場合
+     */
+    private static Duration parseDuration(String s) {
+        String text = s.trim();
+        if (text.startsWith("P") || text.startsWith("-P")) {
+            return Duration.parse(text);
+        }
+        int unitStart = unitStart(text);
+        long amount = Long.parseLong(text.substring(0, unitStart).trim());
+        String unit = text.substring(unitStart).trim();
+        switch (unit) {
+        case "ns":
+            return Duration.ofNanos(amount);
+        case "us":
+            return Duration.of(amount, ChronoUnit.MICROS);
+        case "":
+        case "ms":
+            return Duration.ofMillis(amount);
+        case "s":
+            return Duration.ofSeconds(amount);
+        case "m":
+            return Duration.ofMinutes(amount);
+        case "h":
+            return Duration.ofHours(amount);
+        case "d":
+            return Duration.ofDays(amount);
+        default:
+            throw new IllegalArgumentException("Invalid duration: " + s);
+        }
+    }
+
+    /**
+     * 文字列をバイト数に変換します。
+     * @param s 文字列
+     * @return 変換した値を返します。
+     * @throws IllegalArgumentException 変換できない場合
+     */
+    private static Long parseSize(String s) {
+        String text = s.trim();
+        int unitStart = unitStart(text);
+        long amount = Long.parseLong(text.substring(0, unitStart).trim());
+        int shift;
+        switch (text.substring(unitStart).trim().toUpperCase()) {
+        case "":
+        case "B":
+            shift = 0;
+            break;
+        case "K":
+        case "KB":
+            shift = 10;
+            break;
+        case "M":
+        case "MB":
+            shift = 20;
+            break;
+        case "G":
+        case "GB":
+            shift = 30;
+            break;
+        case "T":
+        case "TB":
+            shift = 40;
+            break;
+        default:
+            throw new IllegalArgumentException("Invalid size: " + s);
+        }
+        if (amount > (Long.MAX_VALUE >> shift) || amount < (Long.MIN_VALUE >> shift)) {
+            throw new IllegalArgumentException("Size overflow: " + s);
+        }
+        return amount << shift;
+    }
+
+    /**
+     * 数値と単位からなる文字列の、単位の開始位置を取得します。
+     * @param text 前後の空白を除いた文字列
+     * @return 単位の開始位置を返します。単位がない場合は文字列の長さを返します。
+     */
+    private static int unitStart(String text) {
+        int i = 0;
+        if (i < text.length() && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            i++;
+        }
+        while (i < text.length() && (Character.isDigit(text.charAt(i)) || text.charAt(i) == ' ')) {
+            i++;
+        }
+        return i;
+    }
+
+    @Override
+    public String toString() {
+        return this.values.toString();
+    }
+}
@@ -0,0 +1,944 @@
+package myproject.java.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ストリームからCSV形式のデータを１行ずつ読み込み、読み込んだ行の項目を
+ * 再利用されるバッファ上のビューとして参照するカーソルを実装します。
+ * <p>
+ * {@link CsvIterator}は１行ごとに{@link java.util.List}と項目ごとの{@link String}を
+ * 生成しますが、このクラスは{@link #advance()}で現在行を次の行に進め、
+ * {@link #field(int)}で現在行の項目を{@link CharSequence}として返します。
+ * 返されるビューは次に{@link #advance()}を呼び出すまで有効です。数値の項目は
+ * {@link #fieldAsInt(int)}などで{@link String}を生成せずに変換できます。
+ * CSV形式の解釈は{@link CsvIterator}と同じです。
+ * </p>
+ * <p>
+ * {@link InputStream}、{@link ReadableByteChannel}または{@link ByteBuffer}を指定して
+ * 構築した場合は、「"」、カンマ、CR、LFをバイト列のまま判定し、項目の区切りが
+ * 確定した時点でその項目のバイト列のみを文字に変換します。ASCII文字のみの項目は
+ * {@link CharsetDecoder}を使わずに変換します。この場合、ASCII文字を１バイトのASCIIコードで
+ * 符号化し、複数バイトの文字の符号にLF（0x0A）、CR（0x0D）、「"」（0x22）、カンマ（0x2C）の
+ * バイトを含まず、かつ状態を持たない文字セット（UTF-8、US-ASCII、ISO-8859-x、windows-125x、
+ * Shift_JIS、windows-31j、EUC-JP、EUC-KR、GBK）のみ指定できます。Shift_JISやGBKの２バイト目は
+ * 0x40以上のため、0x40～0x7Eのバイトを含んでもこれらのバイトとは一致しません。ISO-2022-JPの
+ * ような状態を持つ文字セットは、２バイト文字の符号に「"」やカンマと同じバイトを含むため
+ * 指定できません。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.CsvCursor;
+ * ...
+ * long total = 0;
+ * try (Reader in = new InputStreamReader(
+ *         new FileInputStream("/path/to/csv"), "UTF-8")) {
+ *     CsvCursor cursor = new CsvCursor(in);
+ *     while (cursor.advance()) {
+ *         if (cursor.fieldCount() &gt; 2) {
+ *             total += cursor.fieldAsLong(2);
+ *         }
+ *     }
+ * }
+ * </pre></td></tr></table>
+ */
+public class CsvCursor {
+
+    /** {@link Reader}から一度に読み込む文字数。 */
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    /** CSV１行分の文字を格納するバッファの初期サイズ。 */
+    private static final int ROW_BUFFER_SIZE = 256;
+
+    /** CSV１行分の項目数の初期値。 */
+    private static final int COLUMN_SIZE = 16;
+
+    /** 10進数の基数。 */
+    private static final int DECIMAL_RADIX = 10;
+
+    /** doubleで誤差なく表現できる10進数の有効桁数。 */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /** doubleで誤差なく表現できる10のべき乗。 */
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * ダブルクォートで囲まれた項目に含まれる改行を置き換える文字列。
+     */
+    private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+
+    /**
+     * ダブルクォートで囲まれた項目に含まれる改行を置き換えるバイト列。
+     */
+    private static final byte[] LINE_SEPARATOR_BYTES = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+
+    /** バイト列のまま区切り文字を判定できる文字セットの名前。 */
+    private static final Set<String> ASCII_COMPATIBLE_CHARSETS = new HashSet<String>(Arrays.asList(
+            "UTF-8", "US-ASCII", "Shift_JIS", "windows-31j", "EUC-JP", "EUC-KR", "GBK"));
+
+    /** バイト列のまま区切り文字を判定できる、ISO-8859-xの文字セットの名前の接頭辞。 */
+    private static final String ISO_8859_PREFIX = "ISO-8859-";
+
+    /** バイト列のまま区切り文字を判定できる、windows-125xの文字セットの名前の接頭辞。 */
+    private static final String WINDOWS_125X_PREFIX = "windows-125";
+
+    /**
+     * CSVデータを入力する、コンストラクタから渡された{@link Reader}。
+     */
+    private Reader in = null;
+
+    /**
+     * {@link #in}から読み込んだ文字を保持する、再利用されるバッファ。
+     */
+    private char[] buf = null;
+
+    /**
+     * バイト列のCSVデータを入力する、コンストラクタから渡された{@link InputStream}。
+     */
+    private InputStream bytein = null;
+
+    /**
+     * バイト列のCSVデータを入力する、コンストラクタから渡された{@link ReadableByteChannel}。
+     */
+    private ReadableByteChannel channel = null;
+
+    /**
+     * バイト列のCSVデータを保持するバッファ。{@link ByteBuffer}を指定して構築した
+     * 場合はその内容を参照し、それ以外の場合は{@link #bytein}または{@link #channel}から
+     * 読み込んだバイト列を保持します。{@link Reader}を指定して構築した場合はnullです。
+     */
+    private ByteBuffer bytebuf = null;
+
+    /** バイト列の項目を文字に変換する{@link CharsetDecoder}。 */
+    private CharsetDecoder decoder = null;
+
+    /** {@link #decoder}が１バイトから変換する最大の文字数。 */
+    private int maxCharsPerByte = 1;
+
+    /**
+     * 処理中のCSV項目のバイト列を格納する、再利用されるバッファ。
+     */
+    private byte[] colbytes = null;
+
+    /** {@link #colbytes}に格納されているバイト数。 */
+    private int collen = 0;
+
+    /** {@link #buf}または{@link #bytebuf}の中で次に処理する位置。 */
+    private int pos = 0;
+
+    /** {@link #buf}または{@link #bytebuf}の中で読み込み済みのデータの終わりの位置。 */
+    private int limit = 0;
+
+    /**
+     * 直前の行がCRで終わった場合にtrueとなり、次の文字がLFの場合はそれを
+     * 読み飛ばします。
+     */
+    private boolean skipLf = false;
+
+    /**
+     * CSV１行分の項目の文字を連結して格納する、再利用されるバッファ。
+     * 「"」で囲まれた項目は、両端の「"」と「""」のエスケープを取り除いた状態で
+     * 格納されます。
+     */
+    private char[] rowbuf = new char[ROW_BUFFER_SIZE];
+
+    /** {@link #rowbuf}に格納されている文字数。 */
+    private int rowlen = 0;
+
+    /**
+     * CSV項目の{@link #rowbuf}における位置。i番目の項目の開始位置を[i * 2]、
+     * 終了位置を[i * 2 + 1]に格納します。
+     */
+    private int[] cols = new int[COLUMN_SIZE * 2];
+
+    /** CSV１行分の項目数。 */
+    private int colcount = 0;
+
+    /**
+     * 項目ごとに再利用される、{@link #rowbuf}上の項目を参照するビュー。
+     */
+    private FieldView[] views = new FieldView[COLUMN_SIZE];
+
+    /**
+     * 項目の位置ごとに、選択されている場合はtrueを格納します。全ての項目を
+     * 選択している場合はnullです。
+     */
+    private boolean[] selected = null;
+
+    /**
+     * CSV形式のデータを入力する{@link Reader}を指定して、カーソルを構築します。
+     * 構築直後のカーソルは最初の行の前に位置しています。
+     * @param in CSV形式のデータを入力する{@link Reader}
+     */
+    public CsvCursor(Reader in) {
+        this.in = in;
+        this.buf = new char[READ_BUFFER_SIZE];
+    }
+
+    /**
+     * CSV形式のデータを入力する{@link InputStream}と文字セットを指定して、バイト列の
+     * まま区切り文字を判定するカーソルを構築します。
+     * @param in CSV形式のデータを入力する{@link InputStream}
+     * @param charset CSV形式のデータの文字セット
+     * @throws IllegalArgumentException ASCIIの上位集合で状態を持たない文字セット
+     *      （UTF-8、ISO-8859-1、Shift_JISなど）以外を指定した場合
+     */
+    public CsvCursor(InputStream in, Charset charset) {
+        initBytes(ByteBuffer.allocate(READ_BUFFER_SIZE), 0, charset);
+        this.bytein = in;
+    }
+
+    /**
+     * CSV形式のデータを入力する{@link ReadableByteChannel}と文字セットを指定して、
+     * バイト列のまま区切り文字を判定するカーソルを構築します。
+     * @param in CSV形式のデータを入力する{@link ReadableByteChannel}
+     * @param charset CSV形式のデータの文字セット
+     * @throws IllegalArgumentException ASCIIの上位集合で状態を持たない文字セット
+     *      （UTF-8、ISO-8859-1、Shift_JISなど）以外を指定した場合
+     */
+    public CsvCursor(ReadableByteChannel in, Charset charset) {
+        initBytes(ByteBuffer.allocate(READ_BUFFER_SIZE), 0, charset);
+        this.channel = in;
+    }
+
+    /**
+     * CSV形式のデータを保持する{@link ByteBuffer}と文字セットを指定して、バイト列の
+     * まま区切り文字を判定するカーソルを構築します。
+     * <p>
+     * {@link ByteBuffer}の現在位置から上限までをCSV形式のデータとして読み込みます。
+     * 指定された{@link ByteBuffer}の位置は変更しません。
+     * </p>
+     * @param in CSV形式のデータを保持する{@link ByteBuffer}
+     * @param charset CSV形式のデータの文字セット
+     * @throws IllegalArgumentException ASCIIの上位集合で状態を持たない文字セット
+     *      （UTF-8、ISO-8859-1、Shift_JISなど）以外を指定した場合
+     */
+    public CsvCursor(ByteBuffer in, Charset charset) {
+        ByteBuffer slice = in.slice();
+        initBytes(slice, slice.limit(), charset);
+    }
+
+    /**
+     * バイト列のまま区切り文字を判定するための状態を初期化します。
+     * @param bbuf バイト列のCSVデータを保持するバッファ
+     * @param length バッファに保持されているバイト数
+     * @param charset CSV形式のデータの文字セット
+     * @throws IllegalArgumentException ASCIIの上位集合で状態を持たない文字セット
+     *      （UTF-8、ISO-8859-1、Shift_JISなど）以外を指定した場合
+     */
+    private void initBytes(ByteBuffer bbuf, int length, Charset charset) {
+        checkCharset(charset);
+        this.bytebuf = bbuf;
+        this.limit = length;
+        this.colbytes = new byte[ROW_BUFFER_SIZE];
+        this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.maxCharsPerByte = (int) Math.ceil(this.decoder.maxCharsPerByte());
+    }
+
+    /**
+     * 文字セットがASCIIの上位集合で、状態を持たないことを確認します。
+     * <p>
+     * 「"」、カンマ、CR、LFを１バイトのASCIIコードで符号化するだけでなく、他の文字の符号に
+     * これらと同じバイトを含まない必要があるため、該当する文字セットを名前で判定します。
+     * </p>
+     * @param charset 文字セット
+     * @throws IllegalArgumentException ASCIIの上位集合で状態を持たない文字セット
+     *      （UTF-8、ISO-8859-1、Shift_JISなど）以外を指定した場合
+     */
+    static void checkCharset(Charset charset) {
+        String name = charset.name();
+        if (!ASCII_COMPATIBLE_CHARSETS.contains(name) && !name.startsWith(ISO_8859_PREFIX)
+                && !name.startsWith(WINDOWS_125X_PREFIX)) {
+            throw new IllegalArgumentException(charset + " is not a stateless ASCII-compatible charset");
+        }
+    }
+
+    /**
+     * 現在行を次の行に進めます。
+     * <p>
+     * 前の行の項目を参照していたビューの内容は、このメソッドの呼び出しにより
+     * 次の行の内容に置き換わります。
+     * </p>
+     * @return 次の行を読み込んだ場合はtrue、ストリームの終わりに達していた場合は
+     *      falseを返します。
+     * @throws IOException 入力データの読み込みに失敗した場合
+     */
+    public boolean advance() throws IOException {
+        boolean found;
+        if (this.bytebuf != null) {
+            found = readRowBytes();
+        } else {
+            found = readRow();
+        }
+        if (!found) {
+            this.rowlen = 0;
+            this.colcount = 0;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 読み込む項目を選択します。
+     * <p>
+     * 選択されていない項目は、区切りを判定するためにのみ読み込まれ、項目の文字の
+     * 複写や「"」のエスケープの除去は行われません。{@link #fieldCount()}及び項目の
+     * 位置は選択にかかわらず行の全ての項目を数えたものとなり、選択されていない項目は
+     * 長さ０の文字列として扱われます。選択は次に{@link #advance()}で読み込む行から
+     * 有効になります。
+     * </p>
+     * @param indexes 選択する項目の位置（０から始まる）。nullを指定すると全ての
+     *      項目を選択します。
+     * @throws IllegalArgumentException 負の位置を指定した場合
+     */
+    public void select(int... indexes) {
+        if (indexes == null) {
+            this.selected = null;
+            return;
+        }
+        int max = -1;
+        for (int index : indexes) {
+            if (index < 0) {
+                throw new IllegalArgumentException("index: " + index);
+            }
+            max = Math.max(max, index);
+        }
+        boolean[] flags = new boolean[max + 1];
+        for (int index : indexes) {
+            flags[index] = true;
+        }
+        this.selected = flags;
+    }
+
+    /**
+     * 現在行の項目数を返します。
+     * @return 現在行の項目数を返します。行を読み込んでいない場合は０を返します。
+     */
+    public int fieldCount() {
+        return this.colcount;
+    }
+
+    /**
+     * 現在行の項目を、再利用されるバッファ上のビューとして返します。
+     * <p>
+     * 返される{@link CharSequence}は項目の位置ごとに再利用され、次に
+     * {@link #advance()}を呼び出すとその行の同じ位置の項目を参照します。値を
+     * 保持する場合は{@link #fieldAsString(int)}を使用してください。
+     * </p>
+     * @param index 項目の位置（０から始まる）
+     * @return 項目の文字列を参照する{@link CharSequence}を返します。
+     * @throws IndexOutOfBoundsException indexが現在行の項目数の範囲外の場合
+     */
+    public CharSequence field(int index) {
+        checkIndex(index);
+        if (index >= this.views.length) {
+            this.views = Arrays.copyOf(this.views, Math.max(index + 1, this.views.length * 2));
+        }
+        FieldView view = this.views[index];
+        if (view == null) {
+            view = new FieldView(index);
+            this.views[index] = view;
+        }
+        return view;
+    }
+
+    /**
+     * 現在行の項目を{@link String}として返します。
+     * @param index 項目の位置（０から始まる）
+     * @return 項目の文字列を返します。
+     * @throws IndexOutOfBoundsException indexが現在行の項目数の範囲外の場合
+     */
+    public String fieldAsString(int index) {
+        checkIndex(index);
+        int start = this.cols[index * 2];
+        return new String(this.rowbuf, start, this.cols[index * 2 + 1] - start);
+    }
+
+    /**
+     * 現在行の項目を、{@link String}を生成せずに10進数のintに変換して返します。
+     * 変換規則は{@link Integer#parseInt(String)}と同じです。
+     * @param index 項目の位置（０から始まる）
+     * @return 項目の値をintに変換した結果を返します。
+     * @throws IndexOutOfBoundsException indexが現在行の項目数の範囲外の場合
+     * @throws NumberFormatException 項目の値をintに変換できない場合
+     */
+    public int fieldAsInt(int index) {
+        CharSequence value = field(index);
+        return Integer.parseInt(value, 0, value.length(), DECIMAL_RADIX);
+    }
+
+    /**
+     * 現在行の項目を、{@link String}を生成せずに10進数のlongに変換して返します。
+     * 変換規則は{@link Long#parseLong(String)}と同じです。
+     * @param index 項目の位置（０から始まる）
+     * @return 項目の値をlongに変換した結果を返します。
+     * @throws IndexOutOfBoundsException indexが現在行の項目数の範囲外の場合
+     * @throws NumberFormatException 項目の値をlongに変換できない場合
+     */
+    public long fieldAsLong(int index) {
+        CharSequence value = field(index);
+        return Long.parseLong(value, 0, value.length(), DECIMAL_RADIX);
+    }
+
+    /**
+     * 現在行の項目をdoubleに変換して返します。
+     * <p>
+     * 符号、整数部、小数部のみで構成され有効桁数が{@link #MAX_EXACT_DIGITS}以下の
+     * 値は、{@link String}を生成せずにバッファ上で変換します。それ以外の値（指数
+     * 表記など）は{@link Double#parseDouble(String)}で変換します。いずれの場合も
+     * 結果は{@link Double#parseDouble(String)}と同じです。
+     * </p>
+     * @param index 項目の位置（０から始まる）
+     * @return 項目の値をdoubleに変換した結果を返します。
+     * @throws IndexOutOfBoundsException indexが現在行の項目数の範囲外の場合
+     * @throws NumberFormatException 項目の値をdoubleに変換できない場合
+     */
+    public double fieldAsDouble(int index) {
+        checkIndex(index);
+        char[] cbuf = this.rowbuf;
+        int start = this.cols[index * 2];
+        int end = this.cols[index * 2 + 1];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (cbuf[i] == '-' || cbuf[i] == '+')) {
+            negative = cbuf[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean point = false;
+        boolean seen = false;
+        boolean exact = true;
+        for (; i < end && exact; i++) {
+            char c = cbuf[i];
+            if (c >= '0' && c <= '9') {
+                seen = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                mantissa = mantissa * DECIMAL_RADIX + (c - '0');
+                if (point) {
+                    scale++;
+                }
+                exact = digits <= MAX_EXACT_DIGITS && scale < POWERS_OF_TEN.length;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                exact = false;
+            }
+        }
+        if (!exact || !seen) {
+            // 単純な10進数でない場合、または数字を含まない場合
+            return Double.parseDouble(new String(cbuf, start, end - start));
+        }
+        // 有効桁数15桁以下の整数を10の22乗以下で割った結果は正しく丸められる
+        double value = (double) mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * 項目の位置が現在行の項目数の範囲内であることを確認します。
+     * @param index 項目の位置
+     * @throws IndexOutOfBoundsException indexが現在行の項目数の範囲外の場合
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.colcount) {
+            throw new IndexOutOfBoundsException("index: " + index + ", fieldCount: " + this.colcount);
+        }
+    }
+
+    /**
+     * {@link Reader}からCSV１行分のデータを読み込み、CSVの各項目を
+     * {@link #rowbuf}及び{@link #cols}に格納します。
+     * <p>
+     * {@link #buf}に読み込んだ文字を状態（「"」の中かどうか）に応じて１文字ずつ
+     * １度だけ調べ、「"」、カンマ、改行以外の文字はまとめて{@link #rowbuf}に
+     * 複写します。「"」で囲まれた改行は{@link System#lineSeparator()}に置き換えます。
+     * </p>
+     * @return CSV１行分のデータを読み込んだ場合はtrue、ストリームの終わりに
+     *      達していた場合はfalseを返します。
+     * @throws IOException 入力データの読み込みに失敗した場合
+     */
+    private boolean readRow() throws IOException {
+        boolean inDquote = false;
+        boolean found = false;
+        boolean blank = true;
+        int colbegin = 0;
+        this.rowlen = 0;
+        this.colcount = 0;
+        boolean skip = isSkipped(0);
+
+        while (this.pos < this.limit || fill()) {
+            char[] cbuf = this.buf;
+            if (this.skipLf) {
+                // CRの直後のLFは読み飛ばす
+                this.skipLf = false;
+                if (cbuf[this.pos] == '\n') {
+                    this.pos++;
+                    continue;
+                }
+            }
+            found = true;
+
+            // 「"」、カンマ、改行が見つかるまでの文字をまとめて項目の文字列に追加する
+            int index = this.pos;
+            int end = this.limit;
+            char c = 0;
+            if (inDquote) {
+                while (index < end) {
+                    c = cbuf[index];
+                    if (c == '"' || c == '\r' || c == '\n') {
+                        break;
+                    }
+                    index++;
+                }
+            } else {
+                while (index < end) {
+                    c = cbuf[index];
+                    if (c == '"' || c == ',' || c == '\r' || c == '\n') {
+                        break;
+                    }
+                    index++;
+                }
+            }
+            if (index > this.pos) {
+                blank = false;
+                if (!skip) {
+                    append(cbuf, this.pos, index - this.pos);
+                }
+            }
+            this.pos = index;
+            if (index >= end) {
+                continue;
+            }
+            this.pos++;
+
+            if (c == '"') {
+                // ダブルクォートは項目の文字列に含めて、「"」の中かどうかを切り替える
+                blank = false;
+                if (!skip) {
+                    append('"');
+                }
+                inDquote = !inDquote;
+            } else if (c == ',') {
+                // カンマが見つかったら次の項目の処理を開始する
+                blank = false;
+                endColumn(colbegin, skip);
+                colbegin = this.rowlen;
+                skip = isSkipped(this.colcount);
+            } else {
+                this.skipLf = c == '\r';
+                if (inDquote) {
+                    // ダブルクォートの中の改行は項目の文字列に含める
+                    if (!skip) {
+                        append(LINE_SEPARATOR, 0, LINE_SEPARATOR.length);
+                    }
+                } else {
+                    // 空行の場合は項目数０の行とする
+                    if (!blank) {
+                        endColumn(colbegin, skip);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        if (found) {
+            // 改行のないままストリームの終わりに達した場合
+            endColumn(colbegin, skip);
+        }
+        return found;
+    }
+
+    /**
+     * 項目が{@link #select(int...)}で選択されていないかどうかを返します。
+     * @param index 項目の位置
+     * @return 項目が選択されていない場合はtrueを返します。
+     */
+    private boolean isSkipped(int index) {
+        boolean[] flags = this.selected;
+        return flags != null && (index >= flags.length || !flags[index]);
+    }
+
+    /**
+     * {@link #rowbuf}のcolbeginから最後までの文字を１つのCSV項目とします。
+     * 項目の文字列の両端がダブルクォートの場合、両端のダブルクォートを削除して
+     * 更に「""」を「"」に置換します。置換は{@link #rowbuf}の中で行います。
+     * @param colbegin 項目の開始位置
+     * @param skip 選択されていない項目の場合はtrue。長さ０の項目として追加します。
+     */
+    private void endColumn(int colbegin, boolean skip) {
+        if (skip) {
+            addColumn(colbegin, colbegin);
+            return;
+        }
+        char[] cbuf = this.rowbuf;
+        int colend = this.rowlen;
+        if (colend - colbegin > 1 && cbuf[colbegin] == '"' && cbuf[colend - 1] == '"') {
+            // 文字列の開始、終了文字が共にダブルクォートの場合
+            int dst = colbegin;
+            int last = colend - 1;
+            for (int src = colbegin + 1; src < last; src++) {
+                char c = cbuf[src];
+                cbuf[dst++] = c;
+                if (c == '"' && src + 1 < last && cbuf[src + 1] == '"') {
+                    src++;
+                }
+            }
+            colend = dst;
+            this.rowlen = dst;
+        }
+        addColumn(colbegin, colend);
+    }
+
+    /**
+     * CSV項目の{@link #rowbuf}における位置を{@link #cols}に追加します。
+     * @param colbegin 項目の開始位置
+     * @param colend 項目の終了位置
+     */
+    private void addColumn(int colbegin, int colend) {
+        if (this.colcount * 2 >= this.cols.length) {
+            this.cols = Arrays.copyOf(this.cols, this.cols.length * 2);
+        }
+        this.cols[this.colcount * 2] = colbegin;
+        this.cols[this.colcount * 2 + 1] = colend;
+        this.colcount++;
+    }
+
+    /**
+     * バイト列のCSVデータからCSV１行分のデータを読み込み、CSVの各項目を
+     * {@link #rowbuf}及び{@link #cols}に格納します。
+     * <p>
+     * {@link #bytebuf}のバイトを{@link #readRow()}と同じ状態遷移で１度だけ調べ、
+     * 項目のバイト列を{@link #colbytes}に複写します。項目の区切りが確定した時点で
+     * {@link #endColumnBytes(boolean)}により項目のバイト列を文字に変換します。
+     * </p>
+     * @return CSV１行分のデータを読み込んだ場合はtrue、ストリームの終わりに
+     *      達していた場合はfalseを返します。
+     * @throws IOException 入力データの読み込みに失敗した場合
+     */
+    private boolean readRowBytes() throws IOException {
+        boolean inDquote = false;
+        boolean found = false;
+        boolean blank = true;
+        this.rowlen = 0;
+        this.colcount = 0;
+        this.collen = 0;
+        boolean skip = isSkipped(0);
+
+        while (this.pos < this.limit || fillBytes()) {
+            ByteBuffer bbuf = this.bytebuf;
+            if (this.skipLf) {
+                // CRの直後のLFは読み飛ばす
+                this.skipLf = false;
+                if (bbuf.get(this.pos) == '\n') {
+                    this.pos++;
+                    continue;
+                }
+            }
+            found = true;
+
+            // 「"」、カンマ、改行が見つかるまでのバイト列をまとめて項目に追加する
+            int index = this.pos;
+            int end = this.limit;
+            byte b = 0;
+            if (inDquote) {
+                while (index < end) {
+                    b = bbuf.get(index);
+                    if (b == '"' || b == '\r' || b == '\n') {
+                        break;
+                    }
+                    index++;
+                }
+            } else {
+                while (index < end) {
+                    b = bbuf.get(index);
+                    if (b == '"' || b == ',' || b == '\r' || b == '\n') {
+                        break;
+                    }
+                    index++;
+                }
+            }
+            if (index > this.pos) {
+                blank = false;
+                if (!skip) {
+                    appendBytes(bbuf, this.pos, index - this.pos);
+                }
+            }
+            this.pos = index;
+            if (index >= end) {
+                continue;
+            }
+            this.pos++;
+
+            if (b == '"') {
+                // ダブルクォートは項目に含めて、「"」の中かどうかを切り替える
+                blank = false;
+                if (!skip) {
+                    appendBytes(b);
+                }
+                inDquote = !inDquote;
+            } else if (b == ',') {
+                // カンマが見つかったら次の項目の処理を開始する
+                blank = false;
+                endColumnBytes(skip);
+                skip = isSkipped(this.colcount);
+            } else {
+                this.skipLf = b == '\r';
+                if (inDquote) {
+                    // ダブルクォートの中の改行は項目に含める
+                    if (!skip) {
+                        for (byte separator : LINE_SEPARATOR_BYTES) {
+                            appendBytes(separator);
+                        }
+                    }
+                } else {
+                    // 空行の場合は項目数０の行とする
+                    if (!blank) {
+                        endColumnBytes(skip);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        if (found) {
+            // 改行のないままストリームの終わりに達した場合
+            endColumnBytes(skip);
+        }
+        return found;
+    }
+
+    /**
+     * {@link #colbytes}のバイト列を１つのCSV項目とし、文字に変換して{@link #rowbuf}に
+     * 追加します。項目の両端がダブルクォートの場合の扱いは{@link #endColumn(int, boolean)}と
+     * 同じです。先頭からASCII文字が続く部分は{@link #decoder}を使わずに変換します。
+     * @param skip 選択されていない項目の場合はtrue。長さ０の項目として追加します。
+     */
+    private void endColumnBytes(boolean skip) {
+        if (skip) {
+            addColumn(this.rowlen, this.rowlen);
+            return;
+        }
+        byte[] bbuf = this.colbytes;
+        int length = this.collen;
+        int offset = 0;
+        if (length > 1 && bbuf[0] == '"' && bbuf[length - 1] == '"') {
+            // 開始、終了バイトが共にダブルクォートの場合
+            int dst = 0;
+            int last = length - 1;
+            for (int src = 1; src < last; src++) {
+                byte b = bbuf[src];
+                bbuf[dst++] = b;
+                if (b == '"' && src + 1 < last && bbuf[src + 1] == '"') {
+                    src++;
+                }
+            }
+            length = dst;
+        }
+
+        int colbegin = this.rowlen;
+        ensureRowCapacity(colbegin + length * this.maxCharsPerByte);
+        char[] cbuf = this.rowbuf;
+        int dst = colbegin;
+        while (offset < length && bbuf[offset] >= 0) {
+            cbuf[dst++] = (char) bbuf[offset++];
+        }
+        if (offset < length) {
+            // ASCII以外のバイトを含む場合は残りを文字セットで変換する
+            CharBuffer out = CharBuffer.wrap(cbuf, dst, cbuf.length - dst);
+            this.decoder.reset();
+            this.decoder.decode(ByteBuffer.wrap(bbuf, offset, length - offset), out, true);
+            this.decoder.flush(out);
+            dst = out.position();
+        }
+        this.rowlen = dst;
+        this.collen = 0;
+        addColumn(colbegin, dst);
+    }
+
+    /**
+     * {@link ByteBuffer}の一部を{@link #colbytes}の最後に追加します。
+     * @param src 追加するバイト列を格納したバッファ
+     * @param offset 追加するバイト列の開始位置
+     * @param length 追加するバイト数
+     */
+    private void appendBytes(ByteBuffer src, int offset, int length) {
+        ensureColumnCapacity(this.collen + length);
+        src.position(offset);
+        src.get(this.colbytes, this.collen, length);
+        this.collen += length;
+    }
+
+    /**
+     * １バイトを{@link #colbytes}の最後に追加します。
+     * @param b 追加するバイト
+     */
+    private void appendBytes(byte b) {
+        ensureColumnCapacity(this.collen + 1);
+        this.colbytes[this.collen++] = b;
+    }
+
+    /**
+     * {@link #colbytes}の容量が不足する場合は拡張します。
+     * @param required 必要なバイト数
+     */
+    private void ensureColumnCapacity(int required) {
+        if (required > this.colbytes.length) {
+            this.colbytes = Arrays.copyOf(this.colbytes, Math.max(required, this.colbytes.length * 2));
+        }
+    }
+
+    /**
+     * 文字配列の一部を{@link #rowbuf}の最後に追加します。
+     * @param src 追加する文字を格納した配列
+     * @param offset 追加する文字の開始位置
+     * @param length 追加する文字数
+     */
+    private void append(char[] src, int offset, int length) {
+        ensureRowCapacity(this.rowlen + length);
+        System.arraycopy(src, offset, this.rowbuf, this.rowlen, length);
+        this.rowlen += length;
+    }
+
+    /**
+     * １文字を{@link #rowbuf}の最後に追加します。
+     * @param c 追加する文字
+     */
+    private void append(char c) {
+        ensureRowCapacity(this.rowlen + 1);
+        this.rowbuf[this.rowlen++] = c;
+    }
+
+    /**
+     * {@link #rowbuf}の容量が不足する場合は拡張します。
+     * @param required 必要な文字数
+     */
+    private void ensureRowCapacity(int required) {
+        if (required > this.rowbuf.length) {
+            this.rowbuf = Arrays.copyOf(this.rowbuf, Math.max(required, this.rowbuf.length * 2));
+        }
+    }
+
+    /**
+     * CSVを入力する{@link Reader}から{@link #buf}に文字を読み込みます。
+     * @return 文字を読み込んだ場合はtrue、ストリームの終わりに達した場合は
+     *      falseを返します。
+     * @throws IOException 入力データの読み込みに失敗した場合
+     */
+    private boolean fill() throws IOException {
+        if (this.in == null) {
+            return false;
+        }
+        int n;
+        do {
+            n = this.in.read(this.buf, 0, this.buf.length);
+        } while (n == 0);
+        this.pos = 0;
+        this.limit = Math.max(n, 0);
+        return n > 0;
+    }
+
+    /**
+     * バイト列のCSVデータを入力する{@link InputStream}または{@link ReadableByteChannel}から
+     * {@link #bytebuf}にバイト列を読み込みます。
+     * @return バイト列を読み込んだ場合はtrue、ストリームの終わりに達した場合、
+     *      または{@link ByteBuffer}を指定して構築した場合はfalseを返します。
+     * @throws IOException 入力データの読み込みに失敗した場合
+     */
+    private boolean fillBytes() throws IOException {
+        ByteBuffer bbuf = this.bytebuf;
+        int n;
+        if (this.bytein != null) {
+            do {
+                n = this.bytein.read(bbuf.array(), bbuf.arrayOffset(), bbuf.capacity());
+            } while (n == 0);
+        } else if (this.channel != null) {
+            bbuf.clear();
+            do {
+                n = this.channel.read(bbuf);
+            } while (n == 0);
+        } else {
+            return false;
+        }
+        bbuf.clear();
+        this.pos = 0;
+        this.limit = Math.max(n, 0);
+        bbuf.limit(this.limit);
+        return n > 0;
+    }
+
+    /**
+     * {@link #rowbuf}上の現在行の項目を参照する{@link CharSequence}。
+     * 参照する項目の位置を保持し、参照先の文字は{@link #advance()}の呼び出しごとに
+     * 現在行のものに置き換わります。
+     */
+    private final class FieldView implements CharSequence {
+        /** 参照する項目の位置。 */
+        private final int index;
+
+        /**
+         * 参照する項目の位置を指定して、ビューを構築します。
+         * @param index 項目の位置
+         */
+        private FieldView(int index) {
+            this.index = index;
+        }
+
+        /**
+         * 項目の開始位置を返します。
+         * @return 項目の{@link #rowbuf}における開始位置を返します。
+         */
+        private int start() {
+            checkIndex(this.index);
+            return cols[this.index * 2];
+        }
+
+        @Override
+        public int length() {
+            checkIndex(this.index);
+            return cols[this.index * 2 + 1] - cols[this.index * 2];
+        }
+
+        @Override
+        public char charAt(int i) {
+            if (i < 0 || i >= length()) {
+                throw new IndexOutOfBoundsException("index: " + i);
+            }
+            return rowbuf[start() + i];
+        }
+
+        @Override
+        public CharSequence subSequence(int begin, int end) {
+            if (begin < 0 || begin > end || end > length()) {
+                throw new IndexOutOfBoundsException("begin: " + begin + ", end: " + end);
+            }
+            return new String(rowbuf, start() + begin, end - begin);
+        }
+
+        @Override
+        public String toString() {
+            return fieldAsString(this.index);
+        }
+    }
+}
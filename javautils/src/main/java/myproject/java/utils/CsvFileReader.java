@@ -0,0 +1,331 @@
+package myproject.java.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * CSVファイルをメモリ・マップし、ファイルを分割した範囲ごとに複数のスレッドで
+ * 並列にCSV形式のデータを読み込みます。
+ * <p>
+ * ファイルは{@link FileChannel#map(FileChannel.MapMode, long, long)}で1GBごとの領域に
+ * まとめてマップされ、指定された大きさの範囲に分割されます。分割位置は、ファイルの先頭からの「"」の
+ * 個数の偶奇（{@link CsvIterator}の「"」の中かどうかの判定と同じ）を考慮して、
+ * 「"」で囲まれていない改行の直後に調整されます。分割位置の調整と各範囲の
+ * 読み込みは、並列ストリームとして{@link java.util.concurrent.ForkJoinPool}で
+ * 実行されます。任意の{@link java.util.concurrent.ForkJoinPool}で実行する場合は、
+ * そのプールに投入したタスクの中でストリームの終端操作を実行してください。
+ * </p>
+ * <p>
+ * 「"」、カンマ、CR、LFをバイト列のまま判定するため、ASCIIの上位集合で状態を持たない
+ * 文字セット（UTF-8、ISO-8859-1、Shift_JISなど）のファイルのみ読み込むことができます。CSV形式の解釈は{@link CsvIterator}と
+ * 同じです。各範囲は{@link CsvCursor#CsvCursor(ByteBuffer, Charset)}により、文字に
+ * 変換せずにバイト列のまま読み込まれます。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.CsvFileReader;
+ * ...
+ * try (CsvFileReader reader = new CsvFileReader(
+ *         Paths.get("/path/to/csv"), StandardCharsets.UTF_8)) {
+ *     long count = reader.unorderedStream()
+ *             .filter(rowdata -&gt; rowdata.size() &gt; 3)
+ *             .count();
+ *     ...
+ * }
+ * </pre></td></tr></table>
+ */
+public class CsvFileReader implements Closeable {
+
+    /** ファイルを分割する範囲の大きさのデフォルト値（バイト数）。 */
+    public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * ファイルをまとめてマップする領域の大きさ（バイト数）。各範囲はこの領域の
+     * 一部として参照され、範囲ごとにマップすることはしません。
+     */
+    private static final long SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * 結合した範囲の大きさの上限（バイト数）。範囲は１つの{@link ByteBuffer}として
+     * 参照するため、intで表せる大きさまでとします。
+     */
+    private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+    /** ダブルクォートのバイト値。 */
+    private static final byte DQUOTE = '"';
+
+    /** CRのバイト値。 */
+    private static final byte CR = '\r';
+
+    /** LFのバイト値。 */
+    private static final byte LF = '\n';
+
+    /** CSVファイルのパス。 */
+    private Path file = null;
+
+    /** CSVファイルを読み込む{@link FileChannel}。 */
+    private FileChannel channel = null;
+
+    /** CSVファイルの文字セット。 */
+    private Charset charset = null;
+
+    /** ファイルを分割する範囲の大きさ（バイト数）。 */
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * CSVファイルのパスと文字セットを指定して、{@link #DEFAULT_CHUNK_SIZE}ごとに
+     * ファイルを分割して読み込むリーダーを構築します。
+     * @param file CSVファイルのパス
+     * @param charset CSVファイルの文字セット
+     * @throws IOException ファイルを開くことができなかった場合
+     * @throws IllegalArgumentException ASCIIの上位集合で状態を持たない文字セット
+     *      （UTF-8、ISO-8859-1、Shift_JISなど）以外を指定した場合
+     */
+    public CsvFileReader(Path file, Charset charset) throws IOException {
+        this(file, charset, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * CSVファイルのパス、文字セット及びファイルを分割する範囲の大きさを指定して、
+     * リーダーを構築します。
+     * @param file CSVファイルのパス
+     * @param charset CSVファイルの文字セット
+     * @param chunkSize ファイルを分割する範囲の大きさ（バイト数）。実際の範囲は
+     *      レコードの境界に合わせて調整されます。
+     * @throws IOException ファイルを開くことができなかった場合
+     * @throws IllegalArgumentException ASCIIの上位集合で状態を持たない文字セット
+     *      （UTF-8、ISO-8859-1、Shift_JISなど）以外を指定した場合、またはchunkSizeが０以下の場合
+     */
+    public CsvFileReader(Path file, Charset charset, int chunkSize) throws IOException {
+        CsvCursor.checkCharset(charset);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.charset = charset;
+        this.chunkSize = chunkSize;
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * CSVファイルの各行の項目を格納した{@link List}を、ファイルの先頭からの順序を
+     * 保った並列ストリームとして返します。
+     * <p>
+     * 分割された範囲ごとに１つのスレッドが読み込みを行います。順序を必要としない
+     * 集計処理では{@link #unorderedStream()}を使用してください。
+     * </p>
+     * @return CSV１行分の各項目が格納された{@link List}の並列ストリームを返します。
+     * @throws IOException ファイルのマップに失敗した場合、または改行を含まない範囲を結合した
+     *      大きさが2GBを超えた場合
+     * @throws RuntimeException ストリームの処理中に{@link IOException}が発生した場合
+     */
+    public Stream<List<String>> stream() throws IOException {
+        long size = this.channel.size();
+        MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = i * SEGMENT_SIZE;
+            segments[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(SEGMENT_SIZE, size - start));
+        }
+        long[] bounds = boundaries(segments, size);
+        return IntStream.range(0, bounds.length - 1).parallel().boxed()
+                .flatMap(k -> readChunk(region(segments, bounds[k], bounds[k + 1])).stream());
+    }
+
+    /**
+     * CSVファイルの各行の項目を格納した{@link List}を、順序を保証しない並列
+     * ストリームとして返します。
+     * @return CSV１行分の各項目が格納された{@link List}の並列ストリームを返します。
+     * @throws IOException ファイルのマップに失敗した場合、または改行を含まない範囲を結合した
+     *      大きさが2GBを超えた場合
+     * @throws RuntimeException ストリームの処理中に{@link IOException}が発生した場合
+     */
+    public Stream<List<String>> unorderedStream() throws IOException {
+        return stream().unordered();
+    }
+
+    /**
+     * CSVファイルを閉じます。
+     * @throws IOException ファイルを閉じることができなかった場合
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * ファイルを分割する範囲の境界の位置を求めます。
+     * <p>
+     * ファイルを{@link #chunkSize}ごとの範囲に分け、各範囲の「"」の個数の偶奇と、
+     * 範囲の先頭が「"」の外の場合と中の場合のそれぞれについて最初の改行の直後の
+     * 位置を並列に求めます。その後、先頭の範囲から順に「"」の個数の偶奇を累積して
+     * 各範囲の先頭が「"」の中かどうかを決定し、境界の位置を選択します。改行が
+     * 見つからない範囲は直前の範囲と結合されます。
+     * </p>
+     * @param segments ファイルをマップした領域
+     * @param size ファイルの大きさ
+     * @return 境界の位置の配列を返します。最初の要素は０、最後の要素はファイルの
+     *      大きさです。
+     * @throws IOException 結合した範囲の大きさが{@link #MAX_REGION_SIZE}を超えた場合
+     */
+    private long[] boundaries(MappedByteBuffer[] segments, long size) throws IOException {
+        int count = (int) ((size + this.chunkSize - 1) / this.chunkSize);
+        if (count == 0) {
+            return new long[] {0};
+        }
+
+        long[][] scans = IntStream.range(0, count).parallel()
+                .mapToObj(k -> scanChunk(segments, (long) k * this.chunkSize, size))
+                .toArray(long[][]::new);
+
+        long[] bounds = new long[count + 1];
+        int n = 0;
+        bounds[n++] = 0;
+        int parity = 0;
+        for (int k = 0; k < count; k++) {
+            if (k > 0) {
+                long bound = scans[k][1 + parity];
+                if (bound > bounds[n - 1] && bound < size) {
+                    checkRegionSize(bounds[n - 1], bound);
+                    bounds[n++] = bound;
+                }
+            }
+            parity ^= (int) scans[k][0];
+        }
+        checkRegionSize(bounds[n - 1], size);
+        bounds[n++] = size;
+        return Arrays.copyOf(bounds, n);
+    }
+
+    /**
+     * 結合した範囲の大きさが{@link #MAX_REGION_SIZE}以下であることを確認します。
+     * @param start 範囲の開始位置
+     * @param end 範囲の終了位置
+     * @throws IOException 範囲の大きさが{@link #MAX_REGION_SIZE}を超えた場合
+     */
+    private void checkRegionSize(long start, long end) throws IOException {
+        if (end - start > MAX_REGION_SIZE) {
+            throw new IOException("CSV record larger than 2GB at offset " + start + " in " + this.file);
+        }
+    }
+
+    /**
+     * ファイルの１つの範囲を走査して、「"」の個数の偶奇と最初の改行の直後の
+     * 位置を求めます。
+     * @param segments ファイルをマップした領域
+     * @param start 範囲の開始位置
+     * @param size ファイルの大きさ
+     * @return [0]に「"」の個数の偶奇、[1]に範囲の先頭が「"」の外の場合の最初の
+     *      改行の直後の位置、[2]に範囲の先頭が「"」の中の場合の最初の改行の直後の
+     *      位置を格納した配列を返します。改行が見つからない場合は-1を格納します。
+     */
+    private long[] scanChunk(MappedByteBuffer[] segments, long start, long size) {
+        int length = (int) Math.min(this.chunkSize, size - start);
+        // CRの次のLFを確認するために１バイト余分に参照する
+        ByteBuffer buf = region(segments, start, Math.min(start + length + 1L, size));
+        long[] result = {0, -1, -1};
+        int quotes = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = buf.get(i);
+            if (b == DQUOTE) {
+                quotes ^= 1;
+            } else if (b == CR || b == LF) {
+                // 範囲の先頭が「"」の外の場合、ここまでの「"」が偶数個であれば「"」の外
+                int slot = 1 + quotes;
+                if (result[slot] < 0) {
+                    int next = i + 1;
+                    if (b == CR && next < buf.limit() && buf.get(next) == LF) {
+                        next++;
+                    }
+                    result[slot] = start + next;
+                    if (result[1] >= 0 && result[2] >= 0) {
+                        // 以降は「"」の個数の偶奇のみ数える
+                        quotes ^= countQuotes(buf, next, length) & 1;
+                        break;
+                    }
+                }
+            }
+        }
+        result[0] = quotes;
+        return result;
+    }
+
+    /**
+     * バッファの範囲に含まれる「"」の個数を数えます。
+     * @param buf バッファ
+     * @param from 開始位置
+     * @param to 終了位置
+     * @return 「"」の個数を返します。
+     */
+    private static int countQuotes(ByteBuffer buf, int from, int to) {
+        int quotes = 0;
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == DQUOTE) {
+                quotes++;
+            }
+        }
+        return quotes;
+    }
+
+    /**
+     * ファイルの範囲を参照する{@link ByteBuffer}を返します。範囲が１つの領域に
+     * 含まれる場合はその領域の一部を返し、領域の境界をまたぐ場合は範囲をマップします。
+     * @param segments ファイルをマップした領域
+     * @param start 範囲の開始位置
+     * @param end 範囲の終了位置
+     * @return 範囲を参照する{@link ByteBuffer}を返します。
+     * @throws RuntimeException 内部で{@link IOException}が発生した場合
+     */
+    private ByteBuffer region(MappedByteBuffer[] segments, long start, long end) {
+        int index = (int) (start / SEGMENT_SIZE);
+        long base = index * SEGMENT_SIZE;
+        if (end <= base + SEGMENT_SIZE) {
+            ByteBuffer buf = segments[index].duplicate();
+            buf.limit((int) (end - base)).position((int) (start - base));
+            return buf.slice();
+        }
+        try {
+            return this.channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException ie) {
+            throw new RuntimeException(ie);
+        }
+    }
+
+    /**
+     * ファイルの１つの範囲からCSV形式のデータを読み込みます。
+     * @param buf 範囲を参照する{@link ByteBuffer}
+     * @return 範囲に含まれるCSV各行の項目を格納した{@link List}を返します。
+     * @throws RuntimeException 内部で{@link IOException}が発生した場合
+     */
+    private List<List<String>> readChunk(ByteBuffer buf) {
+        try {
+            List<List<String>> rows = new ArrayList<List<String>>();
+            CsvCursor cursor = new CsvCursor(buf, this.charset);
+            while (cursor.advance()) {
+                int count = cursor.fieldCount();
+                List<String> rowdata = new ArrayList<String>(count);
+                for (int i = 0; i < count; i++) {
+                    rowdata.add(cursor.fieldAsString(i));
+                }
+                rows.add(rowdata);
+            }
+            return rows;
+        } catch (IOException ie) {
+            throw new RuntimeException(ie);
+        }
+    }
+}
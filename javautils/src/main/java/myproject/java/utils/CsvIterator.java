@@ -1,11 +1,19 @@
 package myproject.java.utils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * ストリームからCSV形式のデータを読み取り、CSV１行分のデータを返すイテレータを
@@ -41,18 +49,29 @@ import java.util.List;
  */
 public class CsvIterator implements Iterable<List<String>>, Iterator<List<String>> {
 
+    /** {@link Spliterator#trySplit()}で分割する行数の増分。 */
+    private static final int BATCH_UNIT = 1 << 10;
+
+    /** {@link Spliterator#trySplit()}で分割する行数の最大値。 */
+    private static final int MAX_BATCH = 1 << 25;
+
     /**
      * CSVデータを読み込むために、コンストラクタから渡された{@link Reader}より
-     * 作成された{@link BufferedReader}のインスタンス。
+     * 作成された{@link CsvCursor}のインスタンス。
+     */
+    private CsvCursor cursor = null;
+
+    /**
+     * {@link #hasNext()}で先読みしたCSV１行分のデータが{@link #cursor}の
+     * 現在行に保持されている場合にtrueとなります。
      */
-    private BufferedReader linein = null;
+    private boolean prefetched = false;
 
     /**
-     * {@link #hasNext()}でストリームの最後かどうかを確認するために先読みした
-     * １行の文字列を保持します。読み込んだ結果を保持しない場合はnullが 設定
-     * されます。
+     * {@link #next()}で返す項目の位置を、返す順に格納します。全ての項目を返す場合は
+     * nullです。
      */
-    private String strbuf = null;
+    private int[] columns = null;
 
     /**
      * CSV形式のデータを入力する{@link Reader}を指定して、CSV１行分のデータを
@@ -60,7 +79,50 @@ public class CsvIterator implements Iterable<List<String>>, Iterator<List<String
      * @param in CSV形式のデータを入力する{@link Reader}
      */
     public CsvIterator(Reader in) {
-        this.linein = new BufferedReader(in);
+        this.cursor = new CsvCursor(in);
+    }
+
+    /**
+     * CSV形式のデータを入力する{@link InputStream}と文字セットを指定して、CSV１行分の
+     * データを返すイテレータを構築します。
+     * <p>
+     * {@link Reader}で文字に変換せずにバイト列のまま区切り文字を判定し、項目ごとに
+     * 文字に変換します。指定できる文字セットは{@link CsvCursor}を参照してください。
+     * </p>
+     * @param in CSV形式のデータを入力する{@link InputStream}
+     * @param charset CSV形式のデータの文字セット
+     * @throws IllegalArgumentException 「"」、カンマ、CR、LFを１バイトのASCIIコードで
+     *      符号化しない文字セットを指定した場合
+     */
+    public CsvIterator(InputStream in, Charset charset) {
+        this.cursor = new CsvCursor(in, charset);
+    }
+
+    /**
+     * CSV形式のデータを入力する{@link ReadableByteChannel}と文字セットを指定して、
+     * CSV１行分のデータを返すイテレータを構築します。
+     * @param in CSV形式のデータを入力する{@link ReadableByteChannel}
+     * @param charset CSV形式のデータの文字セット
+     * @throws IllegalArgumentException 「"」、カンマ、CR、LFを１バイトのASCIIコードで
+     *      符号化しない文字セットを指定した場合
+     * @see #CsvIterator(InputStream, Charset)
+     */
+    public CsvIterator(ReadableByteChannel in, Charset charset) {
+        this.cursor = new CsvCursor(in, charset);
+    }
+
+    /**
+     * CSV形式のデータを保持する{@link ByteBuffer}と文字セットを指定して、CSV１行分の
+     * データを返すイテレータを構築します。{@link ByteBuffer}の現在位置から上限までを
+     * 読み込みます。
+     * @param in CSV形式のデータを保持する{@link ByteBuffer}
+     * @param charset CSV形式のデータの文字セット
+     * @throws IllegalArgumentException 「"」、カンマ、CR、LFを１バイトのASCIIコードで
+     *      符号化しない文字セットを指定した場合
+     * @see #CsvIterator(InputStream, Charset)
+     */
+    public CsvIterator(ByteBuffer in, Charset charset) {
+        this.cursor = new CsvCursor(in, charset);
     }
 
     /**
@@ -69,6 +131,60 @@ public class CsvIterator implements Iterable<List<String>>, Iterator<List<String
      */
     protected CsvIterator() { }
 
+    /**
+     * {@link #next()}で返す項目を位置で選択します。
+     * <p>
+     * 選択されていない項目は{@link String}の生成や「"」のエスケープの除去を行わずに
+     * 読み飛ばされ、{@link #next()}は選択された項目のみを指定した順に格納した
+     * {@link List}を返します。行に存在しない位置の項目はnullとなります。
+     * </p>
+     * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+     * for (List&lt;String&gt; rowdata: new CsvIterator(in).select(0, 5, 7)) {
+     *     // rowdata.get(1)は６番目の項目
+     *     ...
+     * }
+     * </pre></td></tr></table>
+     * @param indexes 選択する項目の位置（０から始まる）。nullを指定すると全ての
+     *      項目を返します。
+     * @return このイテレータを返します。
+     * @throws IllegalArgumentException 負の位置を指定した場合
+     */
+    public CsvIterator select(int... indexes) {
+        this.cursor.select(indexes);
+        this.columns = indexes != null ? indexes.clone() : null;
+        return this;
+    }
+
+    /**
+     * 次の行をヘッダ行として読み込み、{@link #next()}で返す項目をヘッダ行の
+     * 項目名で選択します。選択された項目の扱いは{@link #select(int...)}と同じです。
+     * @param names 選択する項目のヘッダ行における名前
+     * @return このイテレータを返します。
+     * @throws IllegalArgumentException ヘッダ行に存在しない名前を指定した場合、
+     *      またはヘッダ行が存在しない場合
+     * @throws RuntimeException 内部で{@link IOException}が発生した場合。
+     */
+    public CsvIterator selectByHeader(String... names) {
+        if (!hasNext()) {
+            throw new IllegalArgumentException("header row not found");
+        }
+        this.prefetched = false;
+        int[] indexes = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            indexes[i] = -1;
+            for (int j = 0; j < this.cursor.fieldCount(); j++) {
+                if (names[i].contentEquals(this.cursor.field(j))) {
+                    indexes[i] = j;
+                    break;
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("column not found: " + names[i]);
+            }
+        }
+        return select(indexes);
+    }
+
     /**
      * CSV１行分のCSV項目を格納知った{@link List}のイテレータを返します。
      */
@@ -77,13 +193,51 @@ public class CsvIterator implements Iterable<List<String>>, Iterator<List<String
         return this;
     }
 
+    /**
+     * CSV１行分のCSV項目を格納した{@link List}の{@link Spliterator}を返します。
+     * <p>
+     * 返される{@link Spliterator}は{@link Spliterator#trySplit()}が呼び出されるたびに、
+     * このイテレータから1024行ずつ増加する行数（最大2<sup>25</sup>行）を
+     * 読み込んで配列に格納し、その配列の{@link Spliterator}を返します。CSVの読み込みは
+     * 呼び出し元のスレッドで順に行われ、分割された行に対する処理は並列に実行できます。
+     * </p>
+     * @return {@link Spliterator#ORDERED}及び{@link Spliterator#NONNULL}の特性を持つ
+     *      {@link Spliterator}を返します。
+     */
+    @Override
+    public Spliterator<List<String>> spliterator() {
+        return new CsvSpliterator(this);
+    }
+
+    /**
+     * CSV１行分のCSV項目を格納した{@link List}の順次ストリームを返します。
+     * ストリームはこのイテレータの残りの行を読み込みます。
+     * @return CSV１行分の各項目が格納された{@link List}のストリームを返します。
+     */
+    public Stream<List<String>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * CSV１行分のCSV項目を格納した{@link List}の並列ストリームを返します。
+     * <p>
+     * CSVの読み込みは順に行われ、読み込んだ行を{@link #spliterator()}の分割単位ごとに
+     * 並列に処理します。行ごとの検証や変換など、読み込みに比べて重い処理を複数の
+     * CPUコアで実行する場合に使用してください。
+     * </p>
+     * @return CSV１行分の各項目が格納された{@link List}の並列ストリームを返します。
+     */
+    public Stream<List<String>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     /**
      * 反復処理で更にに要素がある場合にtrueを返します。
      * つまり、next()が例外をスローするのではなく要素を返す場合は、trueを
      * 返します。
-     * このメソッドを呼び出すと、コンストラクタから渡された{@link Reader}の
-     * {@link Reader#read()}メソッドを呼び出し、-1が返された場合はfalseを
-     * 返します。そうでない場合は、{@link #strbuf}に読み込んだ文字を追加して
+     * このメソッドを呼び出すと、コンストラクタから渡された{@link Reader}から
+     * CSV１行分のデータを先読みし、ストリームの終わりに達していた場合は
+     * falseを返します。そうでない場合は、読み込んだデータを保持して
      * trueを返します。
      *
      * @return 次の要素がある場合はtrue、そうでない場合はfalseを返します。
@@ -92,13 +246,10 @@ public class CsvIterator implements Iterable<List<String>>, Iterator<List<String
     @Override
     public boolean hasNext() {
         try {
-            if (this.strbuf == null) {
-                this.strbuf = this.linein.readLine();
-            }
-            if (this.strbuf == null) {
-                return false;
+            if (!this.prefetched && this.cursor != null) {
+                this.prefetched = this.cursor.advance();
             }
-            return true;
+            return this.prefetched;
         } catch (IOException ie) {
             throw new RuntimeException(ie);
         }
@@ -134,126 +285,83 @@ public class CsvIterator implements Iterable<List<String>>, Iterator<List<String
      */
     @Override
     public List<String> next() {
-        try {
-            List<String> line = readCsv(this.linein);
-            return line;
-        } catch (IOException ie) {
-            throw new RuntimeException(ie);
+        if (!hasNext()) {
+            return new ArrayList<String>();
         }
+        this.prefetched = false;
+        int count = this.cursor.fieldCount();
+        if (this.columns != null) {
+            List<String> rowdata = new ArrayList<String>(this.columns.length);
+            for (int index : this.columns) {
+                rowdata.add(index < count ? this.cursor.fieldAsString(index) : null);
+            }
+            return rowdata;
+        }
+        List<String> rowdata = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            rowdata.add(this.cursor.fieldAsString(i));
+        }
+        return rowdata;
     }
 
     /**
-     * {@link BufferedReader}からCSV１行分のデータを読み込み、CSVの各項目を
-     * ｛@link List}に格納して返します。
-     * <p></p>
-     * @param in CSV
-     * @return CSVの各項目を格納した{@link List}を返します。
-     * @throws IOException 入力データの読み込みに失敗した場合
+     * {@link CsvIterator}から読み込んだ行を、呼び出しごとに増加する行数の配列に
+     * まとめて分割する{@link Spliterator}。
      */
-    private List<String> readCsv(BufferedReader in) throws IOException {
-        boolean continueReading = true;
-        boolean inDquote = false;
-        List<String> rowdata = new ArrayList<String>();
-        // CSV項目の初期化する
-        StringBuilder csvcol = new StringBuilder();
+    private static final class CsvSpliterator implements Spliterator<List<String>> {
+        /** 行を読み込むイテレータ。 */
+        private final CsvIterator iterator;
 
-        while (continueReading) {
-            String line = readLine();
-            if (line == null) {
-                if (csvcol.length() > 0) {
-                    rowdata.add(trimDoubleQuote(csvcol.toString()));
-                }
-                break;
-            } else if (!inDquote && line.length() == 0) {
-                break;
+        /** 前回の{@link #trySplit()}で分割した行数。 */
+        private int batch = 0;
+
+        /**
+         * 行を読み込むイテレータを指定して、{@link Spliterator}を構築します。
+         * @param iterator 行を読み込むイテレータ
+         */
+        private CsvSpliterator(CsvIterator iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<String>> action) {
+            if (!this.iterator.hasNext()) {
+                return false;
             }
-            int index = 0;
-            // １行の文字列を順に調べる
-            while (index < line.length()) {
-                // ダブルクォートの中である場合
-                if (inDquote) {
-                    // 次のダブルクォートの出現位置を取得
-                    int dqidx = line.indexOf('"', index);
-                    // 次のダブルクォートが見つからない場合は改行を含む行末までの
-                    // 文字列をセルの文字に追加して、次の行を読み込む
-                    if (dqidx < 0) {
-                        csvcol.append(line.substring(index));
-                        index = line.length();
-                    } else {
-                        // 次のダブルクォートの文字が見つかったらそこまでの文字列をセルの
-                        // 文字に追加して、それ以降の文字を処理する
-                        csvcol.append(line.substring(index, dqidx + 1));
-                        index = dqidx + 1;
-                        inDquote = false;
-                    }
-                } else {
-                    // 次のダブルクォート、カンマの出現位置を取得
-                    int dqidx = line.indexOf('"', index);
-                    int cmidx = line.indexOf(',', index);
-                    if (dqidx >= 0 && (cmidx < 0 || dqidx < cmidx)) {
-                        // ダブルクォートの前にコンマが存在しない場合
-                        // ダブルクォートまでをセルの文字列に追加する
-                        csvcol.append(line.substring(index, dqidx + 1));
-                        inDquote = true;
-                        index = dqidx + 1;
-                    } else if (cmidx >= 0) {
-                        // コンマの前にダブルクォートが存在しない場合
-                        // コンマの前までの文字列をセルの文字列に追加し、次のセルの処理を開始
-                        csvcol.append(line.substring(index, cmidx));
-                        rowdata.add(trimDoubleQuote(csvcol.toString()));
-                        csvcol.delete(0, csvcol.length());
-                        index = cmidx + 1;
-                    } else {
-                        // コンマもダブルクォートも存在しない場合
-                        // 行末までの文字をセルの文字列に追加し、１行分のCSVデータを返す
-                        csvcol.append(line.substring(index));
-                        index = line.length();
-                    }
-                }
-                if (index >= line.length() && inDquote) {
-                    csvcol.append(System.lineSeparator());
-                } else if (index >= line.length()) {
-                    rowdata.add(trimDoubleQuote(csvcol.toString()));
-                    continueReading = false;
-                }
+            action.accept(this.iterator.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super List<String>> action) {
+            while (this.iterator.hasNext()) {
+                action.accept(this.iterator.next());
             }
         }
-        return rowdata;
-    }
 
-    /**
-     * 文字列の両端がダブルクォートの場合、両端のダブルクォートを削除して
-     * 更に「""」を「"」に置換します。
-     * @param str 変換元の文字列
-     * @return 変換結果の文字列を返します。
-     */
-    private String trimDoubleQuote(String str) {
-        String replaced = str;
-        if (str != null && str.length() > 1 && str.charAt(0) == '"'
-                && str.charAt(str.length() - 1) == '"') {
-            // 文字列の開始、終了文字が共にダブルクォートの場合
-            replaced = str.substring(1, str.length() - 1);
-            replaced = replaced.replace("\"\"", "\"");
+        @Override
+        public Spliterator<List<String>> trySplit() {
+            if (!this.iterator.hasNext()) {
+                return null;
+            }
+            int n = Math.min(this.batch + BATCH_UNIT, MAX_BATCH);
+            Object[] rows = new Object[n];
+            int j = 0;
+            do {
+                rows[j++] = this.iterator.next();
+            } while (j < n && this.iterator.hasNext());
+            this.batch = j;
+            return Spliterators.spliterator(rows, 0, j, characteristics());
         }
-        return replaced;
-    }
 
-    /**
-     * CSVを入力する{@link Reader}から１行を読み込みます。
-     *
-     * {@link #hasNext()}で先読みした１行の文字列があればそれを帰します。
-     * 先読みしたデータがなければCSVを入力する{@link Reader}から１行を読み込み
-     * その文字列を帰します。
-     * @return CSVを入力する[@link Reader}から読み込んだ１行の文字列を帰します。
-     *      返却される文字列に改行は含みません。
-     * @throws IOException
-     */
-    private String readLine() throws IOException {
-        String line = this.strbuf;
-        if (line == null) {
-            line = this.linein.readLine();
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.NONNULL;
         }
-        this.strbuf = null;
-        return line;
     }
 }
@@ -0,0 +1,433 @@
+package myproject.java.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * {@link CsvCursor}の現在行を、列ごとに型を決めたレコードに変換します。
+ * <p>
+ * 変換に必要な情報（値を設定するsetterメソッドまたはフィールドの
+ * {@link MethodHandle}、列の型に応じた値の変換処理）は、{@link #forClass(Class, String...)}
+ * または{@link #forTypes(Class...)}でスキーマを作成する時に１度だけ解決されます。
+ * 数値、真偽値、日付の列は{@link CsvCursor#field(int)}のビューから直接変換され、
+ * 中間の{@link String}は生成されません。
+ * </p>
+ * <p>
+ * 変換できる型は以下のとおりです。長さ０の項目は、プリミティブ型の場合は値を設定せず、
+ * それ以外の型の場合はnullとします。
+ * </p>
+ * <ul>
+ * <li>{@link String}</li>
+ * <li>int、long、double、boolean及びそのラッパークラス</li>
+ * <li>{@link BigDecimal}</li>
+ * <li>{@link LocalDate}（ISO-8601形式。例：2020-01-31）</li>
+ * <li>{@link LocalDateTime}（ISO-8601形式。例：2020-01-31T23:59:59）</li>
+ * <li>列挙型（定数名）</li>
+ * </ul>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.CsvCursor;
+ * import myproject.java.utils.CsvMapper;
+ * ...
+ * // １列目をidフィールド、３列目をpriceフィールドに設定する（２列目は読み飛ばす）
+ * CsvMapper&lt;Item&gt; mapper = CsvMapper.forClass(Item.class, "id", null, "price");
+ * CsvCursor cursor = new CsvCursor(in);
+ * while (cursor.advance()) {
+ *     Item item = mapper.map(cursor);
+ *     ...
+ * }
+ * </pre></td></tr></table>
+ *
+ * @param <T> レコードの型
+ */
+public class CsvMapper<T> {
+
+    /**
+     * CSV項目の値をレコードに設定する処理。
+     */
+    private interface Binder {
+        /**
+         * 現在行の項目の値をレコードに設定します。
+         * @param target レコード
+         * @param cursor カーソル
+         * @param index 項目の位置
+         * @throws Throwable 値の変換または設定に失敗した場合
+         */
+        void bind(Object target, CsvCursor cursor, int index) throws Throwable;
+    }
+
+    /**
+     * CSV項目の値を変換する処理。
+     */
+    private interface Parser {
+        /**
+         * 現在行の項目の値を変換します。
+         * @param cursor カーソル
+         * @param index 項目の位置
+         * @return 変換した値を返します。
+         */
+        Object parse(CsvCursor cursor, int index);
+    }
+
+    /** 日付の年の桁数。年と月の区切りの「-」の位置。 */
+    private static final int YEAR_DIGITS = 4;
+
+    /** ISO-8601形式の日付の、月の開始位置。 */
+    private static final int MONTH_START = 5;
+
+    /** ISO-8601形式の日付の、月の終了位置。月と日の区切りの「-」の位置。 */
+    private static final int MONTH_END = 7;
+
+    /** ISO-8601形式の日付の、日の開始位置。 */
+    private static final int DAY_START = 8;
+
+    /** ISO-8601形式の日付の文字数。日時の日付と時刻の区切りの「T」の位置。 */
+    private static final int DATE_LENGTH = 10;
+
+    /** ISO-8601形式の日時の、時の開始位置。 */
+    private static final int HOUR_START = 11;
+
+    /** ISO-8601形式の日時の、時の終了位置。時と分の区切りの「:」の位置。 */
+    private static final int HOUR_END = 13;
+
+    /** ISO-8601形式の日時の、分の開始位置。 */
+    private static final int MINUTE_START = 14;
+
+    /** ISO-8601形式の日時の、分の終了位置。分と秒の区切りの「:」の位置。 */
+    private static final int MINUTE_END = 16;
+
+    /** ISO-8601形式の日時の、秒の開始位置。 */
+    private static final int SECOND_START = 17;
+
+    /** ISO-8601形式の日時の文字数。 */
+    private static final int DATE_TIME_LENGTH = 19;
+
+    /** どの月にも存在する日の最大値。 */
+    private static final int MIN_DAYS_OF_MONTH = 28;
+
+    /** 月の最大値。 */
+    private static final int MAX_MONTH = 12;
+
+    /** 時の最大値。 */
+    private static final int MAX_HOUR = 23;
+
+    /** 分、秒の最大値。 */
+    private static final int MAX_MINUTE = 59;
+
+    /** レコードのインスタンスを生成する、引数なしで{@link Object}を返す{@link MethodHandle}。 */
+    private final MethodHandle factory;
+
+    /** CSV項目の位置ごとの値の設定処理。値を設定しない項目はnullです。 */
+    private final Binder[] binders;
+
+    /**
+     * レコードの生成処理と項目ごとの値の設定処理を指定して、インスタンスを構築します。
+     * @param factory レコードのインスタンスを生成する{@link MethodHandle}
+     * @param binders CSV項目の位置ごとの値の設定処理
+     */
+    private CsvMapper(MethodHandle factory, Binder[] binders) {
+        this.factory = factory;
+        this.binders = binders;
+    }
+
+    /**
+     * レコードのクラスと、CSV項目の位置ごとに値を設定するフィールド名を指定して、
+     * スキーマを作成します。
+     * <p>
+     * フィールドは{@link ClassUtils#findField(Class, String, int)}で検索し、
+     * 「set」＋フィールド名（先頭は大文字）のpublicなsetterメソッドが
+     * {@link ClassUtils#tryFindMethod(Class, String, Class[], int)}で見つかった場合は
+     * そのメソッドで、見つからなかった場合はフィールドに直接値を設定します。
+     * レコードのクラスには引数なしのコンストラクタが必要です。
+     * </p>
+     * @param <T> レコードの型
+     * @param type レコードのクラス
+     * @param columns CSV項目の位置ごとのフィールド名。値を設定しない項目はnullを指定します。
+     * @return 作成したスキーマを返します。
+     * @throws ReflectiveOperationException フィールドまたは引数なしのコンストラクタが
+     *      見つからない場合、またはアクセスできない場合
+     * @throws IllegalArgumentException 変換できない型のフィールドを指定した場合
+     */
+    public static <T> CsvMapper<T> forClass(Class<T> type, String... columns)
+            throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Constructor<T> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        MethodHandle factory = lookup.unreflectConstructor(constructor)
+                .asType(MethodType.methodType(Object.class));
+
+        Binder[] binders = new Binder[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] != null) {
+                binders[i] = binder(setter(lookup, type, columns[i]));
+            }
+        }
+        return new CsvMapper<T>(factory, binders);
+    }
+
+    /**
+     * CSV項目の位置ごとの型を指定して、項目の値を変換した配列をレコードとする
+     * スキーマを作成します。プリミティブ型を指定した場合は、そのラッパークラスの
+     * 値を配列に格納します。
+     * @param types CSV項目の位置ごとの型。値を変換しない項目はnullを指定します。
+     * @return 作成したスキーマを返します。
+     * @throws IllegalArgumentException 変換できない型を指定した場合
+     */
+    public static CsvMapper<Object[]> forTypes(Class<?>... types) {
+        MethodHandle factory = MethodHandles.insertArguments(
+                MethodHandles.arrayConstructor(Object[].class), 0, types.length)
+                .asType(MethodType.methodType(Object.class));
+
+        Binder[] binders = new Binder[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] != null) {
+                Parser parser = parser(types[i]);
+                binders[i] = (target, cursor, index) -> ((Object[]) target)[index] = parser.parse(cursor, index);
+            }
+        }
+        return new CsvMapper<Object[]>(factory, binders);
+    }
+
+    /**
+     * {@link CsvCursor}の現在行をレコードに変換します。現在行に存在しない項目の値は
+     * 設定しません。
+     * @param cursor カーソル
+     * @return 変換したレコードを返します。
+     * @throws NumberFormatException 数値の項目を変換できない場合
+     * @throws java.time.format.DateTimeParseException 日付の項目を変換できない場合
+     * @throws IllegalArgumentException 列挙型の項目に定数名以外の値が指定されている場合
+     * @throws RuntimeException レコードの生成または値の設定で例外が発生した場合
+     */
+    @SuppressWarnings("unchecked")
+    public T map(CsvCursor cursor) {
+        try {
+            Object target = this.factory.invokeExact();
+            int count = Math.min(this.binders.length, cursor.fieldCount());
+            for (int i = 0; i < count; i++) {
+                Binder binder = this.binders[i];
+                if (binder != null) {
+                    binder.bind(target, cursor, i);
+                }
+            }
+            return (T) target;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * フィールドに値を設定する{@link MethodHandle}を取得します。publicなsetterメソッドが
+     * ある場合はそのメソッド、ない場合はフィールドのsetterを返します。
+     * @param lookup {@link MethodHandle}を取得する{@link MethodHandles.Lookup}
+     * @param type レコードのクラス
+     * @param name フィールド名
+     * @return (レコード, 値)を引数とする{@link MethodHandle}を返します。
+     * @throws ReflectiveOperationException フィールドが見つからない場合、または
+     *      アクセスできない場合
+     */
+    private static MethodHandle setter(MethodHandles.Lookup lookup, Class<?> type, String name)
+            throws ReflectiveOperationException {
+        Field field = ClassUtils.findField(type, name, -1);
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        Optional<Method> method = ClassUtils.tryFindMethod(type, setterName, new Class<?>[] {field.getType()},
+                Modifier.PUBLIC);
+        if (method.isPresent()) {
+            method.get().setAccessible(true);
+            return lookup.unreflect(method.get());
+        }
+        field.setAccessible(true);
+        return lookup.unreflectSetter(field);
+    }
+
+    /**
+     * setterの引数の型に応じて、CSV項目の値を変換して設定する処理を作成します。
+     * プリミティブ型の場合はボクシングせずに値を設定します。
+     * @param setter (レコード, 値)を引数とする{@link MethodHandle}
+     * @return 値を設定する処理を返します。
+     * @throws IllegalArgumentException 変換できない型の場合
+     */
+    private static Binder binder(MethodHandle setter) {
+        Class<?> valueType = setter.type().parameterType(1);
+        if (valueType == int.class) {
+            MethodHandle h = setter.asType(MethodType.methodType(void.class, Object.class, int.class));
+            return (target, cursor, index) -> {
+                if (cursor.field(index).length() > 0) {
+                    h.invokeExact(target, cursor.fieldAsInt(index));
+                }
+            };
+        } else if (valueType == long.class) {
+            MethodHandle h = setter.asType(MethodType.methodType(void.class, Object.class, long.class));
+            return (target, cursor, index) -> {
+                if (cursor.field(index).length() > 0) {
+                    h.invokeExact(target, cursor.fieldAsLong(index));
+                }
+            };
+        } else if (valueType == double.class) {
+            MethodHandle h = setter.asType(MethodType.methodType(void.class, Object.class, double.class));
+            return (target, cursor, index) -> {
+                if (cursor.field(index).length() > 0) {
+                    h.invokeExact(target, cursor.fieldAsDouble(index));
+                }
+            };
+        } else if (valueType == boolean.class) {
+            MethodHandle h = setter.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+            return (target, cursor, index) -> {
+                if (cursor.field(index).length() > 0) {
+                    h.invokeExact(target, parseBoolean(cursor.field(index)));
+                }
+            };
+        }
+        Parser parser = parser(valueType);
+        MethodHandle h = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (target, cursor, index) -> {
+            h.invokeExact(target, parser.parse(cursor, index));
+        };
+    }
+
+    /**
+     * 型に応じて、CSV項目の値を変換する処理を作成します。長さ０の項目はnullに変換します。
+     * @param type 変換後の型
+     * @return 値を変換する処理を返します。
+     * @throws IllegalArgumentException 変換できない型の場合
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Parser parser(Class<?> type) {
+        Parser parser;
+        if (type == String.class) {
+            return (cursor, index) -> cursor.fieldAsString(index);
+        } else if (type == int.class || type == Integer.class) {
+            parser = (cursor, index) -> cursor.fieldAsInt(index);
+        } else if (type == long.class || type == Long.class) {
+            parser = (cursor, index) -> cursor.fieldAsLong(index);
+        } else if (type == double.class || type == Double.class) {
+            parser = (cursor, index) -> cursor.fieldAsDouble(index);
+        } else if (type == boolean.class || type == Boolean.class) {
+            parser = (cursor, index) -> parseBoolean(cursor.field(index));
+        } else if (type == BigDecimal.class) {
+            parser = (cursor, index) -> new BigDecimal(cursor.fieldAsString(index));
+        } else if (type == LocalDate.class) {
+            parser = (cursor, index) -> parseDate(cursor.field(index));
+        } else if (type == LocalDateTime.class) {
+            parser = (cursor, index) -> parseDateTime(cursor.field(index));
+        } else if (type.isEnum()) {
+            Class<? extends Enum> enumType = (Class<? extends Enum>) type;
+            parser = (cursor, index) -> Enum.valueOf(enumType, cursor.fieldAsString(index));
+        } else {
+            throw new IllegalArgumentException("Unsupported type: " + type.getName());
+        }
+        Parser nonEmpty = parser;
+        return (cursor, index) -> cursor.field(index).length() > 0 ? nonEmpty.parse(cursor, index) : null;
+    }
+
+    /**
+     * 文字列を{@link Boolean#parseBoolean(String)}と同じ規則で真偽値に変換します。
+     * @param value 変換する文字列
+     * @return 大文字小文字を区別せずに「true」と等しい場合はtrueを返します。
+     */
+    private static boolean parseBoolean(CharSequence value) {
+        String expected = "true";
+        if (value.length() != expected.length()) {
+            return false;
+        }
+        for (int i = 0; i < expected.length(); i++) {
+            if (Character.toLowerCase(value.charAt(i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * ISO-8601形式の日付を変換します。「yyyy-MM-dd」の形式で日が28以下の場合は
+     * 文字列から直接変換し、それ以外の場合は{@link LocalDate#parse(CharSequence)}で
+     * 変換します。
+     * @param value 変換する文字列
+     * @return 変換した日付を返します。
+     * @throws java.time.format.DateTimeParseException 日付に変換できない場合
+     */
+    private static LocalDate parseDate(CharSequence value) {
+        if (value.length() == DATE_LENGTH) {
+            LocalDate date = parseDate(value, 0);
+            if (date != null) {
+                return date;
+            }
+        }
+        return LocalDate.parse(value);
+    }
+
+    /**
+     * 文字列の指定した位置から始まる「yyyy-MM-dd」の形式の日付を、日が28以下の場合に
+     * 文字列から直接変換します。
+     * @param value 変換する文字列
+     * @param from 日付の開始位置
+     * @return 変換した日付を返します。形式が異なる場合、または日が28を超える場合はnullを返します。
+     */
+    private static LocalDate parseDate(CharSequence value, int from) {
+        if (value.charAt(from + YEAR_DIGITS) == '-' && value.charAt(from + MONTH_END) == '-') {
+            int year = digits(value, from, from + YEAR_DIGITS);
+            int month = digits(value, from + MONTH_START, from + MONTH_END);
+            int day = digits(value, from + DAY_START, from + DATE_LENGTH);
+            if (year >= 0 && month >= 1 && month <= MAX_MONTH && day >= 1 && day <= MIN_DAYS_OF_MONTH) {
+                return LocalDate.of(year, month, day);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * ISO-8601形式の日時を変換します。「yyyy-MM-ddTHH:mm:ss」の形式で日が28以下の場合は
+     * 文字列から直接変換し、それ以外の場合は{@link LocalDateTime#parse(CharSequence)}で変換します。
+     * @param value 変換する文字列
+     * @return 変換した日時を返します。
+     * @throws java.time.format.DateTimeParseException 日時に変換できない場合
+     */
+    private static LocalDateTime parseDateTime(CharSequence value) {
+        if (value.length() == DATE_TIME_LENGTH && value.charAt(DATE_LENGTH) == 'T'
+                && value.charAt(HOUR_END) == ':' && value.charAt(MINUTE_END) == ':') {
+            int hour = digits(value, HOUR_START, HOUR_END);
+            int minute = digits(value, MINUTE_START, MINUTE_END);
+            int second = digits(value, SECOND_START, DATE_TIME_LENGTH);
+            if (hour >= 0 && hour <= MAX_HOUR && minute >= 0 && minute <= MAX_MINUTE
+                    && second >= 0 && second <= MAX_MINUTE) {
+                LocalDate date = parseDate(value, 0);
+                if (date != null) {
+                    return date.atTime(hour, minute, second);
+                }
+            }
+        }
+        return LocalDateTime.parse(value);
+    }
+
+    /**
+     * 文字列の範囲の数字を10進数の整数に変換します。
+     * @param value 文字列
+     * @param from 開始位置
+     * @param to 終了位置
+     * @return 変換した整数を返します。数字以外の文字が含まれる場合は-1を返します。
+     */
+    private static int digits(CharSequence value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+}
@@ -0,0 +1,378 @@
+package myproject.java.utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.List;
+
+/**
+ * CSV形式のデータを１行ずつ出力するライターを実装します。
+ * <p>
+ * 出力する文字は再利用されるバッファに格納し、バッファが一杯になった時、または
+ * {@link #flush()}、{@link #close()}を呼び出した時に出力先に書き込みます。
+ * カンマ、「"」、CR、LFを含む項目のみを「"」で囲み、項目中の「"」は「""」に
+ * 変換します。行の終わりにはCRLFを出力します。
+ * </p>
+ * <p>
+ * 出力したCSVデータは{@link CsvIterator}で同じ項目として読み込まれます。
+ * ただし、{@link CsvIterator}は「"」で囲まれた改行を{@link System#lineSeparator()}に
+ * 変換するため、改行を含む項目は{@link System#lineSeparator()}以外の改行が
+ * {@link System#lineSeparator()}に置き換わって読み込まれます。また、nullの項目は
+ * 長さ０の項目として出力します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.CsvWriter;
+ * ...
+ * try (CsvWriter writer = new CsvWriter(new OutputStreamWriter(
+ *         new FileOutputStream("/path/to/csv"), "UTF-8"))) {
+ *     writer.writeRow("id", "name", "price");
+ *     for (Item item : items) {
+ *         writer.writeField(item.getId());
+ *         writer.writeField(item.getName());
+ *         writer.writeField(item.getPrice());
+ *         writer.endRow();
+ *     }
+ * }
+ * </pre></td></tr></table>
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    /** 出力する文字を格納するバッファのサイズ。 */
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    /** longの最大桁数（符号を含む）。 */
+    private static final int MAX_LONG_LENGTH = 20;
+
+    /** 行の終わりに出力する改行。 */
+    private static final String LINE_TERMINATOR = "\r\n";
+
+    /** CSVデータを出力する{@link Writer}。 */
+    private Writer out = null;
+
+    /** CSVデータを出力する{@link WritableByteChannel}。 */
+    private WritableByteChannel channel = null;
+
+    /** {@link #channel}に出力する文字をバイト列に変換する{@link CharsetEncoder}。 */
+    private CharsetEncoder encoder = null;
+
+    /** {@link #encoder}で変換したバイト列を格納するバッファ。 */
+    private ByteBuffer bytebuf = null;
+
+    /** 出力する文字を格納するバッファ。 */
+    private final char[] buf = new char[WRITE_BUFFER_SIZE];
+
+    /** {@link #buf}に格納されている文字数。 */
+    private int pos = 0;
+
+    /** 現在行に出力した項目数。 */
+    private int fieldCount = 0;
+
+    /** 現在行に最後に出力した項目が長さ０の場合はtrue。 */
+    private boolean lastEmpty = false;
+
+    /**
+     * CSV形式のデータを出力する{@link Writer}を指定して、ライターを構築します。
+     * @param out CSV形式のデータを出力する{@link Writer}
+     */
+    public CsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * CSV形式のデータを出力する{@link WritableByteChannel}と文字セットを指定して、
+     * ライターを構築します。
+     * @param out CSV形式のデータを出力する{@link WritableByteChannel}
+     * @param charset CSV形式のデータの文字セット
+     */
+    public CsvWriter(WritableByteChannel out, Charset charset) {
+        this.channel = out;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytebuf = ByteBuffer.allocate((int) Math.ceil(WRITE_BUFFER_SIZE * this.encoder.maxBytesPerChar()));
+    }
+
+    /**
+     * {@link List}の要素を項目とする１行を出力します。
+     * @param fields 行の項目
+     * @throws IOException 出力に失敗した場合
+     */
+    public void writeRow(List<? extends CharSequence> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            writeField(fields.get(i));
+        }
+        endRow();
+    }
+
+    /**
+     * 配列の要素を項目とする１行を出力します。
+     * @param fields 行の項目
+     * @throws IOException 出力に失敗した場合
+     */
+    public void writeRow(CharSequence... fields) throws IOException {
+        for (CharSequence field : fields) {
+            writeField(field);
+        }
+        endRow();
+    }
+
+    /**
+     * 現在行に項目を出力します。カンマ、「"」、CR、LFを含む場合は「"」で囲み、
+     * 「"」を「""」に変換して出力します。
+     * @param field 項目の値。nullの場合は長さ０の項目を出力します。
+     * @throws IOException 出力に失敗した場合
+     */
+    public void writeField(CharSequence field) throws IOException {
+        beginField();
+        if (field == null || field.length() == 0) {
+            this.lastEmpty = true;
+            return;
+        }
+        int length = field.length();
+        boolean quote = false;
+        for (int i = 0; i < length; i++) {
+            char c = field.charAt(i);
+            if (c == '"' || c == ',' || c == '\r' || c == '\n') {
+                quote = true;
+                break;
+            }
+        }
+        if (!quote) {
+            append(field, 0, length);
+            return;
+        }
+
+        append('"');
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (field.charAt(i) == '"') {
+                // 「"」までを出力して、「"」を２つ続けて出力する
+                append(field, start, i + 1);
+                append('"');
+                start = i + 1;
+            }
+        }
+        append(field, start, length);
+        append('"');
+    }
+
+    /**
+     * 現在行にintの値を10進数の項目として出力します。
+     * @param value 項目の値
+     * @throws IOException 出力に失敗した場合
+     */
+    public void writeField(int value) throws IOException {
+        writeField((long) value);
+    }
+
+    /**
+     * 現在行にlongの値を10進数の項目として、{@link String}を生成せずに出力します。
+     * @param value 項目の値
+     * @throws IOException 出力に失敗した場合
+     */
+    public void writeField(long value) throws IOException {
+        beginField();
+        if (WRITE_BUFFER_SIZE - this.pos < MAX_LONG_LENGTH) {
+            flushBuffer();
+        }
+        char[] cbuf = this.buf;
+        if (value < 0) {
+            cbuf[this.pos++] = '-';
+        } else {
+            // 負数で計算するため符号を反転する（Long.MIN_VALUEを扱うため）
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        int index = this.pos + digits;
+        this.pos = index;
+        do {
+            cbuf[--index] = (char) ('0' - (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+    }
+
+    /**
+     * 現在行にdoubleの値を{@link Double#toString(double)}の形式の項目として出力します。
+     * @param value 項目の値
+     * @throws IOException 出力に失敗した場合
+     */
+    public void writeField(double value) throws IOException {
+        writeField(Double.toString(value));
+    }
+
+    /**
+     * 現在行にbooleanの値を「true」または「false」の項目として出力します。
+     * @param value 項目の値
+     * @throws IOException 出力に失敗した場合
+     */
+    public void writeField(boolean value) throws IOException {
+        writeField(value ? "true" : "false");
+    }
+
+    /**
+     * 現在行を終了し、改行を出力します。
+     * <p>
+     * 長さ０の項目のみの行は{@link CsvIterator}で項目数０の行として読み込まれるため、
+     * 「""」を出力します。
+     * </p>
+     * @throws IOException 出力に失敗した場合
+     */
+    public void endRow() throws IOException {
+        if (this.fieldCount == 1 && this.lastEmpty) {
+            append('"');
+            append('"');
+        }
+        append(LINE_TERMINATOR, 0, LINE_TERMINATOR.length());
+        this.fieldCount = 0;
+        this.lastEmpty = false;
+    }
+
+    /**
+     * バッファに格納されている文字を出力先に書き込み、出力先をフラッシュします。
+     * @throws IOException 出力に失敗した場合
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        if (this.out != null) {
+            this.out.flush();
+        }
+    }
+
+    /**
+     * バッファに格納されている文字を出力先に書き込み、出力先をクローズします。
+     * @throws IOException 出力に失敗した場合
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+            if (this.encoder != null) {
+                // 対になる下位サロゲートの無い上位サロゲートなど、バッファに残った文字を
+                // 入力の終わりとして変換し、文字セットの終了シーケンスを出力する
+                CharBuffer in = CharBuffer.wrap(this.buf, 0, this.pos);
+                CoderResult result;
+                do {
+                    result = this.encoder.encode(in, this.bytebuf, true);
+                    writeBytes();
+                } while (result.isOverflow());
+                this.pos = 0;
+                do {
+                    result = this.encoder.flush(this.bytebuf);
+                    writeBytes();
+                } while (result.isOverflow());
+            }
+        } finally {
+            if (this.out != null) {
+                this.out.close();
+            } else {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * 項目の出力を開始します。現在行の２番目以降の項目の場合はカンマを出力します。
+     * @throws IOException 出力に失敗した場合
+     */
+    private void beginField() throws IOException {
+        if (this.fieldCount > 0) {
+            append(',');
+        }
+        this.fieldCount++;
+        this.lastEmpty = false;
+    }
+
+    /**
+     * １文字を{@link #buf}に追加します。
+     * @param c 追加する文字
+     * @throws IOException 出力に失敗した場合
+     */
+    private void append(char c) throws IOException {
+        if (this.pos == WRITE_BUFFER_SIZE) {
+            flushBuffer();
+        }
+        this.buf[this.pos++] = c;
+    }
+
+    /**
+     * 文字列の一部を{@link #buf}に追加します。{@link String}の場合は
+     * {@link String#getChars(int, int, char[], int)}でまとめて複写します。
+     * @param s 追加する文字列
+     * @param start 追加する文字列の開始位置
+     * @param end 追加する文字列の終了位置
+     * @throws IOException 出力に失敗した場合
+     */
+    private void append(CharSequence s, int start, int end) throws IOException {
+        while (start < end) {
+            if (this.pos == WRITE_BUFFER_SIZE) {
+                flushBuffer();
+            }
+            int n = Math.min(end - start, WRITE_BUFFER_SIZE - this.pos);
+            if (s instanceof String) {
+                ((String) s).getChars(start, start + n, this.buf, this.pos);
+            } else {
+                char[] cbuf = this.buf;
+                int dst = this.pos;
+                for (int i = start; i < start + n; i++) {
+                    cbuf[dst++] = s.charAt(i);
+                }
+            }
+            this.pos += n;
+            start += n;
+        }
+    }
+
+    /**
+     * {@link #buf}に格納されている文字を出力先に書き込みます。
+     * <p>
+     * {@link WritableByteChannel}に出力する場合、バッファの終わりにあるサロゲートペアの
+     * 上位サロゲートなど、変換できなかった文字はバッファの先頭に移して次の書き込みで
+     * 変換します。
+     * </p>
+     * @throws IOException 出力に失敗した場合
+     */
+    private void flushBuffer() throws IOException {
+        if (this.out != null) {
+            this.out.write(this.buf, 0, this.pos);
+            this.pos = 0;
+            return;
+        }
+        CharBuffer in = CharBuffer.wrap(this.buf, 0, this.pos);
+        CoderResult result;
+        do {
+            result = this.encoder.encode(in, this.bytebuf, false);
+            writeBytes();
+        } while (result.isOverflow());
+        int remaining = in.remaining();
+        System.arraycopy(this.buf, in.position(), this.buf, 0, remaining);
+        this.pos = remaining;
+    }
+
+    /**
+     * {@link #bytebuf}に格納されているバイト列を{@link #channel}に書き込みます。
+     * @throws IOException 出力に失敗した場合
+     */
+    private void writeBytes() throws IOException {
+        this.bytebuf.flip();
+        while (this.bytebuf.hasRemaining()) {
+            this.channel.write(this.bytebuf);
+        }
+        this.bytebuf.clear();
+    }
+}
@@ -0,0 +1,281 @@
+package myproject.java.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 発生した例外を指紋ごとに集計し、スタックトレースの文字列への変換を間引きます。
+ * <p>
+ * 例外は{@link ExceptionUtils#fingerprint(Throwable, int)}で計算した指紋ごとに、
+ * {@link LongAdder}で発生回数を数えます。スタックトレースは指紋ごとに最初に発生した時と、
+ * 指定した割合で抽出した時にのみ{@link ExceptionUtils#getStackTraceString(Throwable, int)}で
+ * 文字列に変換するため、同じ障害が多数のスレッドで繰り返し発生しても、変換の処理量は
+ * 発生回数ではなく障害の種類の数に比例します。発生回数は{@link #summarize()}で集計します。
+ * </p>
+ * <p>
+ * ２回続けて集計の間に発生しなかった指紋は、{@link #summarize()}で最初に発生した例外とともに
+ * 削除するため、種類の異なる障害が多数発生しても保持する例外は増え続けません。
+ * 削除した指紋の例外が再び発生した場合は、最初の発生として扱います。削除と同時に記録された
+ * 発生回数は、残っている指紋の発生回数に加えるため失われません。
+ * </p>
+ * <p>
+ * インスタンスは複数のスレッドから同時に使用できます。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.ExceptionAggregator;
+ * ...
+ * ExceptionAggregator aggregator = new ExceptionAggregator(20, 1000);
+ * aggregator.scheduleSummary(executor, 1, TimeUnit.MINUTES, summaries -&gt; {
+ *     for (ExceptionAggregator.Summary summary : summaries) {
+ *         logger.warn("{}", summary);
+ *     }
+ * });
+ * ...
+ * } catch (IOException e) {
+ *     String stackTrace = aggregator.record(e);
+ *     if (stackTrace != null) {
+ *         logger.error(stackTrace);
+ *     }
+ * }
+ * </pre></td></tr></table>
+ */
+public class ExceptionAggregator {
+
+    /**
+     * 指紋ごとの発生回数の集計結果。
+     */
+    public static final class Summary {
+        /** 例外の指紋。 */
+        private final long fingerprint;
+
+        /** 最初に発生した例外。 */
+        private final Throwable firstException;
+
+        /** 前回の集計から発生した回数。 */
+        private final long count;
+
+        /** 発生した回数の合計。 */
+        private final long total;
+
+        /**
+         * 集計結果を構築します。
+         * @param fingerprint 例外の指紋
+         * @param firstException 最初に発生した例外
+         * @param count 前回の集計から発生した回数
+         * @param total 発生した回数の合計
+         */
+        private Summary(long fingerprint, Throwable firstException, long count, long total) {
+            this.fingerprint = fingerprint;
+            this.firstException = firstException;
+            this.count = count;
+            this.total = total;
+        }
+
+        /**
+         * 例外の指紋を取得します。
+         * @return 例外の指紋を返します。
+         */
+        public long getFingerprint() {
+            return this.fingerprint;
+        }
+
+        /**
+         * 最初に発生した例外を取得します。
+         * @return 最初に発生した例外を返します。
+         */
+        public Throwable getFirstException() {
+            return this.firstException;
+        }
+
+        /**
+         * 前回の集計から発生した回数を取得します。
+         * @return 前回の集計から発生した回数を返します。
+         */
+        public long getCount() {
+            return this.count;
+        }
+
+        /**
+         * 発生した回数の合計を取得します。
+         * @return 発生した回数の合計を返します。
+         */
+        public long getTotal() {
+            return this.total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x: %d times (total %d): %s", this.fingerprint, this.count, this.total,
+                    this.firstException);
+        }
+    }
+
+    /**
+     * 指紋ごとの発生回数。
+     */
+    private static final class Entry {
+        /** 最初に発生した例外。 */
+        private final Throwable firstException;
+
+        /** 前回の集計から発生した回数。 */
+        private final LongAdder count = new LongAdder();
+
+        /** 前回の集計までに発生した回数の合計。{@link ExceptionAggregator#summarize()}でのみ更新します。 */
+        private long total;
+
+        /** 前回の集計の間に発生しなかった場合はtrue。{@link ExceptionAggregator#summarize()}でのみ更新します。 */
+        private boolean idle;
+
+        /**
+         * 最初に発生した例外を指定して構築します。
+         * @param firstException 最初に発生した例外
+         */
+        private Entry(Throwable firstException) {
+            this.firstException = firstException;
+        }
+    }
+
+    /** 指紋とスタックトレースの文字列に含めるフレーム数の上限。 */
+    private final int maxFrames;
+
+    /** ２回目以降の発生でスタックトレースを文字列に変換する割合（N回に１回）。 */
+    private final int sampleRate;
+
+    /** 指紋ごとの発生回数。 */
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<Long, Entry>();
+
+    /**
+     * フレーム数の上限と抽出する割合を指定して構築します。
+     * @param maxFrames 指紋とスタックトレースの文字列に含める、例外ごとのフレーム数の上限
+     * @param sampleRate ２回目以降の発生でスタックトレースを文字列に変換する割合。
+     *      Nを指定すると平均してN回に１回変換します。0以下を指定すると最初の発生でのみ変換します。
+     */
+    public ExceptionAggregator(int maxFrames, int sampleRate) {
+        this.maxFrames = maxFrames;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 例外の発生を記録します。
+     * <p>
+     * 指紋ごとに最初に発生した時、又は抽出した時はスタックトレースを文字列に変換して返します。
+     * それ以外は発生回数を数えるのみで、スタックトレースを文字列に変換せずにnullを返します。
+     * </p>
+     * @param t 例外
+     * @return スタックトレースを変換した文字列を返します。変換しない場合はnullを返します。
+     */
+    public String record(Throwable t) {
+        Long fingerprint = ExceptionUtils.fingerprint(t, this.maxFrames);
+        Entry entry = this.entries.get(fingerprint);
+        boolean first = false;
+        if (entry == null) {
+            Entry created = new Entry(t);
+            entry = this.entries.putIfAbsent(fingerprint, created);
+            if (entry == null) {
+                entry = created;
+                first = true;
+            }
+        }
+        entry.count.increment();
+        if (this.entries.get(fingerprint) != entry) {
+            // summarize()で削除された場合は、数えた発生回数を残っている指紋に移す
+            fold(fingerprint, entry);
+        }
+        if (first || this.sampleRate > 0 && ThreadLocalRandom.current().nextInt(this.sampleRate) == 0) {
+            return ExceptionUtils.getStackTraceString(t, this.maxFrames);
+        }
+        return null;
+    }
+
+    /**
+     * 前回の集計から発生した例外を、指紋ごとに集計します。
+     * <p>
+     * 前回の集計に続いて今回の集計の間にも発生しなかった指紋は削除します。
+     * </p>
+     * @return 前回の集計から発生した例外の集計結果を、発生回数の多い順に返します。
+     */
+    public synchronized List<Summary> summarize() {
+        List<Summary> summaries = new ArrayList<Summary>();
+        for (Iterator<Map.Entry<Long, Entry>> it = this.entries.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Long, Entry> mapEntry = it.next();
+            Entry entry = mapEntry.getValue();
+            long count = entry.count.sumThenReset();
+            if (count > 0) {
+                entry.total += count;
+                entry.idle = false;
+                summaries.add(new Summary(mapEntry.getKey(), entry.firstException, count, entry.total));
+            } else if (entry.idle) {
+                it.remove();
+                // 削除する間に記録された場合は次の集計に含める
+                fold(mapEntry.getKey(), entry);
+            } else {
+                entry.idle = true;
+            }
+        }
+        summaries.sort((s1, s2) -> Long.compare(s2.count, s1.count));
+        return summaries;
+    }
+
+    /**
+     * 削除された指紋の発生回数を、表に残っている指紋の発生回数に移します。
+     * <p>
+     * {@link LongAdder#sumThenReset()}で取り出した発生回数は他のスレッドから取り出されないため、
+     * {@link #record(Throwable)}と{@link #summarize()}の両方から呼び出しても発生回数を重複して
+     * 数えることも、失うこともありません。表に指紋が無い場合は、削除された指紋を表に戻します。
+     * </p>
+     * @param fingerprint 指紋
+     * @param removed 削除された指紋の発生回数
+     */
+    private void fold(Long fingerprint, Entry removed) {
+        long count = removed.count.sumThenReset();
+        if (count > 0) {
+            this.entries.computeIfAbsent(fingerprint, key -> removed).count.add(count);
+        }
+    }
+
+    /**
+     * {@link #summarize()}を定期的に実行し、例外が発生していれば集計結果を通知します。
+     * <p>
+     * 集計結果を受け取る処理で{@link RuntimeException}が発生した場合は、その回の通知を
+     * 破棄して定期的な実行を継続します。
+     * </p>
+     * @param executor {@link #summarize()}を実行する{@link ScheduledExecutorService}
+     * @param period 集計する間隔
+     * @param unit 集計する間隔の単位
+     * @param consumer 集計結果を受け取る処理
+     * @return 定期的な実行を取り消すための{@link ScheduledFuture}を返します。
+     */
+    public ScheduledFuture<?> scheduleSummary(ScheduledExecutorService executor, long period, TimeUnit unit,
+            Consumer<List<Summary>> consumer) {
+        return executor.scheduleAtFixedRate(() -> {
+            List<Summary> summaries = summarize();
+            if (!summaries.isEmpty()) {
+                try {
+                    consumer.accept(summaries);
+                } catch (RuntimeException e) {
+                    // 例外を送出するとscheduleAtFixedRateの実行が取り消されるため、以降の集計を継続する
+                }
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * 記録した全ての例外を削除します。
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+}
@@ -1,5 +1,12 @@
 package myproject.java.utils;
 
+import java.io.IOException;
+import java.lang.StackWalker.StackFrame;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Set;
+
 /**
  * {@link java.lang.Exception}の操作を提供します。
  *
@@ -7,6 +14,30 @@ package myproject.java.utils;
  * https://github.com/ycookjp/
  */
 public class ExceptionUtils {
+    /** 改行文字。 */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /** スタックトレースの行の字下げ。 */
+    private static final String INDENT = "    ";
+
+    /** {@link #appendStackTrace(Appendable, Throwable, int)}で再利用するバッファの最大の容量。 */
+    private static final int MAX_BUFFER_CAPACITY = 64 * 1024;
+
+    /** {@link #appendStackTrace(Appendable, Throwable, int)}で再利用するスレッドごとのバッファ。 */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    /** {@link #fingerprint(Throwable, int)}で対象とする、原因となった例外の数の上限。 */
+    private static final int MAX_CAUSES = 16;
+
+    /** FNV-1aハッシュのオフセット基底。 */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /** FNV-1aハッシュの素数。 */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** 呼び出し元のフレームを取得する{@link StackWalker}。 */
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
     /**
      * 外部空のインスタンス化を抑止するためのコンストラクタ。
      */
@@ -14,25 +45,296 @@ public class ExceptionUtils {
 
     /**
      * {@link java.lang.Exception}のスタックトレースを文字列に変換します。
+     * 原因となった例外、及び抑制された例外のスタックトレースも含めます。
      * @param e 例外
      * @return スタックトレースを文字列に変換した結果を返します。引数 e にnullを指定すると
      *      nullを返します。
      */
     public static String getStackTraceString(Exception e) {
-        if (e == null) {
+        return getStackTraceString(e, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 例外ごとのフレーム数の上限を指定して、スタックトレースを文字列に変換します。
+     * @param t 例外
+     * @param maxFrames 例外ごとに出力するフレーム数の上限
+     * @return スタックトレースを文字列に変換した結果を返します。引数 t にnullを指定すると
+     *      nullを返します。
+     * @see #appendStackTrace(StringBuilder, Throwable, int)
+     */
+    public static String getStackTraceString(Throwable t, int maxFrames) {
+        if (t == null) {
             return null;
         }
+        return appendStackTrace(new StringBuilder(1024), t, maxFrames).toString();
+    }
+
+    /**
+     * 例外のスタックトレースを{@link StringBuilder}に追加します。
+     * <p>
+     * {@link Throwable#printStackTrace()}と同じく、原因となった例外を「Caused by: 」、
+     * 抑制された例外を「Suppressed: 」に続けて出力し、外側の例外と共通するフレームは
+     * 「... N more」に省略します。各例外のフレームはmaxFramesまで出力し、残りのフレームも
+     * 「... N more」に省略します。フレームは{@link StackTraceElement#toString()}で文字列に
+     * 変換せずに、クラス名、メソッド名などを直接追加します。
+     * </p>
+     * @param sb スタックトレースを追加する{@link StringBuilder}
+     * @param t 例外
+     * @param maxFrames 例外ごとに出力するフレーム数の上限
+     * @return sbを返します。
+     */
+    public static StringBuilder appendStackTrace(StringBuilder sb, Throwable t, int maxFrames) {
+        new StackTraceRenderer(sb, maxFrames).render(t);
+        return sb;
+    }
+
+    /**
+     * 例外のスタックトレースを{@link Appendable}に追加します。
+     * <p>
+     * スタックトレースはスレッドごとに再利用するバッファに作成してから、１回で追加します。
+     * 出力の形式は{@link #appendStackTrace(StringBuilder, Throwable, int)}と同じです。
+     * </p>
+     * @param out スタックトレースを追加する{@link Appendable}
+     * @param t 例外
+     * @param maxFrames 例外ごとに出力するフレーム数の上限
+     * @throws IOException 追加に失敗した場合
+     */
+    public static void appendStackTrace(Appendable out, Throwable t, int maxFrames) throws IOException {
+        if (out instanceof StringBuilder) {
+            appendStackTrace((StringBuilder) out, t, maxFrames);
+            return;
+        }
+        StringBuilder sb = BUFFER.get();
+        try {
+            out.append(appendStackTrace(sb, t, maxFrames));
+        } finally {
+            if (sb.capacity() > MAX_BUFFER_CAPACITY) {
+                BUFFER.remove();
+            } else {
+                sb.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * 例外の種類と先頭のフレームから、例外の指紋となるハッシュ値を計算します。
+     * <p>
+     * 例外のクラス名と、先頭からmaxFramesまでのフレームのクラス名、メソッド名、行番号を
+     * ハッシュ値に含めます。原因となった例外も同様にハッシュ値に含めます。メッセージは含めないため、
+     * 同じ箇所で発生した同じ種類の例外は、メッセージが異なっても同じハッシュ値となります。
+     * スタックトレースを文字列に変換しないため、スタックトレースの文字列のハッシュ値を計算するより
+     * 少ない計算量で、同じ障害を識別できます。
+     * </p>
+     * @param t 例外
+     * @param maxFrames 例外ごとにハッシュ値に含めるフレーム数の上限
+     * @return ハッシュ値を返します。
+     */
+    public static long fingerprint(Throwable t, int maxFrames) {
+        long hash = FNV_OFFSET_BASIS;
+        Throwable current = t;
+        for (int i = 0; current != null && i < MAX_CAUSES; i++) {
+            hash = mix(hash, current.getClass().getName().hashCode());
+            StackTraceElement[] trace = current.getStackTrace();
+            int limit = Math.min(trace.length, maxFrames);
+            for (int j = 0; j < limit; j++) {
+                StackTraceElement element = trace[j];
+                hash = mixFrame(hash, element.getClassName(), element.getMethodName(), element.getLineNumber());
+            }
+            Throwable cause = current.getCause();
+            current = cause != current ? cause : null;
+        }
+        return hash;
+    }
+
+    /**
+     * 呼び出し元のフレームを{@link StackWalker}で取得します。
+     * <p>
+     * {@link Throwable}を作成してスタックトレース全体を取得するのではなく、
+     * 必要なフレームのみを辿ります。
+     * </p>
+     * @param skip 呼び出し元から読み飛ばすフレーム数。0の場合は、このメソッドを呼び出した
+     *      メソッドのフレームから取得します。
+     * @param maxFrames 取得するフレーム数の上限
+     * @return 呼び出し元のフレームを返します。
+     */
+    public static StackTraceElement[] captureStack(int skip, int maxFrames) {
+        return WALKER.walk(frames -> frames.skip(1L + skip).limit(maxFrames)
+                .map(StackFrame::toStackTraceElement).toArray(StackTraceElement[]::new));
+    }
+
+    /**
+     * 呼び出し元のフレームから、呼び出し箇所の指紋となるハッシュ値を計算します。
+     * <p>
+     * 呼び出し元からmaxFramesまでのフレームのクラス名、メソッド名、行番号を{@link StackWalker}で
+     * 取得してハッシュ値に含めます。{@link StackTraceElement}は作成しません。
+     * </p>
+     * @param skip 呼び出し元から読み飛ばすフレーム数。0の場合は、このメソッドを呼び出した
+     *      メソッドのフレームから計算します。
+     * @param maxFrames ハッシュ値に含めるフレーム数の上限
+     * @return ハッシュ値を返します。
+     */
+    public static long callSiteFingerprint(int skip, int maxFrames) {
+        return WALKER.walk(frames -> {
+            long hash = FNV_OFFSET_BASIS;
+            Iterator<StackFrame> iterator = frames.skip(1L + skip).limit(maxFrames).iterator();
+            while (iterator.hasNext()) {
+                StackFrame frame = iterator.next();
+                hash = mixFrame(hash, frame.getClassName(), frame.getMethodName(), frame.getLineNumber());
+            }
+            return hash;
+        });
+    }
+
+    /**
+     * フレームのクラス名、メソッド名、行番号をハッシュ値に加えます。
+     * @param hash ハッシュ値
+     * @param className クラス名
+     * @param methodName メソッド名
+     * @param lineNumber 行番号
+     * @return 新しいハッシュ値を返します。
+     */
+    private static long mixFrame(long hash, String className, String methodName, int lineNumber) {
+        return mix(mix(mix(hash, className.hashCode()), methodName.hashCode()), lineNumber);
+    }
+
+    /**
+     * int値をFNV-1aでハッシュ値に加えます。
+     * @param hash ハッシュ値
+     * @param value 加える値
+     * @return 新しいハッシュ値を返します。
+     */
+    private static long mix(long hash, int value) {
+        long h = hash;
+        for (int shift = 0; shift < 32; shift += 8) {
+            h = (h ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+        }
+        return h;
+    }
+
+    /**
+     * スタックトレースを{@link StringBuilder}に追加します。
+     */
+    private static final class StackTraceRenderer {
+        /** スタックトレースを追加する{@link StringBuilder}。 */
+        private final StringBuilder sb;
+
+        /** 例外ごとに出力するフレーム数の上限。 */
+        private final int maxFrames;
 
-        StringBuilder sb = new StringBuilder();
+        /** 出力した例外。循環した参照を検出するために使用します。 */
+        private Set<Throwable> rendered;
+
+        /**
+         * 出力先とフレーム数の上限を指定して構築します。
+         * @param sb スタックトレースを追加する{@link StringBuilder}
+         * @param maxFrames 例外ごとに出力するフレーム数の上限
+         */
+        private StackTraceRenderer(StringBuilder sb, int maxFrames) {
+            this.sb = sb;
+            this.maxFrames = Math.max(maxFrames, 0);
+        }
 
-        sb.append(e.toString());
-        sb.append(System.getProperty("line.separator"));
-        StackTraceElement[] elements = e.getStackTrace();
-        for (StackTraceElement element : elements) {
-            sb.append("    at " + element.toString());
-            sb.append(System.getProperty("line.separator"));
+        /**
+         * 例外、原因となった例外、抑制された例外のスタックトレースを追加します。
+         * @param t 例外
+         */
+        private void render(Throwable t) {
+            this.sb.append(t).append(LINE_SEPARATOR);
+            StackTraceElement[] trace = t.getStackTrace();
+            appendFrames(trace, trace.length, "");
+            Throwable cause = t.getCause();
+            Throwable[] suppressed = t.getSuppressed();
+            if (cause != null || suppressed.length > 0) {
+                this.rendered = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+                this.rendered.add(t);
+                renderEnclosed(suppressed, cause, trace, "");
+            }
         }
 
-        return sb.toString();
+        /**
+         * 抑制された例外と原因となった例外のスタックトレースを追加します。
+         * @param suppressed 抑制された例外
+         * @param cause 原因となった例外
+         * @param enclosingTrace 外側の例外のフレーム
+         * @param prefix 外側の例外の行の先頭に追加した文字列
+         */
+        private void renderEnclosed(Throwable[] suppressed, Throwable cause, StackTraceElement[] enclosingTrace,
+                String prefix) {
+            for (Throwable s : suppressed) {
+                renderEnclosed(s, enclosingTrace, "Suppressed: ", prefix + INDENT);
+            }
+            if (cause != null) {
+                renderEnclosed(cause, enclosingTrace, "Caused by: ", prefix);
+            }
+        }
+
+        /**
+         * 外側の例外と共通するフレームを省略して、例外のスタックトレースを追加します。
+         * @param t 例外
+         * @param enclosingTrace 外側の例外のフレーム
+         * @param caption 例外の前に追加する文字列
+         * @param prefix 行の先頭に追加する文字列
+         */
+        private void renderEnclosed(Throwable t, StackTraceElement[] enclosingTrace, String caption,
+                String prefix) {
+            if (!this.rendered.add(t)) {
+                this.sb.append(prefix).append(caption).append("[CIRCULAR REFERENCE: ").append(t)
+                        .append(']').append(LINE_SEPARATOR);
+                return;
+            }
+            this.sb.append(prefix).append(caption).append(t).append(LINE_SEPARATOR);
+            StackTraceElement[] trace = t.getStackTrace();
+            int m = trace.length - 1;
+            int n = enclosingTrace.length - 1;
+            while (m >= 0 && n >= 0 && trace[m].equals(enclosingTrace[n])) {
+                m--;
+                n--;
+            }
+            appendFrames(trace, m + 1, prefix);
+            renderEnclosed(t.getSuppressed(), t.getCause(), trace, prefix);
+        }
+
+        /**
+         * フレームを上限まで追加し、残りのフレーム数を「... N more」で追加します。
+         * @param trace フレーム
+         * @param count 省略せずに出力するフレーム数
+         * @param prefix 行の先頭に追加する文字列
+         */
+        private void appendFrames(StackTraceElement[] trace, int count, String prefix) {
+            int limit = Math.min(count, this.maxFrames);
+            for (int i = 0; i < limit; i++) {
+                this.sb.append(prefix).append(INDENT).append("at ");
+                appendFrame(trace[i]);
+                this.sb.append(LINE_SEPARATOR);
+            }
+            if (limit < trace.length) {
+                this.sb.append(prefix).append(INDENT).append("... ").append(trace.length - limit).append(" more")
+                        .append(LINE_SEPARATOR);
+            }
+        }
+
+        /**
+         * フレームを「モジュール名/クラス名.メソッド名(ファイル名:行番号)」の形式で追加します。
+         * @param element フレーム
+         */
+        private void appendFrame(StackTraceElement element) {
+            String moduleName = element.getModuleName();
+            if (moduleName != null && !moduleName.isEmpty()) {
+                this.sb.append(moduleName).append('/');
+            }
+            this.sb.append(element.getClassName()).append('.').append(element.getMethodName()).append('(');
+            String fileName = element.getFileName();
+            if (element.isNativeMethod()) {
+                this.sb.append("Native Method");
+            } else if (fileName == null) {
+                this.sb.append("Unknown Source");
+            } else {
+                this.sb.append(fileName);
+                if (element.getLineNumber() >= 0) {
+                    this.sb.append(':').append(element.getLineNumber());
+                }
+            }
+            this.sb.append(')');
+        }
     }
 }
@@ -0,0 +1,207 @@
+package myproject.java.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * クラスパスのプロパティファイル、プロパティファイル、環境変数、システムプロパティを重ねた設定値を作成します。
+ * <p>
+ * 設定値の読み込み元（レイヤー）を優先順位の低い順に追加し、{@link #get()}で全てのレイヤーを
+ * 一度だけ読み込んで１つの表にまとめます。同じキーが複数のレイヤーにある場合は、後から追加した
+ * レイヤーの値が優先されます。まとめた表は{@link PropertiesUtils#replaceKeywordInMap(Map)}で
+ * キーワードを置換し、キーは{@link String#intern()}で、同じ値は同じインスタンスにまとめて
+ * {@link ConfigSnapshot}に保持します。作成した{@link ConfigSnapshot}は記憶し、
+ * {@link #invalidate()}を呼び出すかレイヤーを追加するまで読み込み直さずに返します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.LayeredConfig;
+ * ...
+ * LayeredConfig layers = new LayeredConfig()
+ *         .resource("app/default.properties")
+ *         .optionalFile(Paths.get("conf/app.properties"))
+ *         .environment("APP_")
+ *         .systemProperties();
+ * // 環境変数APP_POOL_SIZEは"pool.size"、システムプロパティpool.sizeはそのまま"pool.size"となる
+ * int poolSize = layers.get().getInt("pool.size", 10);
+ * </pre></td></tr></table>
+ */
+public class LayeredConfig {
+
+    /**
+     * 設定値の読み込み元。
+     */
+    @FunctionalInterface
+    private interface Layer {
+        /**
+         * 設定値を読み込んで表に追加します。
+         * @param values 設定値を追加する表
+         * @throws IOException 読み込みに失敗した場合
+         */
+        void load(Map<String, String> values) throws IOException;
+    }
+
+    /** 優先順位の低い順のレイヤー。 */
+    private final List<Layer> layers = new ArrayList<Layer>();
+
+    /** 作成した設定値。 */
+    private volatile ConfigSnapshot snapshot;
+
+    /**
+     * クラスパスのプロパティファイルをレイヤーに追加します。
+     * プロパティファイルは{@link PropertiesUtils#loadResourceAsMap(String)}で読み込みます。
+     * @param name クラスパスの名前
+     * @return このインスタンスを返します。
+     */
+    public LayeredConfig resource(String name) {
+        return addLayer(values -> values.putAll(PropertiesUtils.loadResourceAsMap(name)));
+    }
+
+    /**
+     * プロパティファイルをレイヤーに追加します。
+     * プロパティファイルは{@link PropertiesUtils#loadFileAsMap(Path)}で読み込みます。
+     * @param path プロパティファイルのパス
+     * @return このインスタンスを返します。
+     */
+    public LayeredConfig file(Path path) {
+        return addLayer(values -> values.putAll(PropertiesUtils.loadFileAsMap(path)));
+    }
+
+    /**
+     * プロパティファイルをレイヤーに追加します。ファイルが存在しない場合は何も追加しません。
+     * @param path プロパティファイルのパス
+     * @return このインスタンスを返します。
+     */
+    public LayeredConfig optionalFile(Path path) {
+        return addLayer(values -> {
+            if (Files.exists(path)) {
+                values.putAll(PropertiesUtils.loadFileAsMap(path));
+            }
+        });
+    }
+
+    /**
+     * 全ての環境変数を、環境変数名をキーとしてレイヤーに追加します。
+     * @return このインスタンスを返します。
+     */
+    public LayeredConfig environment() {
+        return addLayer(values -> values.putAll(System.getenv()));
+    }
+
+    /**
+     * 名前が接頭辞で始まる環境変数をレイヤーに追加します。
+     * <p>
+     * キーは環境変数名から接頭辞を除き、小文字に変換して「_」を「.」に置き換えた名前とします。
+     * 例えば接頭辞に「APP_」を指定した場合、環境変数APP_POOL_SIZEのキーは「pool.size」となります。
+     * </p>
+     * @param prefix 環境変数名の接頭辞
+     * @return このインスタンスを返します。
+     */
+    public LayeredConfig environment(String prefix) {
+        return addLayer(values -> {
+            for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+                String name = entry.getKey();
+                if (name.length() > prefix.length() && name.startsWith(prefix)) {
+                    values.put(name.substring(prefix.length()).toLowerCase(Locale.ROOT).replace('_', '.'),
+                            entry.getValue());
+                }
+            }
+        });
+    }
+
+    /**
+     * システムプロパティをレイヤーに追加します。
+     * @return このインスタンスを返します。
+     */
+    public LayeredConfig systemProperties() {
+        return addLayer(values -> putAll(values, System.getProperties()));
+    }
+
+    /**
+     * 全てのレイヤーを重ねた設定値を取得します。
+     * <p>
+     * 最初に呼び出した時に全てのレイヤーを読み込み、作成した設定値を記憶します。
+     * ２回目以降は読み込まずに記憶した設定値を返します。
+     * </p>
+     * @return 設定値を返します。
+     * @throws IOException レイヤーの読み込みに失敗した場合
+     * @throws IllegalArgumentException キーワードの参照が循環している場合
+     */
+    public ConfigSnapshot get() throws IOException {
+        ConfigSnapshot config = this.snapshot;
+        if (config == null) {
+            synchronized (this) {
+                config = this.snapshot;
+                if (config == null) {
+                    config = build();
+                    this.snapshot = config;
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * 記憶した設定値を削除し、次の{@link #get()}で全てのレイヤーを読み込み直すようにします。
+     */
+    public synchronized void invalidate() {
+        this.snapshot = null;
+    }
+
+    /**
+     * レイヤーを追加し、記憶した設定値を削除します。
+     * @param layer レイヤー
+     * @return このインスタンスを返します。
+     */
+    private synchronized LayeredConfig addLayer(Layer layer) {
+        this.layers.add(layer);
+        this.snapshot = null;
+        return this;
+    }
+
+    /**
+     * 全てのレイヤーを読み込んで設定値を作成します。
+     * @return 作成した設定値を返します。
+     * @throws IOException レイヤーの読み込みに失敗した場合
+     */
+    private ConfigSnapshot build() throws IOException {
+        Map<String, String> merged = new HashMap<String, String>();
+        for (Layer layer : this.layers) {
+            layer.load(merged);
+        }
+
+        PropertiesUtils.replaceKeywordInMap(merged);
+
+        Map<String, String> values = new HashMap<String, String>(merged.size() * 4 / 3 + 1);
+        Map<String, String> distinctValues = new HashMap<String, String>();
+        for (Map.Entry<String, String> entry : merged.entrySet()) {
+            String value = entry.getValue();
+            String distinct = distinctValues.putIfAbsent(value, value);
+            values.put(entry.getKey().intern(), distinct != null ? distinct : value);
+        }
+        return new ConfigSnapshot(values, false);
+    }
+
+    /**
+     * キーと値が{@link String}のプロパティを表に追加します。
+     * @param values 追加先の表
+     * @param properties プロパティ
+     */
+    private static void putAll(Map<String, String> values, Properties properties) {
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                values.put((String) entry.getKey(), (String) entry.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package myproject.java.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * プロパティファイルの内容を解析して、キーと値の表を作成します。
+ * <p>
+ * {@link java.util.Properties#load(java.io.Reader)}と同じ形式（「#」及び「!」のコメント行、
+ * 「=」、「:」及び空白の区切り文字、行末の「\」による行の継続、「\t」、「\n」、「\r」、「\f」、
+ * 「&#92;uXXXX」のエスケープ）の内容を、{@link java.util.Properties#load(java.io.InputStream)}と
+ * 同じくISO8859-1のバイト列として解析します。
+ * </p>
+ * <p>
+ * {@link java.util.Properties}を経由せず、同期化されていない{@link HashMap}に格納します。
+ * エスケープを含まないキーと値はバイト列から直接文字列を作成し、
+ * エスケープを含む場合のみ１文字ずつ変換します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.PropertiesParser;
+ * ...
+ * Map&lt;String, String&gt; values = PropertiesParser.parse(Files.readAllBytes(path));
+ * </pre></td></tr></table>
+ */
+public final class PropertiesParser {
+
+    /** 解析するバイト列。 */
+    private final byte[] bytes;
+
+    /** 解析する終了位置。 */
+    private final int limit;
+
+    /** 解析中の位置。 */
+    private int pos;
+
+    /** エスケープを変換した文字を格納するバッファ。 */
+    private char[] chars = new char[64];
+
+    /** {@link #chars}に格納した文字数。 */
+    private int length;
+
+    /**
+     * 解析するバイト列を指定して構築します。
+     * @param bytes 解析するバイト列
+     * @param offset 解析を開始する位置
+     * @param limit 解析する終了位置
+     */
+    private PropertiesParser(byte[] bytes, int offset, int limit) {
+        this.bytes = bytes;
+        this.pos = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * プロパティファイルの内容を解析します。
+     * @param bytes プロパティファイルの内容
+     * @return キーと値の表を返します。
+     * @throws IllegalArgumentException 「&#92;uXXXX」のエスケープが正しくない場合
+     */
+    public static Map<String, String> parse(byte[] bytes) {
+        return parse(bytes, 0, bytes.length);
+    }
+
+    /**
+     * バイト配列の範囲を指定して、プロパティファイルの内容を解析します。
+     * @param bytes プロパティファイルの内容を格納したバイト配列
+     * @param offset 解析を開始する位置
+     * @param length 解析するバイト数
+     * @return キーと値の表を返します。
+     * @throws IllegalArgumentException 「&#92;uXXXX」のエスケープが正しくない場合
+     * @throws IndexOutOfBoundsException 範囲がバイト配列の外にある場合
+     */
+    public static Map<String, String> parse(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException("offset=" + offset + ", length=" + length);
+        }
+        return new PropertiesParser(bytes, offset, offset + length).parse();
+    }
+
+    /**
+     * バッファの位置から終了位置までのプロパティファイルの内容を解析します。
+     * バッファの位置は変更しません。
+     * @param buffer プロパティファイルの内容を格納したバッファ
+     * @return キーと値の表を返します。
+     * @throws IllegalArgumentException 「&#92;uXXXX」のエスケープが正しくない場合
+     */
+    public static Map<String, String> parse(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return parse(bytes);
+    }
+
+    /**
+     * 入力ストリームの終わりまでプロパティファイルの内容を読み込んで解析します。
+     * 入力ストリームは閉じません。
+     * @param in 入力ストリーム
+     * @return キーと値の表を返します。
+     * @throws IOException 読み込みに失敗した場合
+     * @throws IllegalArgumentException 「&#92;uXXXX」のエスケープが正しくない場合
+     */
+    public static Map<String, String> parse(InputStream in) throws IOException {
+        return parse(in.readAllBytes());
+    }
+
+    /**
+     * 全ての行を解析します。
+     * @return キーと値の表を返します。
+     */
+    private Map<String, String> parse() {
+        Map<String, String> values = new HashMap<String, String>();
+        while (this.pos < this.limit) {
+            skipWhitespace();
+            if (this.pos >= this.limit) {
+                break;
+            }
+            byte b = this.bytes[this.pos];
+            if (b == '\r' || b == '\n') {
+                this.pos++;
+                continue;
+            }
+            if (b == '#' || b == '!') {
+                while (this.pos < this.limit && this.bytes[this.pos] != '\r' && this.bytes[this.pos] != '\n') {
+                    this.pos++;
+                }
+                continue;
+            }
+
+            String key = readToken(true);
+            skipBlank();
+            if (this.pos < this.limit && (this.bytes[this.pos] == '=' || this.bytes[this.pos] == ':')) {
+                this.pos++;
+                skipBlank();
+            } else if (key.isEmpty()) {
+                // 継続行のみで内容のない行
+                continue;
+            }
+            values.put(key, readToken(false));
+        }
+        return values;
+    }
+
+    /**
+     * キー又は値を読み込みます。
+     * @param key キーを読み込む場合はtrue。区切り文字又は空白で読み込みを終了します。
+     * @return 読み込んだ文字列を返します。
+     */
+    private String readToken(boolean key) {
+        int start = this.pos;
+        while (this.pos < this.limit) {
+            byte b = this.bytes[this.pos];
+            if (b == '\\') {
+                this.length = 0;
+                for (int i = start; i < this.pos; i++) {
+                    append((char) (this.bytes[i] & 0xFF));
+                }
+                return readEscapedToken(key);
+            }
+            if (isTerminator(b, key)) {
+                break;
+            }
+            this.pos++;
+        }
+        return new String(this.bytes, start, this.pos - start, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * エスケープを変換しながら、キー又は値の残りを読み込みます。
+     * @param key キーを読み込む場合はtrue
+     * @return {@link #chars}に格納済みの文字と、読み込んだ文字を連結した文字列を返します。
+     */
+    private String readEscapedToken(boolean key) {
+        while (this.pos < this.limit) {
+            byte b = this.bytes[this.pos];
+            if (b != '\\') {
+                if (isTerminator(b, key)) {
+                    break;
+                }
+                append((char) (b & 0xFF));
+                this.pos++;
+                continue;
+            }
+            if (this.pos + 1 >= this.limit) {
+                // 最後の「\」は無視する
+                this.pos++;
+                break;
+            }
+            char c = (char) (this.bytes[this.pos + 1] & 0xFF);
+            this.pos += 2;
+            switch (c) {
+            case '\r':
+            case '\n':
+                skipLineBreak(c);
+                skipWhitespace();
+                continue;
+            case 'u':
+                c = readUnicode();
+                break;
+            case 't':
+                c = '\t';
+                break;
+            case 'n':
+                c = '\n';
+                break;
+            case 'r':
+                c = '\r';
+                break;
+            case 'f':
+                c = '\f';
+                break;
+            default:
+                break;
+            }
+            append(c);
+        }
+        return new String(this.chars, 0, this.length);
+    }
+
+    /**
+     * 「&#92;u」に続く４桁の16進数を読み込みます。
+     * @return 16進数の文字コードの文字を返します。
+     * @throws IllegalArgumentException ４桁の16進数でない場合
+     */
+    private char readUnicode() {
+        if (this.pos + 4 > this.limit) {
+            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(this.bytes[this.pos++], 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+            }
+            value = (value << 4) | digit;
+        }
+        return (char) value;
+    }
+
+    /**
+     * 空白、及び行の継続を読み飛ばします。
+     */
+    private void skipBlank() {
+        while (this.pos < this.limit) {
+            byte b = this.bytes[this.pos];
+            if (b == ' ' || b == '\t' || b == '\f') {
+                this.pos++;
+            } else if (b == '\\' && this.pos + 1 < this.limit
+                    && (this.bytes[this.pos + 1] == '\r' || this.bytes[this.pos + 1] == '\n')) {
+                this.pos += 2;
+                skipLineBreak((char) this.bytes[this.pos - 1]);
+            } else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 空白を読み飛ばします。
+     */
+    private void skipWhitespace() {
+        while (this.pos < this.limit) {
+            byte b = this.bytes[this.pos];
+            if (b != ' ' && b != '\t' && b != '\f') {
+                break;
+            }
+            this.pos++;
+        }
+    }
+
+    /**
+     * 「\r」に続く「\n」を読み飛ばします。
+     * @param c 読み込んだ改行文字
+     */
+    private void skipLineBreak(char c) {
+        if (c == '\r' && this.pos < this.limit && this.bytes[this.pos] == '\n') {
+            this.pos++;
+        }
+    }
+
+    /**
+     * キー又は値の終わりを表す文字か判定します。
+     * @param b 判定する文字
+     * @param key キーを読み込む場合はtrue
+     * @return キー又は値の終わりを表す文字の場合はtrueを返します。
+     */
+    private static boolean isTerminator(byte b, boolean key) {
+        return b == '\r' || b == '\n'
+                || key && (b == '=' || b == ':' || b == ' ' || b == '\t' || b == '\f');
+    }
+
+    /**
+     * 文字をバッファに追加します。
+     * @param c 文字
+     */
+    private void append(char c) {
+        if (this.length == this.chars.length) {
+            this.chars = Arrays.copyOf(this.chars, this.length * 2);
+        }
+        this.chars[this.length++] = c;
+    }
+}
@@ -2,10 +2,15 @@ package myproject.java.utils;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * {@link java.util.Properties}の操作を提供します。
@@ -14,6 +19,9 @@ import java.util.Set;
  * https://github.com/ycookjp/
  */
 public class PropertiesUtils {
+    /** {@link #loadConfig(String)}で読み込んだ設定値を、クラスパスの名前ごとに保持するキャッシュ。 */
+    private static final Map<String, ConfigSnapshot> CONFIG_CACHE = new ConcurrentHashMap<String, ConfigSnapshot>();
+
     /**
      * 外部からのインスタンス化を抑止するためのコンストラクタ。
      */
@@ -27,61 +35,374 @@ public class PropertiesUtils {
      * クラスパスを指定したディレクトリの下の「test/properties/test.properteis」を読み込む場合は、
      * クラスパスの名前に「test/properties/test.properties」を指定します。
      * </p>
+     * <p>
+     * プロパティファイルは{@link PropertiesParser}で解析します。{@link java.util.Properties}が
+     * 不要な場合は、{@link #loadResourceAsMap(String)}を使用してください。
+     * </p>
      * @param name クラスパスの名前
      * @return {@link java.util.Properties}を返します。nameにnullを指定した場合は、nullを返します。
      * @throws IOException {@link java.util.Properties}のロードに失敗した場合
      */
     public static Properties loadResource(String name) throws IOException {
+        return toProperties(loadResourceAsMap(name));
+    }
+
+    /**
+     * プロパティファイルのクラスパスを指定して、キーと値の表をロードします。
+     * <p>
+     * プロパティファイルは{@link PropertiesParser}でISO8859-1のバイト列として解析し、
+     * {@link java.util.Properties}を経由せずに同期化されていない表に格納します。
+     * </p>
+     * @param name クラスパスの名前
+     * @return キーと値の変更可能な表を返します。nameにnullを指定した場合は、nullを返します。
+     * @throws IOException プロパティファイルの読み込みに失敗した場合
+     */
+    public static Map<String, String> loadResourceAsMap(String name) throws IOException {
         if (name == null) {
             return null;
         }
 
-        Properties properties = new Properties();
-        InputStream is = null;
-        Reader reader = null;
-        try {
-            is = ClassLoader.getSystemResourceAsStream(name);
+        try (InputStream is = ClassLoader.getSystemResourceAsStream(name)) {
             if (is == null) {
                 throw new IOException("Resource " + name + " not found.");
             }
-            reader = new InputStreamReader(is, "ISO8859-1");
-            properties.load(reader);
-            return properties;
-        } finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException ioe) { }
-            } else if (is != null) {
-                try {
-                    is.close();
-                } catch (IOException ie) { }
+            return PropertiesParser.parse(is);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * プロパティファイルのパスを指定して、{@link java.util.Properties}をロードします。
+     * プロパティファイルは{@link #loadResource(String)}と同じくISO8859-1で読み込みます。
+     * @param path プロパティファイルのパス
+     * @return {@link java.util.Properties}を返します。pathにnullを指定した場合は、nullを返します。
+     * @throws IOException {@link java.util.Properties}のロードに失敗した場合
+     */
+    public static Properties loadFile(Path path) throws IOException {
+        return toProperties(loadFileAsMap(path));
+    }
+
+    /**
+     * プロパティファイルのパスを指定して、キーと値の表をロードします。
+     * プロパティファイルは{@link #loadResourceAsMap(String)}と同じく{@link PropertiesParser}で解析します。
+     * @param path プロパティファイルのパス
+     * @return キーと値の変更可能な表を返します。pathにnullを指定した場合は、nullを返します。
+     * @throws IOException プロパティファイルの読み込みに失敗した場合
+     */
+    public static Map<String, String> loadFileAsMap(Path path) throws IOException {
+        if (path == null) {
+            return null;
+        }
+
+        try {
+            return PropertiesParser.parse(Files.readAllBytes(path));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * キーと値の表を複写した{@link java.util.Properties}を作成します。
+     * @param values キーと値の表
+     * @return {@link java.util.Properties}を返します。valuesにnullを指定した場合は、nullを返します。
+     */
+    private static Properties toProperties(Map<String, String> values) {
+        if (values == null) {
+            return null;
+        }
+        Properties properties = new Properties();
+        properties.putAll(values);
+        return properties;
+    }
+
+    /**
+     * プロパティファイルのクラスパスを指定して、キーワードを置換した変更不可の設定値を取得します。
+     * <p>
+     * 最初に呼び出した時に{@link #loadResourceAsMap(String)}でプロパティファイルを読み込み、
+     * {@link #replaceKeywordInMap(Map)}でキーワードを置換した{@link ConfigSnapshot}を
+     * キャッシュします。２回目以降はプロパティファイルを読み込まずにキャッシュした
+     * {@link ConfigSnapshot}を返します。キャッシュの参照はロックを取得しません。
+     * プロパティファイルを読み込み直す場合は、{@link #invalidateConfig(String)}で
+     * キャッシュを削除してください。
+     * </p>
+     * @param name クラスパスの名前
+     * @return 設定値を返します。nameにnullを指定した場合は、nullを返します。
+     * @throws IOException プロパティファイルの読み込みに失敗した場合
+     * @throws IllegalArgumentException キーワードの参照が循環している場合
+     */
+    public static ConfigSnapshot loadConfig(String name) throws IOException {
+        if (name == null) {
+            return null;
+        }
+        ConfigSnapshot config = CONFIG_CACHE.get(name);
+        if (config == null) {
+            Map<String, String> values = loadResourceAsMap(name);
+            replaceKeywordInMap(values);
+            config = new ConfigSnapshot(values, false);
+            ConfigSnapshot previous = CONFIG_CACHE.putIfAbsent(name, config);
+            if (previous != null) {
+                config = previous;
             }
         }
+        return config;
+    }
+
+    /**
+     * {@link #loadConfig(String)}でキャッシュした設定値を削除します。
+     * @param name クラスパスの名前。nullを指定した場合は全ての設定値を削除します。
+     */
+    public static void invalidateConfig(String name) {
+        if (name == null) {
+            CONFIG_CACHE.clear();
+        } else {
+            CONFIG_CACHE.remove(name);
+        }
     }
 
     /**
      * プロパティの値の"{&lt;keyword&gt;}の部分を、システムプロパティ及びパラメータで指定された
      * プロパティの&lt;keyword&gt;の値で置換します。
+     * <p>
+     * 各プロパティの値を１回だけ走査して「${」と「}」で囲まれたキーワードを取り出し、
+     * パラメータで指定されたプロパティ、システムプロパティの順に検索して置換します。
+     * キーワードがプロパティの値を参照する場合、その値に含まれるキーワードも再帰的に
+     * 置換します（置換した値は記憶して再利用します）。「${${env}.host}」のように
+     * キーワードの中のキーワードは先に置換し、置換後の名前で検索します。
+     * 見つからないキーワード、及び「}」で閉じられていない「${」は置換せずにそのまま残します。
+     * システムプロパティの値に含まれるキーワードは置換しません。
+     * </p>
      * @param properties プロパティを指定します。nullを指定すると何もせずに復帰します。
+     * @throws IllegalArgumentException キーワードの参照が循環している場合
      */
     public static void replaceKeyword(Properties properties) {
         if (properties == null) {
             return;
         }
-        Properties keywords = new Properties();
-        keywords.putAll(System.getProperties());
-        keywords.putAll(properties);
-        Set<Object> keyset = properties.keySet();
-        for (Object key : keyset) {
-            String value = properties.getProperty(key.toString());
+        KeywordResolver resolver = new KeywordResolver(properties);
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            if (entry.getKey() instanceof String && entry.getValue() instanceof String) {
+                resolver.resolve((String) entry.getKey());
+            }
+        }
+        properties.putAll(resolver.resolved);
+    }
+
+    /**
+     * キーと値の表の値の"{&lt;keyword&gt;}の部分を、システムプロパティ及び表の&lt;keyword&gt;の値で
+     * 置換します。置換の規則は{@link #replaceKeyword(Properties)}と同じです。
+     * @param values キーと値の表を指定します。nullを指定すると何もせずに復帰します。
+     * @throws IllegalArgumentException キーワードの参照が循環している場合
+     */
+    public static void replaceKeywordInMap(Map<String, String> values) {
+        if (values == null) {
+            return;
+        }
+        KeywordResolver resolver = new KeywordResolver(values);
+        for (String key : values.keySet()) {
+            resolver.resolve(key);
+        }
+        values.putAll(resolver.resolved);
+    }
+
+    /**
+     * {@link PropertiesUtils#replaceKeyword(Properties)}、{@link PropertiesUtils#replaceKeywordInMap(Map)}の
+     * キーワードを置換します。
+     */
+    private static final class KeywordResolver {
+        /** キーワードの開始を表す文字列。 */
+        private static final String KEYWORD_BEGIN = "${";
+
+        /** キーワードの置換元のプロパティ。 */
+        private final Map<?, ?> properties;
+
+        /** キーワードを置換したプロパティの値。 */
+        private final Map<String, String> resolved = new HashMap<String, String>();
+
+        /** キーワードを置換中のプロパティのキー。参照の循環を検出するために使用します。 */
+        private final LinkedHashSet<String> resolving = new LinkedHashSet<String>();
+
+        /**
+         * キーワードの置換元のプロパティを指定して構築します。
+         * @param properties キーワードの置換元のプロパティ
+         */
+        private KeywordResolver(Map<?, ?> properties) {
+            this.properties = properties;
+        }
+
+        /**
+         * プロパティの値のキーワードを置換します。
+         * <p>
+         * 参照先のプロパティの置換は再帰呼び出しではなく{@link Task}のスタックで行うため、
+         * 参照の連鎖が長い場合もスタックを消費しません。
+         * </p>
+         * @param key 値が{@link String}のプロパティのキー
+         * @return キーワードを置換した値を返します。
+         * @throws IllegalArgumentException キーワードの参照が循環している場合
+         */
+        private String resolve(String key) {
+            String value = this.resolved.get(key);
             if (value != null) {
-                Set<Object> replacementKeySet = keywords.keySet();
-                for (Object replacementKey : replacementKeySet) {
-                    value = value.replace("${" + replacementKey.toString() + "}",
-                            keywords.getProperty(replacementKey.toString()));
+                return value;
+            }
+            Deque<Task> tasks = new ArrayDeque<Task>();
+            tasks.push(start(key));
+            while (!tasks.isEmpty()) {
+                Task task = tasks.peek();
+                String pending = task.run();
+                if (pending != null) {
+                    // 置換されていないプロパティを参照している場合は、先にそのプロパティを置換する
+                    tasks.push(start(pending));
+                } else {
+                    tasks.pop();
+                    this.resolving.remove(task.key);
+                    this.resolved.put(task.key, task.out.toString());
+                }
+            }
+            return this.resolved.get(key);
+        }
+
+        /**
+         * プロパティの値のキーワードの置換を開始します。
+         * @param key 値が{@link String}のプロパティのキー
+         * @return 置換の状態を返します。
+         * @throws IllegalArgumentException キーワードの参照が循環している場合
+         */
+        private Task start(String key) {
+            if (!this.resolving.add(key)) {
+                throw new IllegalArgumentException("Circular reference: "
+                        + String.join(" -> ", this.resolving) + " -> " + key);
+            }
+            return new Task(key, (String) this.properties.get(key));
+        }
+
+        /**
+         * キーワードの中の文字列の開始位置と、その中で置換した文字列。
+         */
+        private static final class Frame {
+            /** キーワードの「${」の位置。 */
+            private final int start;
+
+            /** キーワードの中で置換した文字列。 */
+            private final StringBuilder name = new StringBuilder();
+
+            /**
+             * キーワードの「${」の位置を指定して構築します。
+             * @param start キーワードの「${」の位置
+             */
+            private Frame(int start) {
+                this.start = start;
+            }
+        }
+
+        /**
+         * １つのプロパティの値のキーワードを置換する状態。
+         * <p>
+         * 入れ子になったキーワードは{@link Frame}のスタックで管理し、参照先のプロパティが
+         * 置換されていない場合は{@link #run()}を中断して、置換後に続きから再開します。
+         * </p>
+         */
+        private final class Task {
+            /** プロパティのキー。 */
+            private final String key;
+
+            /** プロパティの値。 */
+            private final String raw;
+
+            /** キーワードを置換した値。 */
+            private final StringBuilder out;
+
+            /** 閉じられていないキーワード。 */
+            private final Deque<Frame> frames = new ArrayDeque<Frame>();
+
+            /** 次に走査する位置。 */
+            private int index = 0;
+
+            /** 置換を待っているプロパティのキー。 */
+            private String pending = null;
+
+            /**
+             * プロパティのキーと値を指定して構築します。
+             * @param key プロパティのキー
+             * @param raw プロパティの値
+             */
+            private Task(String key, String raw) {
+                this.key = key;
+                this.raw = raw;
+                this.out = new StringBuilder(raw.length() + 16);
+            }
+
+            /**
+             * 値を走査してキーワードを置換します。
+             * @return 置換されていないプロパティを参照した場合はそのキーを返します。
+             *      値の最後まで置換した場合はnullを返します。
+             */
+            private String run() {
+                String s = this.raw;
+                int length = s.length();
+                if (this.pending != null) {
+                    target().append(KeywordResolver.this.resolved.get(this.pending));
+                    this.pending = null;
+                } else if (this.index == 0 && s.indexOf(KEYWORD_BEGIN) < 0) {
+                    this.out.append(s);
+                    this.index = length;
+                }
+                while (this.index < length) {
+                    int i = this.index;
+                    char c = s.charAt(i);
+                    if (c == '$' && i + 1 < length && s.charAt(i + 1) == '{') {
+                        this.frames.push(new Frame(i));
+                        this.index = i + 2;
+                    } else if (c == '}' && !this.frames.isEmpty()) {
+                        String name = this.frames.pop().name.toString();
+                        this.index = i + 1;
+                        if (!lookup(name)) {
+                            this.pending = name;
+                            return name;
+                        }
+                    } else {
+                        target().append(c);
+                        this.index = i + 1;
+                    }
+                }
+                if (!this.frames.isEmpty()) {
+                    // 閉じられていない最も外側の「${」以降は、値の最後まで一度だけそのまま残す
+                    this.out.append(s, this.frames.peekLast().start, length);
+                    this.frames.clear();
+                }
+                return null;
+            }
+
+            /**
+             * 置換した文字列を追加する{@link StringBuilder}を返します。
+             * @return キーワードの中を走査している場合はキーワードの{@link StringBuilder}、
+             *      それ以外は値の{@link StringBuilder}を返します。
+             */
+            private StringBuilder target() {
+                return this.frames.isEmpty() ? this.out : this.frames.peek().name;
+            }
+
+            /**
+             * キーワードの値を検索して追加します。
+             * @param name キーワード
+             * @return 値を追加した場合はtrue、置換されていないプロパティを参照している場合はfalseを返します。
+             */
+            private boolean lookup(String name) {
+                if (KeywordResolver.this.properties.get(name) instanceof String) {
+                    String value = KeywordResolver.this.resolved.get(name);
+                    if (value == null) {
+                        return false;
+                    }
+                    target().append(value);
+                    return true;
+                }
+                String value = System.getProperties().getProperty(name);
+                if (value != null) {
+                    target().append(value);
+                } else {
+                    target().append(KEYWORD_BEGIN).append(name).append('}');
                 }
-                properties.put(key, value);
+                return true;
             }
         }
     }
@@ -0,0 +1,244 @@
+package myproject.java.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * プロパティファイルの変更を監視し、変更された設定値を再読み込みします。
+ * <p>
+ * プロパティファイルのディレクトリを{@link WatchService}で監視し、ファイルが作成又は更新されると
+ * 監視スレッドでプロパティファイルを読み込み、{@link PropertiesUtils#replaceKeywordInMap(Map)}で
+ * キーワードを置換した{@link ConfigSnapshot}を作成します。作成した設定値はvolatileフィールドの
+ * 書き換えにより公開するため、{@link #get()}で設定値を参照するスレッドはロックを取得しません。
+ * 設定値が変更された場合は、登録されたリスナーに変更されたキーを通知します。
+ * </p>
+ * <p>
+ * 更新中のファイルを読み込まないように、最後のイベントから{@link #QUIET_PERIOD_MILLIS}ミリ秒間
+ * イベントが発生しなくなってから読み込みます。読み込みに失敗した場合は直前の設定値を保持し、
+ * {@link Listener#reloadFailed(Exception)}で通知します。リスナーで発生した{@link RuntimeException}は
+ * 無視し、残りのリスナーへの通知とファイルの監視を継続します。
+ * </p>
+ * <p>
+ * Copyright ycookjp
+ * https://github.com/ycookjp/
+ * </p>
+ * <table border='1'><caption>【使用例】</caption><tr><td><pre>
+ * import myproject.java.utils.ReloadableConfig;
+ * ...
+ * ReloadableConfig config = new ReloadableConfig(Paths.get("conf/app.properties"));
+ * config.addListener((oldConfig, newConfig, changedKeys) -&gt; {
+ *     if (changedKeys.contains("pool.size")) {
+ *         pool.resize(newConfig.getInt("pool.size", 10));
+ *     }
+ * });
+ * ...
+ * int timeout = config.get().getInt("request.timeout", 30);
+ * ...
+ * config.close();
+ * </pre></td></tr></table>
+ */
+public class ReloadableConfig implements Closeable {
+
+    /** 最後のイベントから再読み込みするまでの待ち時間（ミリ秒）。 */
+    public static final long QUIET_PERIOD_MILLIS = 100;
+
+    /**
+     * 設定値の変更を通知するリスナー。
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * 設定値が変更された時に、監視スレッド又は{@link ReloadableConfig#reload()}を
+         * 呼び出したスレッドから呼び出されます。
+         * @param oldConfig 変更前の設定値
+         * @param newConfig 変更後の設定値
+         * @param changedKeys 追加、削除又は値が変更されたキーの集合
+         */
+        void configChanged(ConfigSnapshot oldConfig, ConfigSnapshot newConfig, Set<String> changedKeys);
+
+        /**
+         * 監視スレッドでの再読み込みに失敗した時に呼び出されます。
+         * @param e 発生した例外
+         */
+        default void reloadFailed(Exception e) {
+        }
+    }
+
+    /** プロパティファイルのパス。 */
+    private final Path file;
+
+    /** 現在の設定値。 */
+    private volatile ConfigSnapshot snapshot;
+
+    /** 登録されたリスナー。 */
+    private final List<Listener> listeners = new CopyOnWriteArrayList<Listener>();
+
+    /** ディレクトリを監視するサービス。 */
+    private final WatchService watchService;
+
+    /** 監視スレッド。 */
+    private final Thread watchThread;
+
+    /**
+     * プロパティファイルのパスを指定して、設定値を読み込み、ファイルの監視を開始します。
+     * @param file プロパティファイルのパス
+     * @throws IOException プロパティファイルの読み込み、又は監視の開始に失敗した場合
+     */
+    public ReloadableConfig(Path file) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.snapshot = load();
+
+        this.watchService = FileSystems.getDefault().newWatchService();
+        try {
+            this.file.getParent().register(this.watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            this.watchService.close();
+            throw e;
+        }
+        this.watchThread = new Thread(this::watch, "ReloadableConfig-" + this.file.getFileName());
+        this.watchThread.setDaemon(true);
+        this.watchThread.start();
+    }
+
+    /**
+     * 現在の設定値を取得します。
+     * @return 現在の設定値を返します。
+     */
+    public ConfigSnapshot get() {
+        return this.snapshot;
+    }
+
+    /**
+     * プロパティファイルのパスを取得します。
+     * @return プロパティファイルの絶対パスを返します。
+     */
+    public Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * 設定値の変更を通知するリスナーを登録します。
+     * @param listener リスナー
+     */
+    public void addListener(Listener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * 登録したリスナーを削除します。
+     * @param listener リスナー
+     */
+    public void removeListener(Listener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * プロパティファイルを読み込み、設定値が変更されていれば新しい設定値に置き換えて
+     * リスナーに通知します。リスナーで発生した{@link RuntimeException}は無視して、
+     * 残りのリスナーに通知します。
+     * @return 追加、削除又は値が変更されたキーの集合を返します。変更されていない場合は空の集合を返します。
+     * @throws IOException プロパティファイルの読み込みに失敗した場合
+     */
+    public synchronized Set<String> reload() throws IOException {
+        ConfigSnapshot oldConfig = this.snapshot;
+        ConfigSnapshot newConfig = load();
+        Set<String> changedKeys = oldConfig.diff(newConfig);
+        if (!changedKeys.isEmpty()) {
+            this.snapshot = newConfig;
+            for (Listener listener : this.listeners) {
+                try {
+                    listener.configChanged(oldConfig, newConfig, changedKeys);
+                } catch (RuntimeException e) {
+                    // 設定値は置き換えたため、残りのリスナーへの通知を継続する
+                }
+            }
+        }
+        return changedKeys;
+    }
+
+    /**
+     * ファイルの監視を終了します。
+     * @throws IOException 監視の終了に失敗した場合
+     */
+    @Override
+    public void close() throws IOException {
+        this.watchService.close();
+        this.watchThread.interrupt();
+    }
+
+    /**
+     * プロパティファイルを読み込み、キーワードを置換した設定値を作成します。
+     * @return 作成した設定値を返します。
+     * @throws IOException プロパティファイルの読み込みに失敗した場合
+     */
+    private ConfigSnapshot load() throws IOException {
+        Map<String, String> values = PropertiesUtils.loadFileAsMap(this.file);
+        try {
+            PropertiesUtils.replaceKeywordInMap(values);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(this.file + ": " + e.getMessage(), e);
+        }
+        return new ConfigSnapshot(values, false);
+    }
+
+    /**
+     * 監視スレッドで、プロパティファイルの変更を待って再読み込みします。
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = this.watchService.take();
+                boolean changed = pollEvents(key);
+                // 更新中のファイルを読み込まないように、イベントが発生しなくなるまで待つ
+                while ((key = this.watchService.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= pollEvents(key);
+                }
+                if (changed) {
+                    try {
+                        reload();
+                    } catch (IOException | RuntimeException e) {
+                        for (Listener listener : this.listeners) {
+                            try {
+                                listener.reloadFailed(e);
+                            } catch (RuntimeException re) {
+                                // 監視スレッドを終了させないよう、残りのリスナーへの通知を継続する
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // close()により終了
+        }
+    }
+
+    /**
+     * 監視キーのイベントを取り出して、プロパティファイルが変更されたか判定します。
+     * @param key 監視キー
+     * @return プロパティファイルが変更された可能性がある場合はtrueを返します。
+     */
+    private boolean pollEvents(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || this.file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
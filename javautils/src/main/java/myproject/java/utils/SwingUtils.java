@@ -2,12 +2,23 @@ package myproject.java.utils;
 
 import java.awt.Component;
 import java.awt.Container;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * SwingのComponentに対するユーティリティ機能を提供します。
  * <p>
  * この実装は、性能について考慮されていないため実際に適用する場合は適宜ソースコードの
  * 改変を検討してください。
+ * 同じ{@link Container}から繰り返し{@link Component}を取得する場合は、{@link ComponentNameIndex}で
+ * 名前の索引を作成してください。
  *
  * Copyright ycookjp
  * https://github.com/ycookjp/
@@ -20,8 +31,8 @@ public class SwingUtils {
 
     /**
      * {@link Component}の名前を指定して、{@link Container}に保持されている{@link Component}を
-     * 取得します。引数で指定された{@link Container}が保持する{@link Component}から指定された
-     * 名前のものが見つからなかった場合は、再帰的に{@link Component}を検索します。
+     * 取得します。{@link Container}が保持する{@link Component}を階層の浅い順に検索し、
+     * 同じ名前の{@link Component}が複数ある場合は最も浅い階層のものを返します。
      * <dl>
      * <dt>JFrameからComponentを取得する例</dt>
      * <dd>
@@ -42,32 +53,129 @@ public class SwingUtils {
      *     指定された名前の{@link Container}が見つからなかった場合はnullを返します。
      */
     public static Component getComponentByName(Container container, String name) {
-        Component result = null;
         if (container == null || name == null) {
             return null;
         }
 
-        Component[] components = container.getComponents();
-        for (Component component : components) {
-            String componentName = component.getName();
-            if (name.equals(componentName)) {
-                // 指定された名前のComponentが見つかったらそのコンポーネントを返す。
-                result = component;
-                break;
+        // 階層の浅い順に検索し、深い階層でもスタックを消費しないよう再帰せずにキューで辿る
+        Deque<Container> queue = new ArrayDeque<Container>();
+        queue.add(container);
+        while (!queue.isEmpty()) {
+            for (Component component : queue.poll().getComponents()) {
+                if (name.equals(component.getName())) {
+                    // 指定された名前のComponentが見つかったらそのコンポーネントを返す。
+                    return component;
+                }
+                if (component instanceof Container) {
+                    queue.add((Container) component);
+                }
             }
         }
 
-        if (result == null) {
-            // Container直下のComponentから見つからなかった場合は、再帰的にComponentを取得する
-            for (Component component  : components) {
-                if (component instanceof Container) {
-                    Container childContainer = (Container) component;
-                    Component child = getComponentByName(childContainer, name);
-                    if (child != null && name.equals(child.getName())) {
-                        result = child;
+        return null;
+    }
+
+    /**
+     * {@link Component}の名前と型を指定して、{@link Container}に保持されている{@link Component}を
+     * 取得します。
+     * @param <T> 取得する{@link Component}の型
+     * @param container 取得対象の{@link Component}を保持している{@link Container}
+     * @param name 検索対象の{@link Component}の名前
+     * @param type 取得する{@link Component}の型
+     * @return 取得した{@link Component}のインスタンスを返します。
+     *     引数container、またはnameにnullが指定された場合はnullを返します。
+     *     指定された名前の{@link Component}が見つからなかった場合はnullを返します。
+     * @throws ClassCastException 取得した{@link Component}が指定した型でない場合
+     * @see #getComponentByName(Container, String)
+     */
+    public static <T extends Component> T getComponentByName(Container container, String name, Class<T> type) {
+        return type.cast(getComponentByName(container, name));
+    }
+
+    /**
+     * 複数の{@link Component}の名前を指定して、{@link Container}に保持されている{@link Component}を
+     * １回の検索でまとめて取得します。
+     * <p>
+     * {@link #getComponentByName(Container, String)}と同じく階層の浅い順に検索し、
+     * 指定された全ての名前の{@link Component}が見つかった時点で検索を終了します。
+     * </p>
+     * <table border="1"><caption>コードの例</caption><tr><td><pre>
+     * Map&lt;String, Component&gt; components = SwingUtils.getComponentsByName(frame.getContentPane(),
+     *         "buttonName1", "buttonName2", "textPane");
+     * JTextPane textPane = (JTextPane) components.get("textPane");
+     * </pre></td></tr></table>
+     * @param container 取得対象の{@link Component}を保持している{@link Container}
+     * @param names 検索対象の{@link Component}の名前
+     * @return 名前と、取得した{@link Component}の表を返します。見つからなかった名前は表に含まれません。
+     *     引数containerにnullが指定された場合は空の表を返します。
+     */
+    public static Map<String, Component> getComponentsByName(Container container, String... names) {
+        Map<String, Component> result = new HashMap<String, Component>();
+        if (container == null) {
+            return result;
+        }
+        Set<String> remaining = new HashSet<String>();
+        for (String name : names) {
+            if (name != null) {
+                remaining.add(name);
+            }
+        }
+
+        Deque<Container> queue = new ArrayDeque<Container>();
+        queue.add(container);
+        while (!remaining.isEmpty() && !queue.isEmpty()) {
+            for (Component component : queue.poll().getComponents()) {
+                String componentName = component.getName();
+                if (componentName != null && remaining.remove(componentName)) {
+                    result.put(componentName, component);
+                    if (remaining.isEmpty()) {
                         break;
                     }
                 }
+                if (component instanceof Container) {
+                    queue.add((Container) component);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * {@link Container}に保持されている{@link Component}から、指定された型で条件を満たすものを
+     * 全て取得します。
+     * <table border="1"><caption>コードの例</caption><tr><td><pre>
+     * List&lt;JButton&gt; buttons = SwingUtils.findAll(frame.getContentPane(), JButton.class,
+     *         button -&gt; button.isEnabled());
+     * </pre></td></tr></table>
+     * @param <T> 取得する{@link Component}の型
+     * @param container 取得対象の{@link Component}を保持している{@link Container}
+     * @param type 取得する{@link Component}の型
+     * @param predicate {@link Component}を取得する条件。nullの場合は指定された型の全ての
+     *     {@link Component}を取得します。
+     * @return 取得した{@link Component}を、階層の浅い順に返します。
+     *     引数containerにnullが指定された場合は空のリストを返します。
+     */
+    public static <T extends Component> List<T> findAll(Container container, Class<T> type,
+            Predicate<? super T> predicate) {
+        List<T> result = new ArrayList<T>();
+        if (container == null) {
+            return result;
+        }
+
+        Deque<Container> queue = new ArrayDeque<Container>();
+        queue.add(container);
+        while (!queue.isEmpty()) {
+            for (Component component : queue.poll().getComponents()) {
+                if (type.isInstance(component)) {
+                    T typed = type.cast(component);
+                    if (predicate == null || predicate.test(typed)) {
+                        result.add(typed);
+                    }
+                }
+                if (component instanceof Container) {
+                    queue.add((Container) component);
+                }
             }
         }
 
@@ -0,0 +1,223 @@
+package test.myproject.java.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.ClassFileReader;
+
+/**
+ * {@link ClassFileReader}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class ClassFileReaderTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(ClassFileReaderTest.class);
+
+    /** テストで使用する、実行時に参照できないアノテーション。 */
+    @Retention(RetentionPolicy.CLASS)
+    public @interface Marker {
+        /**
+         * テストで使用する値。
+         * @return 値を返します。
+         */
+        Class<?>[] value() default {};
+    }
+
+    /**
+     * テストで解析するクラス。
+     * @param <T> 型パラメータ
+     */
+    @Deprecated
+    @Marker({String.class, Integer.class})
+    public static class Sample<T extends Number> extends ArrayList<T> implements Callable<T>, Serializable {
+        /** シリアル・バージョンUID。 */
+        private static final long serialVersionUID = 1L;
+        /** 定数。 */
+        public static final double RATE = 1.5;
+        /** 日本語の名前のフィールド。 */
+        @Marker
+        protected String 名前;
+        /** ジェネリクスのフィールド。 */
+        private List<T> values;
+
+        @Override
+        @Deprecated
+        public T call() {
+            return null;
+        }
+
+        /**
+         * テストで使用するメソッド。
+         * @param count 件数
+         * @param names 名前
+         * @return 常に0を返します。
+         */
+        int count(int count, String[] names) {
+            return 0;
+        }
+    }
+
+    /**
+     * クラスファイルの内容を読み込みます。
+     * @param classz クラス
+     * @return クラスファイルの内容を返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    private static byte[] readClassFile(Class<?> classz) throws IOException {
+        String name = classz.getName();
+        try (InputStream in = classz.getResourceAsStream(name.substring(name.lastIndexOf('.') + 1) + ".class")) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * {@link ClassFileReader}のクラスの情報を取得するメソッドのテストを実行します。
+     * <ul>
+     * <li>クラス名、スーパー・クラス名、インターフェース名、アクセス修飾子が取得できること</li>
+     * <li>保存ポリシーがRUNTIME及びCLASSのアノテーションが取得できること</li>
+     * <li>ジェネリクスのシグネチャが取得できること</li>
+     * <li>位置が０でない{@link ByteBuffer}を解析できること</li>
+     * <li>{@link Object}のスーパー・クラス名はnullとなること</li>
+     * <li>クラスファイルでない内容を指定すると{@link IOException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testClass() {
+        logger.debug("***** BEGIN testClass");
+
+        try {
+            byte[] bytes = readClassFile(Sample.class);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 3);
+            buffer.put(new byte[] {1, 2, 3}).put(bytes).flip().position(3);
+            ClassFileReader reader = new ClassFileReader(buffer);
+            Assert.assertEquals("バッファの位置が変更されないこと", 3, buffer.position());
+
+            Assert.assertTrue("メジャー・バージョンが取得できること", reader.getMajorVersion() >= 55);
+            Assert.assertEquals("クラス名が取得できること", Sample.class.getName(), reader.getClassName());
+            Assert.assertEquals("スーパー・クラス名が取得できること", ArrayList.class.getName(),
+                    reader.getSuperclassName());
+            Assert.assertEquals("インターフェース名が取得できること",
+                    Arrays.asList(Callable.class.getName(), Serializable.class.getName()),
+                    reader.getInterfaceNames());
+            Assert.assertEquals("アクセス修飾子が取得できること", Sample.class.getModifiers() & 0x0001,
+                    reader.getAccessFlags() & 0x0001);
+            Assert.assertEquals("アノテーションが取得できること",
+                    Arrays.asList(Deprecated.class.getName(), Marker.class.getName()), reader.getAnnotationNames());
+            Assert.assertTrue("CLASSのアノテーションが判定できること", reader.hasAnnotation(Marker.class.getName()));
+            Assert.assertFalse("付けられていないアノテーションが判定できること",
+                    reader.hasAnnotation(Retention.class.getName()));
+            Assert.assertEquals("シグネチャが取得できること",
+                    "<T:Ljava/lang/Number;>Ljava/util/ArrayList<TT;>;Ljava/util/concurrent/Callable<TT;>;"
+                    + "Ljava/io/Serializable;", reader.getSignature());
+
+            Assert.assertNull("Objectのスーパー・クラス名はnullとなること",
+                    new ClassFileReader(readClassFile(Object.class)).getSuperclassName());
+        } catch (IOException e) {
+            Assert.fail(e.toString());
+        }
+
+        try {
+            new ClassFileReader(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE, 0, 0});
+            Assert.fail("途中で終わるクラスファイルを指定するとIOExceptionが発生すること：例外が発生しない");
+        } catch (IOException e) {
+            // OK
+        }
+        try {
+            new ClassFileReader("not a class file".getBytes());
+            Assert.fail("クラスファイルでない内容を指定するとIOExceptionが発生すること：例外が発生しない");
+        } catch (IOException e) {
+            // OK
+        } finally {
+            logger.debug("***** END testClass");
+        }
+    }
+
+    /**
+     * {@link ClassFileReader#getFields()}、{@link ClassFileReader#getMethods()}のテストを
+     * 実行します。
+     * <ul>
+     * <li>リフレクションで取得したフィールド及びメソッドと同じ名前が取得できること</li>
+     * <li>型の記述子、アクセス修飾子、シグネチャ、アノテーションが取得できること</li>
+     * <li>日本語の名前を解析できること</li>
+     * </ul>
+     */
+    @Test
+    public void testMembers() {
+        logger.debug("***** BEGIN testMembers");
+
+        try {
+            ClassFileReader reader = new ClassFileReader(readClassFile(Sample.class));
+
+            List<String> expected = new ArrayList<String>();
+            for (Field field : Sample.class.getDeclaredFields()) {
+                if (!field.isSynthetic()) {
+                    expected.add(field.getName());
+                }
+            }
+            List<String> actual = new ArrayList<String>();
+            for (ClassFileReader.MemberInfo field : reader.getFields()) {
+                if ((field.getAccessFlags() & 0x1000) == 0) {
+                    actual.add(field.getName());
+                }
+            }
+            Assert.assertEquals("フィールド名が取得できること", expected, actual);
+
+            ClassFileReader.MemberInfo field = reader.getFields().get(2);
+            Assert.assertEquals("日本語のフィールド名が取得できること", "名前", field.getName());
+            Assert.assertEquals("フィールドの記述子が取得できること", "Ljava/lang/String;", field.getDescriptor());
+            Assert.assertEquals("フィールドのアクセス修飾子が取得できること", 0x0004, field.getAccessFlags());
+            Assert.assertTrue("フィールドのアノテーションが判定できること", field.hasAnnotation(Marker.class.getName()));
+            Assert.assertNull("シグネチャがない場合はnullとなること", field.getSignature());
+            Assert.assertEquals("フィールドのシグネチャが取得できること", "Ljava/util/List<TT;>;",
+                    reader.getFields().get(3).getSignature());
+
+            expected = new ArrayList<String>();
+            for (Method method : Sample.class.getDeclaredMethods()) {
+                // カバレッジ計測で実行時に追加されるメソッドを除く
+                if (!method.getName().startsWith("$")) {
+                    expected.add(method.getName());
+                }
+            }
+            expected.add("<init>");
+            actual = new ArrayList<String>();
+            for (ClassFileReader.MemberInfo method : reader.getMethods()) {
+                actual.add(method.getName());
+            }
+            expected.sort(null);
+            actual.sort(null);
+            Assert.assertEquals("メソッド名が取得できること", expected, actual);
+
+            for (ClassFileReader.MemberInfo method : reader.getMethods()) {
+                if (method.getName().equals("count")) {
+                    Assert.assertEquals("メソッドの記述子が取得できること", "(I[Ljava/lang/String;)I",
+                            method.getDescriptor());
+                    Assert.assertTrue("アノテーションがない場合は空の一覧となること",
+                            method.getAnnotationNames().isEmpty());
+                } else if (method.getName().equals("call") && (method.getAccessFlags() & 0x0040) == 0) {
+                    Assert.assertEquals("メソッドのアノテーションが取得できること",
+                            Arrays.asList(Deprecated.class.getName()), method.getAnnotationNames());
+                    Assert.assertEquals("メソッドのシグネチャが取得できること", "()TT;", method.getSignature());
+                }
+            }
+        } catch (IOException e) {
+            Assert.fail(e.toString());
+        } finally {
+            logger.debug("***** END testMembers");
+        }
+    }
+}
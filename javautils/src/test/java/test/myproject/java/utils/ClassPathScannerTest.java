@@ -0,0 +1,139 @@
+package test.myproject.java.utils;
+
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.ClassPathScanner;
+
+/**
+ * {@link ClassPathScanner}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class ClassPathScannerTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(ClassPathScannerTest.class);
+
+    /** テストで使用する、実行時に参照できないアノテーション。 */
+    @Retention(RetentionPolicy.CLASS)
+    public @interface Marker {
+        /**
+         * テストで使用する値。
+         * @return 値を返します。
+         */
+        String[] value() default {};
+    }
+
+    /** {@link Marker}と他のアノテーションが付けられたクラス。 */
+    @Deprecated
+    @Marker({"a", "b"})
+    public static class Annotated { }
+
+    /**
+     * クラスパスのディレクトリに対して{@link ClassPathScanner#scanClasses()}、
+     * {@link ClassPathScanner#scanResources()}のテストを実行します。
+     * <ul>
+     * <li>指定したパッケージ及びサブパッケージのクラスが列挙されること</li>
+     * <li>無名パッケージを指定すると全てのパッケージのクラスが列挙されること</li>
+     * <li>指定したアノテーションが付けられたクラスのみが列挙されること</li>
+     * <li>複数のスレッドで読み込んでも同じ結果となること</li>
+     * <li>{@link ClassPathScanner#scanClasses(java.util.function.Predicate)}で条件を満たすクラスのみが列挙されること</li>
+     * <li>クラスファイル以外のリソースが列挙されること</li>
+     * </ul>
+     */
+    @Test
+    public void testScanDirectory() {
+        logger.debug("***** BEGIN testScanDirectory");
+
+        try {
+            ClassPathScanner scanner = ClassPathScanner.forClass(ClassPathScannerTest.class)
+                    .packages("test.myproject.java.utils");
+            List<String> classes = scanner.scanClasses();
+            Assert.assertTrue("パッケージのクラスが列挙されること",
+                    classes.contains(ClassPathScannerTest.class.getName()));
+            Assert.assertTrue("入れ子クラスが列挙されること", classes.contains(Annotated.class.getName()));
+            Assert.assertTrue("サブパッケージのクラスが列挙されること",
+                    classes.contains("test.myproject.java.utils.swing.SwingUtilsTest"));
+
+            scanner.packages("test.myproject.java.utils.swing");
+            for (String className : scanner.scanClasses()) {
+                Assert.assertTrue("指定したパッケージのクラスのみが列挙されること",
+                        className.startsWith("test.myproject.java.utils.swing."));
+            }
+
+            Assert.assertEquals("無名パッケージを指定すると全てのパッケージのクラスが列挙されること",
+                    scanner.packages().scanClasses(), scanner.packages("").scanClasses());
+
+            scanner.packages("test.myproject").annotatedWith(Marker.class);
+            Assert.assertEquals("CLASSのアノテーションが付けられたクラスのみが列挙されること",
+                    List.of(Annotated.class.getName()), scanner.scanClasses());
+            Assert.assertEquals("複数のスレッドで読み込んでも同じ結果となること",
+                    scanner.scanClasses(), scanner.parallel(false).scanClasses());
+            scanner.annotatedWith(Deprecated.class.getName(), "java.lang.FunctionalInterface");
+            classes = scanner.scanClasses();
+            Assert.assertTrue("RUNTIMEのアノテーションが付けられたクラスが列挙されること",
+                    classes.contains(Annotated.class.getName()));
+            Assert.assertFalse("アノテーションが付けられていないクラスは列挙されないこと",
+                    classes.contains(ClassPathScannerTest.class.getName()));
+
+            Assert.assertEquals("クラスファイルの条件を満たすクラスのみが列挙されること",
+                    List.of(ClassPathScannerTest.class.getName()),
+                    scanner.annotatedWith().packages("test.myproject.java.utils")
+                            .scanClasses(classFile -> classFile.getClassName().endsWith("ScannerTest")));
+
+            Assert.assertTrue("クラスファイル以外のリソースが列挙されること",
+                    scanner.scanResources().contains("test/myproject/java/utils/testprop.properties"));
+        } catch (IOException | URISyntaxException e) {
+            Assert.fail(e.toString());
+        } finally {
+            logger.debug("***** END testScanDirectory");
+        }
+    }
+
+    /**
+     * jarファイルに対して{@link ClassPathScanner#scanClasses()}のテストを実行します。
+     * <ul>
+     * <li>指定したパッケージのクラスが列挙されること</li>
+     * <li>指定したアノテーションが付けられたクラスのみが列挙されること</li>
+     * <li>存在しないファイルを指定すると{@link IOException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testScanJar() {
+        logger.debug("***** BEGIN testScanJar");
+
+        try {
+            ClassPathScanner scanner = ClassPathScanner.forClass(Test.class).packages("org.junit");
+            List<String> classes = scanner.scanClasses();
+            Assert.assertTrue("jarファイルのクラスが列挙されること", classes.contains(Test.class.getName()));
+            Assert.assertTrue("サブパッケージのクラスが列挙されること", classes.contains(Assert.class.getName()));
+            Assert.assertFalse("他のパッケージのクラスは列挙されないこと",
+                    classes.contains("junit.framework.TestCase"));
+
+            List<String> annotations = scanner.annotatedWith(Retention.class).scanClasses();
+            Assert.assertTrue("アノテーションが付けられたクラスが列挙されること",
+                    annotations.contains(Test.class.getName()));
+            Assert.assertFalse("アノテーションが付けられていないクラスは列挙されないこと",
+                    annotations.contains(Assert.class.getName()));
+        } catch (IOException | URISyntaxException e) {
+            Assert.fail(e.toString());
+        }
+
+        try {
+            new ClassPathScanner(Paths.get("target", "notfound.jar")).scanClasses();
+            Assert.fail("存在しないファイルを指定するとIOExceptionが発生すること：例外が発生しない");
+        } catch (IOException e) {
+            // OK
+        } finally {
+            logger.debug("***** END testScanJar");
+        }
+    }
+}
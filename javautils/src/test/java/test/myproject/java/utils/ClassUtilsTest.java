@@ -4,16 +4,32 @@ import java.awt.Component;
 import java.awt.image.ImageObserver;
 import java.beans.VetoableChangeListener;
 import java.io.File;
+import java.io.IOException;
 import java.io.ObjectOutputStream;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.Stream;
 
 import javax.swing.JComponent;
 import javax.swing.table.JTableHeader;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +38,7 @@ import myproject.java.utils.ClassUtils;
 import myproject.java.utils.ExceptionUtils;
 
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
 /**
@@ -33,6 +50,43 @@ public class ClassUtilsTest {
     /** Logger. */
     private static Logger logger = LoggerFactory.getLogger(ClassUtilsTest.class);
 
+    /** アクセサのテストで使用するクラス。 */
+    private static class Bean {
+        /** 定数。 */
+        private static final String CONSTANT = "constant";
+        /** getterメソッドがあるフィールド。 */
+        private long id = 10L;
+        /** booleanのgetterメソッドがあるフィールド。 */
+        private boolean enabled = true;
+        /** getterメソッドがないフィールド。 */
+        private String name = "bean";
+
+        /**
+         * IDを取得します。getterメソッドで取得されたことがわかるよう、フィールドの値に１を加えて返します。
+         * @return IDを返します。
+         */
+        public long getId() {
+            return this.id + 1;
+        }
+
+        /**
+         * 有効フラグを取得します。
+         * @return 有効フラグを返します。
+         */
+        public boolean isEnabled() {
+            return this.enabled;
+        }
+
+        /**
+         * 名前に文字列を連結します。
+         * @param suffix 連結する文字列
+         * @return 連結した文字列を返します。
+         */
+        private String concat(String suffix) {
+            return this.name + suffix;
+        }
+    }
+
     /**
      * {@link ClassUtils#getClassDirParent(Class)}メソッドのテストを実行します。
      * <ul>
@@ -361,4 +415,303 @@ public class ClassUtilsTest {
 
         logger.debug("***** END testFindMethod");
     }
+
+    /**
+     * {@link ClassUtils#findField(Class, String, int)}及び
+     * {@link ClassUtils#findMethod(Class, String, Class[], int)}の検索結果のキャッシュをテストします。
+     * <ul>
+     * <li>同じ引数で呼び出すと同じインスタンスが返ること</li>
+     * <li>パラメータの型の配列を変更しても、キャッシュされた結果に影響しないこと</li>
+     * <li>アクセス修飾子が異なる場合は別に検索されること</li>
+     * <li>見つからなかった結果もキャッシュされ、２回目以降も例外が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testFindCache() {
+        logger.debug("***** BEGIN testFindCache");
+
+        try {
+            Field field = ClassUtils.findField(JTableHeader.class, "accessibleContext", -1);
+            Assert.assertSame("同じ引数で同じFieldのインスタンスが返ること", field,
+                    ClassUtils.findField(JTableHeader.class, "accessibleContext", -1));
+
+            Class<?>[] types = new Class[] {VetoableChangeListener.class};
+            Method method = ClassUtils.findMethod(JTableHeader.class, "addVetoableChangeListener", types, -1);
+            types[0] = Object.class;
+            Assert.assertSame("同じ引数で同じMethodのインスタンスが返ること", method,
+                    ClassUtils.findMethod(JTableHeader.class, "addVetoableChangeListener",
+                            new Class[] {VetoableChangeListener.class}, -1));
+            Assert.assertSame("nullと長さ０の配列は同じパラメータの型とみなされること",
+                    ClassUtils.findMethod(JTableHeader.class, "toString", null, -1),
+                    ClassUtils.findMethod(JTableHeader.class, "toString", new Class[0], -1));
+        } catch (NoSuchFieldException | NoSuchMethodException | SecurityException e) {
+            Assert.fail(e.toString());
+        }
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                ClassUtils.findField(JTableHeader.class, "accessibleContext", Modifier.PUBLIC);
+                Assert.fail("アクセス修飾子が一致しない場合はNoSuchFieldException例外が発生すること");
+            } catch (NoSuchFieldException e) {
+                // OK
+            }
+            try {
+                ClassUtils.findMethod(JTableHeader.class, "bar", null, -1);
+                Assert.fail((i + 1) + "回目の呼び出しでNoSuchMethodException例外が発生すること");
+            } catch (NoSuchMethodException e) {
+                // OK
+            }
+        }
+
+        logger.debug("***** END testFindCache");
+    }
+
+    /**
+     * {@link ClassUtils#tryFindField(Class, String, int)}及び
+     * {@link ClassUtils#tryFindMethod(Class, String, Class[], int)}メソッドをテストします。
+     * <ul>
+     * <li>見つかる場合は{@link ClassUtils#findField(Class, String, int)}などと同じメンバーが返ること</li>
+     * <li>見つからない場合、アクセス修飾子が一致しない場合は空のOptionalが返ること</li>
+     * <li>引数にnullを指定すると空のOptionalが返ること</li>
+     * <li>
+     *   戻り値の型だけが異なるブリッジ・メソッドがある場合は、{@link Class#getDeclaredMethod(String, Class...)}と
+     *   同じ戻り値の型が最も具体的なメソッドが返ること
+     * </li>
+     * </ul>
+     */
+    @Test
+    public void testTryFind() {
+        logger.debug("***** BEGIN testTryFind");
+
+        try {
+            Assert.assertEquals("インターフェースのフィールドが返ること",
+                    ClassUtils.findField(JTableHeader.class, "WIDTH", -1),
+                    ClassUtils.tryFindField(JTableHeader.class, "WIDTH", -1).get());
+            Assert.assertEquals("スーパー・クラスのprivateフィールドが返ること", Component.class,
+                    ClassUtils.tryFindField(JTableHeader.class, "graphicsConfig", Modifier.PRIVATE).get()
+                            .getDeclaringClass());
+            Assert.assertEquals("スーパー・インターフェースのメソッドが返ること", Map.class,
+                    ClassUtils.tryFindMethod(SortedMap.class, "remove", new Class[] {Object.class, Object.class},
+                            Modifier.PUBLIC).get().getDeclaringClass());
+            Assert.assertEquals("戻り値の型が最も具体的なメソッドが返ること",
+                    StringBuilder.class.getDeclaredMethod("append", String.class),
+                    ClassUtils.tryFindMethod(StringBuilder.class, "append", new Class[] {String.class}, -1).get());
+        } catch (NoSuchFieldException | NoSuchMethodException | SecurityException e) {
+            Assert.fail(e.toString());
+        }
+
+        Assert.assertFalse("存在しないフィールドは空のOptionalが返ること",
+                ClassUtils.tryFindField(JTableHeader.class, "foo", -1).isPresent());
+        Assert.assertFalse("アクセス修飾子が一致しないフィールドは空のOptionalが返ること",
+                ClassUtils.tryFindField(JTableHeader.class, "graphicsConfig", Modifier.PROTECTED).isPresent());
+        Assert.assertFalse("存在しないメソッドは空のOptionalが返ること",
+                ClassUtils.tryFindMethod(JTableHeader.class, "bar", null, -1).isPresent());
+        Assert.assertFalse("アクセス修飾子が一致しないメソッドは空のOptionalが返ること",
+                ClassUtils.tryFindMethod(JTableHeader.class, "getRecursivelyVisibleBounds", null,
+                        Modifier.PUBLIC + Modifier.PROTECTED).isPresent());
+        Assert.assertFalse("クラスにnullを指定すると空のOptionalが返ること",
+                ClassUtils.tryFindField(null, "WIDTH", -1).isPresent());
+        Assert.assertFalse("メソッド名にnullを指定すると空のOptionalが返ること",
+                ClassUtils.tryFindMethod(JTableHeader.class, null, null, -1).isPresent());
+
+        logger.debug("***** END testTryFind");
+    }
+
+    /**
+     * {@link ClassUtils#getterFor(Class, String)}及び
+     * {@link ClassUtils#invokerFor(Class, String, Class[], Class)}などのメソッドをテストします。
+     * <ul>
+     * <li>getterメソッドがあるフィールドはgetterメソッドで値が取得されること</li>
+     * <li>getterメソッドがないprivateフィールド、staticフィールドの値が取得されること</li>
+     * <li>同じクラス及びフィールド名を指定すると同じインスタンスが返ること</li>
+     * <li>staticメソッドをプリミティブ型の関数型インタフェースで呼び出せること</li>
+     * <li>privateメソッドを関数型インタフェース及び{@link MethodHandle}で呼び出せること</li>
+     * <li>存在しないフィールド、メソッドを指定すると例外が発生すること</li>
+     * <li>関数型インタフェース以外を指定すると{@link IllegalArgumentException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testAccessor() {
+        logger.debug("***** BEGIN testAccessor");
+
+        Bean bean = new Bean();
+        try {
+            Function<Bean, Object> getter = ClassUtils.getterFor(Bean.class, "id");
+            Assert.assertEquals("getterメソッドで値が取得されること", Long.valueOf(11L), getter.apply(bean));
+            Assert.assertSame("同じインスタンスが返ること", getter, ClassUtils.getterFor(Bean.class, "id"));
+            Assert.assertEquals("isで始まるgetterメソッドで値が取得されること", Boolean.TRUE,
+                    ClassUtils.getterFor(Bean.class, "enabled").apply(bean));
+            Assert.assertEquals("privateフィールドの値が取得されること", "bean",
+                    ClassUtils.getterFor(Bean.class, "name").apply(bean));
+            Assert.assertEquals("staticフィールドの値が取得されること", "constant",
+                    ClassUtils.getterFor(Bean.class, "CONSTANT").apply(null));
+
+            IntBinaryOperator max = ClassUtils.invokerFor(Math.class, "max", new Class[] {int.class, int.class},
+                    IntBinaryOperator.class);
+            Assert.assertEquals("staticメソッドが呼び出せること", 3, max.applyAsInt(3, -5));
+            Assert.assertSame("同じインスタンスが返ること", max, ClassUtils.invokerFor(Math.class, "max",
+                    new Class[] {int.class, int.class}, IntBinaryOperator.class));
+
+            @SuppressWarnings("unchecked")
+            BiFunction<Bean, String, String> concat = ClassUtils.invokerFor(Bean.class, "concat",
+                    new Class[] {String.class}, BiFunction.class);
+            Assert.assertEquals("privateメソッドが関数型インタフェースで呼び出せること", "bean!",
+                    concat.apply(bean, "!"));
+            MethodHandle handle = ClassUtils.invokerFor(Bean.class, "concat", new Class[] {String.class});
+            Assert.assertEquals("privateメソッドがMethodHandleで呼び出せること", "bean?",
+                    (String) handle.invokeExact(bean, "?"));
+        } catch (Throwable t) {
+            Assert.fail(t.toString());
+        }
+
+        try {
+            ClassUtils.getterFor(Bean.class, "foo");
+            Assert.fail("存在しないフィールドを指定するとNoSuchFieldExceptionが発生すること：例外が発生しない");
+        } catch (NoSuchFieldException e) {
+            // OK
+        } catch (IllegalAccessException e) {
+            Assert.fail(e.toString());
+        }
+        try {
+            ClassUtils.invokerFor(Bean.class, "bar", null, Runnable.class);
+            Assert.fail("存在しないメソッドを指定するとNoSuchMethodExceptionが発生すること：例外が発生しない");
+        } catch (NoSuchMethodException e) {
+            // OK
+        } catch (IllegalAccessException e) {
+            Assert.fail(e.toString());
+        }
+        try {
+            ClassUtils.invokerFor(Math.class, "max", new Class[] {int.class, int.class}, Object.class);
+            Assert.fail("関数型インタフェース以外を指定するとIllegalArgumentExceptionが発生すること：例外が発生しない");
+        } catch (IllegalArgumentException e) {
+            // OK
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            Assert.fail(e.toString());
+        } finally {
+            logger.debug("***** END testAccessor");
+        }
+    }
+
+    /**
+     * 子のクラスローダーで読み込んだクラスに対して、{@link ClassUtils#getterFor(Class, String)}及び
+     * {@link ClassUtils#invokerFor(Class, String, Class[], Class)}メソッドをテストします。
+     * <ul>
+     * <li>publicクラスのgetterメソッドで値が取得されること</li>
+     * <li>publicクラスのpublicメソッドを関数型インタフェースで呼び出せること</li>
+     * </ul>
+     */
+    @Test
+    public void testAccessorChildClassLoader() {
+        logger.debug("***** BEGIN testAccessorChildClassLoader");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assume.assumeNotNull(compiler);
+        Path dir = null;
+        try {
+            dir = Files.createTempDirectory("ClassUtilsTest");
+            Path source = dir.resolve("p").resolve("Bean.java");
+            Files.createDirectories(source.getParent());
+            Files.write(source, Arrays.asList(
+                    "package p;",
+                    "public class Bean {",
+                    "    private String x = \"value\";",
+                    "    public String getX() { return x; }",
+                    "    public String hello(String name) { return \"hello \" + name; }",
+                    "}"), StandardCharsets.UTF_8);
+            Assert.assertEquals("クラスがコンパイルできること", 0,
+                    compiler.run(null, null, null, "-d", dir.toString(), source.toString()));
+
+            try (URLClassLoader loader = new URLClassLoader(new URL[] {dir.toUri().toURL()},
+                    ClassUtilsTest.class.getClassLoader())) {
+                @SuppressWarnings("unchecked")
+                Class<Object> classz = (Class<Object>) loader.loadClass("p.Bean");
+                Object bean = classz.getConstructor().newInstance();
+                Assert.assertEquals("getterメソッドで値が取得されること", "value",
+                        ClassUtils.getterFor(classz, "x").apply(bean));
+                @SuppressWarnings("unchecked")
+                BiFunction<Object, String, Object> hello = ClassUtils.invokerFor(classz, "hello",
+                        new Class[] {String.class}, BiFunction.class);
+                Assert.assertEquals("publicメソッドが関数型インタフェースで呼び出せること", "hello x",
+                        hello.apply(bean, "x"));
+            }
+        } catch (Throwable t) {
+            Assert.fail(ExceptionUtils.getStackTraceString(t, 20));
+        } finally {
+            if (dir != null) {
+                try (Stream<Path> paths = Files.walk(dir)) {
+                    paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                } catch (IOException e) {
+                    logger.warn("Failed to delete {}: {}", dir, e.toString());
+                }
+            }
+            logger.debug("***** END testAccessorChildClassLoader");
+        }
+    }
+
+    /**
+     * {@link ClassUtils#index(Class)}メソッドをテストします。
+     * <ul>
+     * <li>
+     *   クラス階層の全てのフィールド、メソッドについて、アクセス修飾子を指定した場合も含めて
+     *   {@link ClassUtils#tryFindField(Class, String, int)}などと同じメンバーが返ること
+     * </li>
+     * <li>同じクラスを指定すると同じインスタンスが返ること</li>
+     * <li>同じ名前のメソッドが全て返ること</li>
+     * <li>アクセス修飾子で絞り込んだメンバーの一覧が返ること</li>
+     * </ul>
+     */
+    @Test
+    public void testIndex() {
+        logger.debug("***** BEGIN testIndex");
+
+        int[] modifiersList = {-1, Modifier.PUBLIC, Modifier.PRIVATE, Modifier.PROTECTED + Modifier.STATIC};
+        for (Class<?> classz : new Class<?>[] {JTableHeader.class, SortedMap.class, StringBuilder.class, Bean.class}) {
+            ClassUtils.MemberIndex index = ClassUtils.index(classz);
+            Assert.assertSame("同じインスタンスが返ること", index, ClassUtils.index(classz));
+            Assert.assertEquals("索引を作成したクラスが返ること", classz, index.getType());
+            for (Class<?> c = classz; c != null; c = c.getSuperclass()) {
+                for (Class<?> type : new Class<?>[] {c, c.getInterfaces().length > 0 ? c.getInterfaces()[0] : c}) {
+                    for (Field field : type.getDeclaredFields()) {
+                        for (int modifiers : modifiersList) {
+                            Assert.assertEquals(classz.getName() + "." + field.getName() + "のフィールドが一致すること",
+                                    ClassUtils.tryFindField(classz, field.getName(), modifiers),
+                                    index.field(field.getName(), modifiers));
+                        }
+                    }
+                    for (Method method : type.getDeclaredMethods()) {
+                        for (int modifiers : modifiersList) {
+                            Assert.assertEquals(classz.getName() + "." + method.getName() + "のメソッドが一致すること",
+                                    ClassUtils.tryFindMethod(classz, method.getName(), method.getParameterTypes(),
+                                            modifiers),
+                                    index.method(method.getName(), method.getParameterTypes(), modifiers));
+                        }
+                    }
+                }
+            }
+        }
+
+        ClassUtils.MemberIndex index = ClassUtils.index(StringBuilder.class);
+        Assert.assertFalse("存在しないフィールドは空のOptionalが返ること", index.field("foo", -1).isPresent());
+        Assert.assertFalse("存在しないメソッドは空のOptionalが返ること", index.method("bar", null, -1).isPresent());
+        Assert.assertFalse("フィールド名にnullを指定すると空のOptionalが返ること", index.field(null, -1).isPresent());
+        List<Method> appends = index.methods("append");
+        Assert.assertTrue("同じ名前のメソッドが全て返ること", appends.size() > 10);
+        for (Method method : appends) {
+            Assert.assertEquals("同じ名前のメソッドが返ること", "append", method.getName());
+        }
+        Assert.assertTrue("存在しないメソッド名は空の一覧が返ること", index.methods("bar").isEmpty());
+
+        index = ClassUtils.index(Bean.class);
+        List<Field> privateFields = index.fields(Modifier.PRIVATE);
+        Assert.assertTrue("privateフィールドが返ること", privateFields.size() >= 4);
+        for (Field field : privateFields) {
+            Assert.assertTrue("privateフィールドのみが返ること", Modifier.isPrivate(field.getModifiers()));
+        }
+        Assert.assertTrue("スーパー・クラスのメソッドが返ること",
+                index.methods(Modifier.PUBLIC).contains(ClassUtils.tryFindMethod(Object.class, "hashCode", null, -1)
+                        .get()));
+        Assert.assertEquals("全てのフィールドが返ること", index.fields(-1).size(), Bean.class.getDeclaredFields().length);
+
+        logger.debug("***** END testIndex");
+    }
 }
@@ -0,0 +1,177 @@
+package test.myproject.java.utils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.ConfigSnapshot;
+
+/**
+ * {@link ConfigSnapshot}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class ConfigSnapshotTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(ConfigSnapshotTest.class);
+
+    /**
+     * テストで使用する設定値を作成します。
+     * @return 設定値を返します。
+     */
+    private static ConfigSnapshot createConfig() {
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("name", "value");
+        values.put("int", " 123 ");
+        values.put("long", "-9223372036854775808");
+        values.put("duration.ms", "1500");
+        values.put("duration.s", "30s");
+        values.put("duration.m", "5 m");
+        values.put("duration.d", "2d");
+        values.put("duration.iso", "PT1H30M");
+        values.put("size.b", "512");
+        values.put("size.kb", "64KB");
+        values.put("size.m", "10m");
+        values.put("size.g", "2 GB");
+        values.put("invalid", "abc");
+        values.put("overflow", "9999999999T");
+        return new ConfigSnapshot(values);
+    }
+
+    /**
+     * {@link ConfigSnapshot#get(String)}などの、型を指定して設定値を取得するメソッドの
+     * テストを実行します。
+     * <ul>
+     * <li>設定値が指定した型に変換されること</li>
+     * <li>２回目以降は同じインスタンスが返ること</li>
+     * <li>設定されていない場合はデフォルト値が返ること</li>
+     * <li>変換できない場合は{@link IllegalArgumentException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testGet() {
+        logger.debug("***** BEGIN testGet");
+
+        ConfigSnapshot config = createConfig();
+        Assert.assertEquals("文字列が取得できること", "value", config.get("name"));
+        Assert.assertNull("設定されていない場合はnullが返ること", config.get("none"));
+        Assert.assertEquals("設定されていない場合はデフォルト値が返ること", "default", config.get("none", "default"));
+
+        Assert.assertEquals("intに変換されること", 123, config.getInt("int", 0));
+        Assert.assertEquals("２回目も同じ値が返ること", 123, config.getInt("int", 0));
+        Assert.assertEquals("設定されていない場合はデフォルト値が返ること", -1, config.getInt("none", -1));
+        Assert.assertEquals("longに変換されること", Long.MIN_VALUE, config.getLong("long", 0));
+
+        Assert.assertEquals("単位のない値はミリ秒となること", Duration.ofMillis(1500),
+                config.getDuration("duration.ms", null));
+        Assert.assertEquals("秒に変換されること", Duration.ofSeconds(30), config.getDuration("duration.s", null));
+        Assert.assertEquals("分に変換されること", Duration.ofMinutes(5), config.getDuration("duration.m", null));
+        Assert.assertEquals("日に変換されること", Duration.ofDays(2), config.getDuration("duration.d", null));
+        Assert.assertEquals("ISO-8601形式が変換されること", Duration.ofMinutes(90),
+                config.getDuration("duration.iso", null));
+        Assert.assertSame("２回目以降は同じインスタンスが返ること", config.getDuration("duration.iso", null),
+                config.getDuration("duration.iso", null));
+        Assert.assertEquals("設定されていない場合はデフォルト値が返ること", Duration.ZERO,
+                config.getDuration("none", Duration.ZERO));
+
+        Assert.assertEquals("単位のない値はバイトとなること", 512L, config.getSize("size.b", 0));
+        Assert.assertEquals("KBに変換されること", 64L * 1024, config.getSize("size.kb", 0));
+        Assert.assertEquals("小文字の単位が変換されること", 10L * 1024 * 1024, config.getSize("size.m", 0));
+        Assert.assertEquals("GBに変換されること", 2L * 1024 * 1024 * 1024, config.getSize("size.g", 0));
+
+        for (String key : new String[] {"invalid", "duration.iso", "size.kb"}) {
+            try {
+                config.getInt(key, 0);
+                Assert.fail("intに変換できない場合はIllegalArgumentExceptionが発生すること：例外が発生しない");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+        }
+        for (String key : new String[] {"invalid", "size.kb"}) {
+            try {
+                config.getDuration(key, null);
+                Assert.fail("Durationに変換できない場合はIllegalArgumentExceptionが発生すること：例外が発生しない");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+        }
+        for (String key : new String[] {"invalid", "duration.s", "overflow"}) {
+            try {
+                config.getSize(key, 0);
+                Assert.fail("バイト数に変換できない場合はIllegalArgumentExceptionが発生すること：例外が発生しない");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+        }
+
+        logger.debug("***** END testGet");
+    }
+
+    /**
+     * {@link ConfigSnapshot#of(Properties)}、{@link ConfigSnapshot#toProperties()}、
+     * {@link ConfigSnapshot#asMap()}のテストを実行します。
+     * <ul>
+     * <li>{@link Properties}のキーと値が{@link String}のプロパティのみが設定されること</li>
+     * <li>構築後に元の{@link Properties}を変更しても設定値は変わらないこと</li>
+     * <li>{@link ConfigSnapshot#asMap()}の表は変更できないこと</li>
+     * </ul>
+     */
+    @Test
+    public void testOf() {
+        logger.debug("***** BEGIN testOf");
+
+        Properties properties = new Properties();
+        properties.setProperty("key1", "value1");
+        properties.put("key2", Integer.valueOf(2));
+        ConfigSnapshot config = ConfigSnapshot.of(properties);
+        properties.setProperty("key1", "changed");
+
+        Assert.assertEquals("Stringのプロパティが設定されること", "value1", config.get("key1"));
+        Assert.assertNull("String以外のプロパティは設定されないこと", config.get("key2"));
+        Assert.assertEquals("Propertiesに複写されること", "value1", config.toProperties().getProperty("key1"));
+        try {
+            config.asMap().put("key3", "value3");
+            Assert.fail("表は変更できないこと：例外が発生しない");
+        } catch (UnsupportedOperationException e) {
+            // OK
+        } finally {
+            logger.debug("***** END testOf");
+        }
+    }
+
+    /**
+     * {@link ConfigSnapshot#diff(ConfigSnapshot)}のテストを実行します。
+     * <ul>
+     * <li>値が異なるキー、一方にのみ存在するキーが取得できること</li>
+     * <li>同じ内容の設定値と比較すると空の集合となること</li>
+     * </ul>
+     */
+    @Test
+    public void testDiff() {
+        logger.debug("***** BEGIN testDiff");
+
+        Map<String, String> values = new HashMap<String, String>();
+        values.put("same", "1");
+        values.put("changed", "2");
+        values.put("removed", "3");
+        ConfigSnapshot config = new ConfigSnapshot(values);
+        values.put("changed", "20");
+        values.remove("removed");
+        values.put("added", "4");
+
+        Assert.assertEquals("値が異なるキー、一方にのみ存在するキーが取得できること",
+                new HashSet<String>(Arrays.asList("changed", "removed", "added")),
+                config.diff(new ConfigSnapshot(values)));
+        Assert.assertTrue("同じ内容の設定値と比較すると空の集合となること",
+                config.diff(new ConfigSnapshot(config.asMap())).isEmpty());
+
+        logger.debug("***** END testDiff");
+    }
+}
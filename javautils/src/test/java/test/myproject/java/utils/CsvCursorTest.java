@@ -0,0 +1,222 @@
+package test.myproject.java.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.CsvCursor;
+
+/**
+ * {@link CsvCursor}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class CsvCursorTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(CsvCursorTest.class);
+
+    /**
+     * {@link CsvCursor#advance()}、{@link CsvCursor#field(int)}のテストを実行します。
+     * <ul>
+     * <li>{@link CsvCursor#fieldCount()}が現在行の項目数を返すこと</li>
+     * <li>
+     *   {@link CsvCursor#field(int)}が両端の「"」を削除し「""」を「"」に変換した
+     *   項目の値を返すこと
+     * </li>
+     * <li>
+     *   {@link CsvCursor#field(int)}が返すビューは、{@link CsvCursor#advance()}の後は
+     *   次の行の項目を参照すること
+     * </li>
+     * <li>ストリームの終わりに達すると{@link CsvCursor#advance()}がfalseを返すこと</li>
+     * <li>項目数の範囲外の位置を指定すると{@link IndexOutOfBoundsException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testAdvance() {
+        logger.debug("***** BEGIN testAdvance");
+
+        Reader in = new StringReader("1,abc,\"d,\"\"e\"\"\"\r\n2,あいう\r\n");
+        try {
+            CsvCursor cursor = new CsvCursor(in);
+            Assert.assertEquals("行を読み込む前の項目数は０であること", 0, cursor.fieldCount());
+
+            Assert.assertTrue("１行目を読み込めること", cursor.advance());
+            Assert.assertEquals("１行目の項目数は３であること", 3, cursor.fieldCount());
+            CharSequence second = cursor.field(1);
+            Assert.assertEquals("２番目の項目の値は「abc」であること", "abc", second.toString());
+            Assert.assertEquals("３番目の項目の値は「d,\"e\"」であること",
+                    "d,\"e\"", cursor.field(2).toString());
+            Assert.assertEquals("ビューの部分文字列を取得できること", "bc", second.subSequence(1, 3));
+
+            Assert.assertTrue("２行目を読み込めること", cursor.advance());
+            Assert.assertEquals("２行目の項目数は２であること", 2, cursor.fieldCount());
+            Assert.assertEquals("ビューは２行目の項目を参照すること", "あいう", second.toString());
+            Assert.assertEquals("同じ位置のビューは再利用されること", second, cursor.field(1));
+            try {
+                cursor.field(2);
+                Assert.fail("範囲外の位置を指定するとIndexOutOfBoundsExceptionが発生すること：例外が発生しない");
+            } catch (IndexOutOfBoundsException e) {
+                // OK
+            }
+
+            Assert.assertFalse("ストリームの終わりではfalseが返ること", cursor.advance());
+            Assert.assertEquals("ストリームの終わりでは項目数は０であること", 0, cursor.fieldCount());
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            logger.debug("***** END testAdvance");
+        }
+    }
+
+    /**
+     * {@link CsvCursor#fieldAsInt(int)}、{@link CsvCursor#fieldAsLong(int)}、
+     * {@link CsvCursor#fieldAsDouble(int)}のテストを実行します。
+     * <ul>
+     * <li>項目の値を{@link Integer#parseInt(String)}と同じ値に変換できること</li>
+     * <li>項目の値を{@link Long#parseLong(String)}と同じ値に変換できること</li>
+     * <li>項目の値を{@link Double#parseDouble(String)}と同じ値に変換できること</li>
+     * <li>数値でない項目を変換すると{@link NumberFormatException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testFieldAsNumber() {
+        logger.debug("***** BEGIN testFieldAsNumber");
+
+        String[] doubles = {"0", "-0", "1.5", "-123.456", "+.25", "5.", "0.1", "3.141592653589793",
+            "0.000000000000000000001", "12345678901234567890", "1e10", "-2.5E-3", "NaN", "Infinity"};
+        StringBuilder csv = new StringBuilder();
+        csv.append("-2147483648,\"2147483647\",9223372036854775807,abc,.\r\n");
+        csv.append(String.join(",", doubles)).append("\r\n");
+        Reader in = new StringReader(csv.toString());
+        try {
+            CsvCursor cursor = new CsvCursor(in);
+            cursor.advance();
+            Assert.assertEquals("intの最小値に変換できること", Integer.MIN_VALUE, cursor.fieldAsInt(0));
+            Assert.assertEquals("「\"」で囲まれた項目をintに変換できること", Integer.MAX_VALUE, cursor.fieldAsInt(1));
+            Assert.assertEquals("longの最大値に変換できること", Long.MAX_VALUE, cursor.fieldAsLong(2));
+            try {
+                cursor.fieldAsInt(2);
+                Assert.fail("intの範囲外の値を変換するとNumberFormatExceptionが発生すること：例外が発生しない");
+            } catch (NumberFormatException e) {
+                // OK
+            }
+            try {
+                cursor.fieldAsLong(3);
+                Assert.fail("数値でない値を変換するとNumberFormatExceptionが発生すること：例外が発生しない");
+            } catch (NumberFormatException e) {
+                // OK
+            }
+            try {
+                cursor.fieldAsDouble(4);
+                Assert.fail("数字を含まない値を変換するとNumberFormatExceptionが発生すること：例外が発生しない");
+            } catch (NumberFormatException e) {
+                // OK
+            }
+
+            cursor.advance();
+            for (int i = 0; i < doubles.length; i++) {
+                Assert.assertEquals("「" + doubles[i] + "」をDouble.parseDoubleと同じ値に変換できること",
+                        Double.doubleToLongBits(Double.parseDouble(doubles[i])),
+                        Double.doubleToLongBits(cursor.fieldAsDouble(i)));
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            logger.debug("***** END testFieldAsNumber");
+        }
+    }
+
+    /**
+     * カーソルの全ての行の項目を{@link String}の{@link List}に格納します。
+     * @param cursor カーソル
+     * @return 全ての行の項目を格納した{@link List}を返します。
+     * @throws IOException 入力データの読み込みに失敗した場合
+     */
+    private static List<List<String>> readAll(CsvCursor cursor) throws IOException {
+        List<List<String>> rows = new ArrayList<List<String>>();
+        while (cursor.advance()) {
+            List<String> rowdata = new ArrayList<String>();
+            for (int i = 0; i < cursor.fieldCount(); i++) {
+                rowdata.add(cursor.fieldAsString(i));
+            }
+            rows.add(rowdata);
+        }
+        return rows;
+    }
+
+    /**
+     * {@link CsvCursor#CsvCursor(java.io.InputStream, Charset)}、
+     * {@link CsvCursor#CsvCursor(java.nio.channels.ReadableByteChannel, Charset)}、
+     * {@link CsvCursor#CsvCursor(ByteBuffer, Charset)}のテストを実行します。
+     * <ul>
+     * <li>
+     *   UTF-8、Shift_JIS及びEUC-JPのバイト列から、{@link Reader}から読み込んだ場合と同じ項目が
+     *   読み込まれること
+     * </li>
+     * <li>{@link ByteBuffer}の現在位置から読み込まれ、位置は変更されないこと</li>
+     * <li>
+     *   「"」、カンマ、改行を１バイトで符号化しない文字セットを指定すると
+     *   {@link IllegalArgumentException}が発生すること
+     * </li>
+     * <li>
+     *   状態を持つ文字セット（ISO-2022-JP）を指定すると{@link IllegalArgumentException}が
+     *   発生すること
+     * </li>
+     * </ul>
+     */
+    @Test
+    public void testByteInput() {
+        logger.debug("***** BEGIN testByteInput");
+
+        StringBuilder csv = new StringBuilder();
+        csv.append("1,abc,def,あいう,かきく\r\n");
+        csv.append("3,\"abc,xyz\",\"def\r\nuvw,\",\"あいう,らりる\",\"かきく\"\"\r\n\"\"やゆよ,\"\r\n");
+        csv.append("\r\n");
+        csv.append("5,\"abc,xyz\" ,\"def\r\nuvw,\" \"\",\"表ソ\" ,\"かきく\"\"\r\n\"\"やゆよ,\" \"\"");
+        try {
+            List<List<String>> expected = readAll(new CsvCursor(new StringReader(csv.toString())));
+            for (Charset charset : new Charset[] {StandardCharsets.UTF_8, Charset.forName("Shift_JIS"),
+                    Charset.forName("EUC-JP")}) {
+                byte[] bytes = csv.toString().getBytes(charset);
+                Assert.assertEquals(charset + "のInputStreamからReaderと同じ項目が読み込まれること", expected,
+                        readAll(new CsvCursor(new ByteArrayInputStream(bytes), charset)));
+                Assert.assertEquals(charset + "のReadableByteChannelからReaderと同じ項目が読み込まれること", expected,
+                        readAll(new CsvCursor(Channels.newChannel(new ByteArrayInputStream(bytes)), charset)));
+
+                ByteBuffer buf = ByteBuffer.allocateDirect(bytes.length + 1);
+                buf.put((byte) 'x').put(bytes).flip().position(1);
+                Assert.assertEquals(charset + "のByteBufferからReaderと同じ項目が読み込まれること", expected,
+                        readAll(new CsvCursor(buf, charset)));
+                Assert.assertEquals("ByteBufferの位置は変更されないこと", 1, buf.position());
+            }
+
+            try {
+                new CsvCursor(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_16);
+                Assert.fail("UTF-16を指定するとIllegalArgumentExceptionが発生すること：例外が発生しない");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+            try {
+                new CsvCursor(new ByteArrayInputStream(new byte[0]), Charset.forName("ISO-2022-JP"));
+                Assert.fail("ISO-2022-JPを指定するとIllegalArgumentExceptionが発生すること：例外が発生しない");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            logger.debug("***** END testByteInput");
+        }
+    }
+}
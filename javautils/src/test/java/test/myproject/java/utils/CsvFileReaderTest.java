@@ -0,0 +1,180 @@
+package test.myproject.java.utils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.CsvFileReader;
+import myproject.java.utils.CsvIterator;
+
+/**
+ * {@link CsvFileReader}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class CsvFileReaderTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(CsvFileReaderTest.class);
+
+    /**
+     * テストで読み込むCSVデータを作成します。「"」で囲まれたコンマ、改行、「""」を
+     * 含む行と空行を繰り返します。
+     * @return CSVデータを返します。
+     */
+    private static String createCsv() {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            csv.append(i).append(",abc,def,あいう,かきく\r\n");
+            csv.append(i).append(",\"abc,xyz\",\"def\r\nuvw,\",\"あいう,らりる\",\"かきく\"\"\r\n\"\"やゆよ,\"\n");
+            csv.append(i).append(", \"abc\", \"\"def, \"あいう\", \"\"かきく\r");
+            csv.append("\r\n");
+        }
+        csv.append("END");
+        return csv.toString();
+    }
+
+    /**
+     * {@link CsvFileReader#stream()}、{@link CsvFileReader#unorderedStream()}の
+     * テストを実行します。
+     * <ul>
+     * <li>
+     *   ファイルを分割する範囲の大きさによらず、{@link CsvIterator}と同じ行が同じ順序で
+     *   読み込まれること
+     * </li>
+     * <li>順序を保証しないストリームでも{@link CsvIterator}と同じ行が読み込まれること</li>
+     * <li>空のファイルを読み込むと行が返されないこと</li>
+     * </ul>
+     */
+    @Test
+    public void testStream() {
+        logger.debug("***** BEGIN testStream");
+
+        String csv = createCsv();
+        List<List<String>> expected = new ArrayList<List<String>>();
+        for (List<String> rowdata : new CsvIterator(new StringReader(csv))) {
+            expected.add(rowdata);
+        }
+
+        Path file = null;
+        Path empty = null;
+        try {
+            file = Files.createTempFile("CsvFileReaderTest", ".csv");
+            Files.write(file, csv.getBytes(StandardCharsets.UTF_8));
+            for (int chunkSize : new int[] {1, 7, 64, 1000, CsvFileReader.DEFAULT_CHUNK_SIZE}) {
+                try (CsvFileReader reader = new CsvFileReader(file, StandardCharsets.UTF_8, chunkSize)) {
+                    List<List<String>> actual = reader.stream().collect(Collectors.toList());
+                    logger.debug("chunkSize: {}, rows: {}", chunkSize, actual.size());
+                    Assert.assertEquals("範囲の大きさ" + chunkSize + "でCsvIteratorと同じ行が読み込まれること",
+                            expected, actual);
+
+                    Assert.assertEquals("順序を保証しないストリームでもCsvIteratorと同じ行が読み込まれること",
+                            new HashSet<List<String>>(expected),
+                            reader.unorderedStream().collect(Collectors.toSet()));
+                }
+            }
+
+            empty = Files.createTempFile("CsvFileReaderTest", ".csv");
+            try (CsvFileReader reader = new CsvFileReader(empty, StandardCharsets.UTF_8)) {
+                Assert.assertEquals("空のファイルを読み込むと行が返されないこと", 0, reader.stream().count());
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            deleteQuietly(file);
+            deleteQuietly(empty);
+            logger.debug("***** END testStream");
+        }
+    }
+
+    /**
+     * 改行を含まない範囲が直前の範囲と結合される場合の{@link CsvFileReader#stream()}のテストを
+     * 実行します。
+     * <ul>
+     * <li>複数の範囲にまたがる改行のない行が、{@link CsvIterator}と同じ１行として読み込まれること</li>
+     * <li>範囲の境界で改行が終わる行が、{@link CsvIterator}と同じ行として読み込まれること</li>
+     * <li>改行を含まないファイル全体が１行として読み込まれること</li>
+     * </ul>
+     */
+    @Test
+    public void testMergeChunks() {
+        logger.debug("***** BEGIN testMergeChunks");
+
+        StringBuilder longField = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            longField.append((char) ('a' + i % 26));
+        }
+        // 64バイトの範囲の境界で改行が終わる行、複数の範囲にまたがる行、改行で終わらない行
+        StringBuilder csv = new StringBuilder();
+        csv.append("0123456789,0123456789,0123456789,0123456789,0123456789,0123456\r\n");
+        csv.append("1,").append(longField).append(",\"").append(longField).append("\"\n");
+        csv.append("2,\"x\r\ny\",").append(longField);
+        Path file = null;
+        try {
+            file = Files.createTempFile("CsvFileReaderTest", ".csv");
+            for (String data : new String[] {csv.toString(), longField.toString()}) {
+                List<List<String>> expected = new ArrayList<List<String>>();
+                for (List<String> rowdata : new CsvIterator(new StringReader(data))) {
+                    expected.add(rowdata);
+                }
+                Files.write(file, data.getBytes(StandardCharsets.UTF_8));
+                for (int chunkSize : new int[] {1, 64, 1000, 4096}) {
+                    try (CsvFileReader reader = new CsvFileReader(file, StandardCharsets.UTF_8, chunkSize)) {
+                        Assert.assertEquals("範囲の大きさ" + chunkSize + "で結合された範囲がCsvIteratorと同じ行として"
+                                + "読み込まれること", expected, reader.stream().collect(Collectors.toList()));
+                    }
+                }
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            deleteQuietly(file);
+            logger.debug("***** END testMergeChunks");
+        }
+    }
+
+    /**
+     * 「"」、カンマ、改行を１バイトで符号化しない文字セットを指定すると
+     * {@link IllegalArgumentException}が発生することをテストします。
+     */
+    @Test
+    public void testIllegalCharset() {
+        logger.debug("***** BEGIN testIllegalCharset");
+
+        Path file = null;
+        try {
+            file = Files.createTempFile("CsvFileReaderTest", ".csv");
+            try (CsvFileReader reader = new CsvFileReader(file, StandardCharsets.UTF_16)) {
+                Assert.fail("UTF-16を指定するとIllegalArgumentExceptionが発生すること：例外が発生しない");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            deleteQuietly(file);
+            logger.debug("***** END testIllegalCharset");
+        }
+    }
+
+    /**
+     * ファイルを削除します。削除に失敗した場合は何もしません。
+     * @param file 削除するファイル
+     */
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ioe) { }
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package test.myproject.java.utils;
 
+import java.io.ByteArrayInputStream;
 import java.io.Reader;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -403,4 +408,146 @@ public class CsvIteratorTest {
 
         logger.debug("***** END testCsvIteratorIrregal");
     }
+
+    /**
+     * 読み込みバッファの大きさを超えるCSV項目を読み込む。
+     * <ul>
+     * <li>「"」で囲まれず、20000文字の項目の値が分割されずに取り込まれること。</li>
+     * <li>「"」で囲まれ、「""」と改行を含む20000文字を超える項目の値は、両端の「"」が
+     * 削除され「""」が「"」に変換されて取り込まれること。</li>
+     * </ul>
+     */
+    @Test
+    public void testCsvIteratorLongColumn() {
+        logger.debug("***** BEGIN testCsvIteratorLongColumn");
+
+        StringBuilder plain = new StringBuilder();
+        StringBuilder quoted = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            plain.append("ab");
+            quoted.append("あ\"\"\r\n");
+            expected.append("あ\"").append(System.lineSeparator());
+        }
+        StringBuilder csv = new StringBuilder();
+        csv.append(plain).append(",\"").append(quoted).append("\"\r\n");
+        csv.append("END\r\n");
+        Reader in = new StringReader(csv.toString());
+        int count = 0;
+        for (List<String> rowdata: new CsvIterator(in)) {
+            count ++;
+            String[] line = rowdata.toArray(new String[0]);
+            if (count == 1) {
+                Assert.assertEquals("１行目のCSV項目の個数は２であること。", 2, line.length);
+                Assert.assertEquals("「\"」で囲まれていない項目が分割されずに取り込まれること。",
+                        plain.toString(), line[0]);
+                Assert.assertEquals("「\"」で囲まれた項目の「\"\"」が「\"」に変換されて取り込まれること。",
+                        expected.toString(), line[1]);
+            } else {
+                Assert.assertEquals("２行目の１番目の値は「END」であること。", "END", line[0]);
+            }
+        }
+        Assert.assertEquals("Listの行数は２であること", 2, count);
+
+        logger.debug("***** END testCsvIteratorLongColumn");
+    }
+
+    /**
+     * {@link CsvIterator#stream()}、{@link CsvIterator#parallelStream()}、
+     * {@link CsvIterator#spliterator()}のテストを実行する。
+     * <ul>
+     * <li>順次ストリームで、for文と同じ行が同じ順序で取得されること。</li>
+     * <li>並列ストリームで、for文と同じ行が同じ順序で取得されること。</li>
+     * <li>
+     *   {@link Spliterator#trySplit()}は１回目に1024行、２回目に2048行の
+     *   {@link Spliterator#SIZED}な{@link Spliterator}を返すこと。
+     * </li>
+     * </ul>
+     */
+    @Test
+    public void testCsvIteratorStream() {
+        logger.debug("***** BEGIN testCsvIteratorStream");
+
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            csv.append(i).append(",\"abc\r\n").append(i).append("\",あいう\r\n");
+        }
+        List<List<String>> expected = new ArrayList<List<String>>();
+        for (List<String> rowdata : new CsvIterator(new StringReader(csv.toString()))) {
+            expected.add(rowdata);
+        }
+
+        Assert.assertEquals("順次ストリームでfor文と同じ行が取得されること", expected,
+                new CsvIterator(new StringReader(csv.toString())).stream().collect(Collectors.toList()));
+        Assert.assertEquals("並列ストリームでfor文と同じ行が取得されること", expected,
+                new CsvIterator(new StringReader(csv.toString())).parallelStream()
+                        .map(rowdata -> new ArrayList<String>(rowdata))
+                        .collect(Collectors.toList()));
+
+        Spliterator<List<String>> spliterator = new CsvIterator(new StringReader(csv.toString())).spliterator();
+        Spliterator<List<String>> first = spliterator.trySplit();
+        Assert.assertTrue("分割されたSpliteratorはSIZEDであること", first.hasCharacteristics(Spliterator.SIZED));
+        Assert.assertEquals("１回目の分割は1024行であること", 1024, first.estimateSize());
+        Assert.assertEquals("２回目の分割は2048行であること", 2048, spliterator.trySplit().estimateSize());
+
+        logger.debug("***** END testCsvIteratorStream");
+    }
+
+    /**
+     * {@link CsvIterator#select(int...)}、{@link CsvIterator#selectByHeader(String...)}の
+     * テストを実行する。
+     * <ul>
+     * <li>選択した項目のみが指定した順に、全ての項目を読み込んだ場合と同じ値で取得されること。</li>
+     * <li>行に存在しない位置の項目はnullとなること。</li>
+     * <li>選択されていない項目のみを含む行や空行の項目数が変わらないこと。</li>
+     * <li>ヘッダ行の項目名で選択でき、ヘッダ行は返されないこと。</li>
+     * <li>ヘッダ行に存在しない項目名を指定するとIllegalArgumentExceptionが発生すること。</li>
+     * </ul>
+     */
+    @Test
+    public void testCsvIteratorSelect() {
+        logger.debug("***** BEGIN testCsvIteratorSelect");
+
+        StringBuilder csv = new StringBuilder();
+        csv.append("id,name,note,price\r\n");
+        csv.append("1,\"abc,xyz\",\"def\r\nuvw,\"\"\",100\r\n");
+        csv.append("\"\"\"\",\"\",,\r\n");
+        csv.append("\r\n");
+        csv.append("2,\"あいう\r\n\"\"らりる\"\n");
+        csv.append("\"3\"");
+        int[] indexes = {3, 1, 0};
+
+        List<List<String>> expected = new ArrayList<List<String>>();
+        for (List<String> rowdata : new CsvIterator(new StringReader(csv.toString()))) {
+            List<String> selected = new ArrayList<String>();
+            for (int index : indexes) {
+                selected.add(index < rowdata.size() ? rowdata.get(index) : null);
+            }
+            expected.add(selected);
+        }
+        logger.debug("expected: {}", expected);
+
+        List<List<String>> actual = new ArrayList<List<String>>();
+        for (List<String> rowdata : new CsvIterator(new StringReader(csv.toString())).select(indexes)) {
+            actual.add(rowdata);
+        }
+        Assert.assertEquals("Readerから選択した項目のみが取得されること", expected, actual);
+
+        actual = new CsvIterator(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8).select(indexes).stream().collect(Collectors.toList());
+        Assert.assertEquals("InputStreamから選択した項目のみが取得されること", expected, actual);
+
+        actual = new CsvIterator(new StringReader(csv.toString())).selectByHeader("price", "name", "id")
+                .stream().collect(Collectors.toList());
+        Assert.assertEquals("ヘッダ行の項目名で選択した項目が取得されること", expected.subList(1, expected.size()), actual);
+
+        try {
+            new CsvIterator(new StringReader(csv.toString())).selectByHeader("id", "unknown");
+            Assert.fail("存在しない項目名を指定するとIllegalArgumentExceptionが発生すること：例外が発生しない");
+        } catch (IllegalArgumentException e) {
+            // OK
+        }
+
+        logger.debug("***** END testCsvIteratorSelect");
+    }
 }
@@ -0,0 +1,206 @@
+package test.myproject.java.utils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.CsvCursor;
+import myproject.java.utils.CsvMapper;
+
+/**
+ * {@link CsvMapper}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class CsvMapperTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(CsvMapperTest.class);
+
+    /** テストで使用する列挙型。 */
+    public enum Status {
+        /** 有効。 */
+        ACTIVE,
+        /** 無効。 */
+        INACTIVE
+    }
+
+    /** テストで使用するレコードの基底クラス。 */
+    public static class BaseRecord {
+        /** ID。 */
+        private long id;
+
+        /**
+         * IDを取得します。
+         * @return IDを返します。
+         */
+        public long getId() {
+            return this.id;
+        }
+    }
+
+    /** テストで使用するレコード。 */
+    public static class Record extends BaseRecord {
+        /** 名前。setterメソッドで設定される。 */
+        private String name;
+        /** 件数。 */
+        private int count;
+        /** 価格。 */
+        private Double price;
+        /** 有効フラグ。 */
+        private boolean enabled;
+        /** 金額。 */
+        private BigDecimal amount;
+        /** 日付。 */
+        private LocalDate date;
+        /** 日時。 */
+        private LocalDateTime timestamp;
+        /** 状態。 */
+        private Status status;
+        /** 備考。変換できない型。 */
+        private StringBuilder note;
+
+        /**
+         * 名前を設定します。前後に「[]」を付けて設定します。
+         * @param name 名前
+         */
+        public void setName(String name) {
+            this.name = "[" + name + "]";
+        }
+    }
+
+    /**
+     * {@link CsvMapper#forClass(Class, String...)}、{@link CsvMapper#map(CsvCursor)}の
+     * テストを実行します。
+     * <ul>
+     * <li>スーパークラスのフィールドを含め、指定したフィールドに型に応じた値が設定されること</li>
+     * <li>setterメソッドがある場合はsetterメソッドで値が設定されること</li>
+     * <li>nullを指定した項目は読み飛ばされること</li>
+     * <li>長さ０の項目は、プリミティブ型の場合は設定されず、それ以外の型はnullが設定されること</li>
+     * <li>存在しない項目は設定されないこと</li>
+     * <li>日付、日時の項目は、文字列から直接変換する形式かどうかに関わらず同じ値が設定されること</li>
+     * <li>存在しないフィールドを指定すると{@link NoSuchFieldException}が発生すること</li>
+     * <li>変換できない型のフィールドを指定すると{@link IllegalArgumentException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testForClass() {
+        logger.debug("***** BEGIN testForClass");
+
+        StringBuilder csv = new StringBuilder();
+        csv.append("12,\"a,b\",skip,3,1.5,TRUE,123.45,2020-02-29,2020-01-31T23:59:59,INACTIVE\r\n");
+        csv.append(",,,,,,,,,\r\n");
+        csv.append("7,x\r\n");
+        csv.append("8,y,,,,,,2021-03-04,2021-03-04T05:06:07\r\n");
+        try {
+            CsvMapper<Record> mapper = CsvMapper.forClass(Record.class, "id", "name", null, "count", "price",
+                    "enabled", "amount", "date", "timestamp", "status");
+            CsvCursor cursor = new CsvCursor(new StringReader(csv.toString()));
+
+            cursor.advance();
+            Record record = mapper.map(cursor);
+            Assert.assertEquals("スーパークラスのフィールドに値が設定されること", 12L, record.getId());
+            Assert.assertEquals("setterメソッドで値が設定されること", "[a,b]", record.name);
+            Assert.assertEquals("intのフィールドに値が設定されること", 3, record.count);
+            Assert.assertEquals("Doubleのフィールドに値が設定されること", Double.valueOf(1.5), record.price);
+            Assert.assertTrue("booleanのフィールドに値が設定されること", record.enabled);
+            Assert.assertEquals("BigDecimalのフィールドに値が設定されること", new BigDecimal("123.45"), record.amount);
+            Assert.assertEquals("LocalDateのフィールドに値が設定されること", LocalDate.of(2020, 2, 29), record.date);
+            Assert.assertEquals("LocalDateTimeのフィールドに値が設定されること",
+                    LocalDateTime.of(2020, 1, 31, 23, 59, 59), record.timestamp);
+            Assert.assertEquals("列挙型のフィールドに値が設定されること", Status.INACTIVE, record.status);
+
+            cursor.advance();
+            record = mapper.map(cursor);
+            Assert.assertEquals("長さ０の項目はlongのフィールドに設定されないこと", 0L, record.getId());
+            Assert.assertEquals("長さ０の項目はsetterメソッドで設定されること", "[]", record.name);
+            Assert.assertEquals("長さ０の項目はintのフィールドに設定されないこと", 0, record.count);
+            Assert.assertNull("長さ０の項目はDoubleのフィールドにnullが設定されること", record.price);
+            Assert.assertNull("長さ０の項目はLocalDateのフィールドにnullが設定されること", record.date);
+            Assert.assertNull("長さ０の項目は列挙型のフィールドにnullが設定されること", record.status);
+
+            cursor.advance();
+            record = mapper.map(cursor);
+            Assert.assertEquals("存在する項目は設定されること", 7L, record.getId());
+            Assert.assertEquals("存在する項目はsetterメソッドで設定されること", "[x]", record.name);
+            Assert.assertNull("存在しない項目は設定されないこと", record.date);
+
+            cursor.advance();
+            record = mapper.map(cursor);
+            Assert.assertEquals("日が28以下のLocalDateのフィールドに値が設定されること", LocalDate.of(2021, 3, 4),
+                    record.date);
+            Assert.assertEquals("日が28以下のLocalDateTimeのフィールドに値が設定されること",
+                    LocalDateTime.of(2021, 3, 4, 5, 6, 7), record.timestamp);
+        } catch (ReflectiveOperationException | IOException e) {
+            Assert.fail(e.toString());
+        }
+
+        try {
+            CsvMapper.forClass(Record.class, "id", "unknown");
+            Assert.fail("存在しないフィールドを指定するとNoSuchFieldExceptionが発生すること：例外が発生しない");
+        } catch (NoSuchFieldException e) {
+            // OK
+        } catch (ReflectiveOperationException e) {
+            Assert.fail(e.toString());
+        }
+
+        try {
+            CsvMapper.forClass(Record.class, "name", "note");
+            Assert.fail("変換できない型を指定するとIllegalArgumentExceptionが発生すること：例外が発生しない");
+        } catch (IllegalArgumentException e) {
+            // OK
+        } catch (ReflectiveOperationException e) {
+            Assert.fail(e.toString());
+        } finally {
+            logger.debug("***** END testForClass");
+        }
+    }
+
+    /**
+     * {@link CsvMapper#forTypes(Class...)}、{@link CsvMapper#map(CsvCursor)}の
+     * テストを実行します。
+     * <ul>
+     * <li>項目の値が指定した型に変換されること</li>
+     * <li>プリミティブ型を指定するとラッパークラスの値に変換されること</li>
+     * <li>日が28より大きい日付や、秒以下を含む日時が変換されること</li>
+     * <li>日付に変換できない値は{@link DateTimeParseException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testForTypes() {
+        logger.debug("***** BEGIN testForTypes");
+
+        StringBuilder csv = new StringBuilder();
+        csv.append("1,abc,-9223372036854775808,2.5e3,false,2020-12-31,2020-12-31T00:00:00.123,skip\r\n");
+        csv.append("1,abc,1,1,false,2021-02-29\r\n");
+        try {
+            CsvMapper<Object[]> mapper = CsvMapper.forTypes(int.class, String.class, Long.class, double.class,
+                    Boolean.class, LocalDate.class, LocalDateTime.class, null);
+            CsvCursor cursor = new CsvCursor(new StringReader(csv.toString()));
+
+            cursor.advance();
+            Object[] record = mapper.map(cursor);
+            Assert.assertArrayEquals("項目の値が指定した型に変換されること", new Object[] {
+                Integer.valueOf(1), "abc", Long.MIN_VALUE, Double.valueOf(2500), Boolean.FALSE,
+                LocalDate.of(2020, 12, 31), LocalDateTime.of(2020, 12, 31, 0, 0, 0, 123000000), null}, record);
+
+            cursor.advance();
+            try {
+                mapper.map(cursor);
+                Assert.fail("存在しない日付を変換するとDateTimeParseExceptionが発生すること：例外が発生しない");
+            } catch (DateTimeParseException e) {
+                // OK
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            logger.debug("***** END testForTypes");
+        }
+    }
+}
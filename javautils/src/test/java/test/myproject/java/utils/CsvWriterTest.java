@@ -0,0 +1,168 @@
+package test.myproject.java.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.CsvIterator;
+import myproject.java.utils.CsvWriter;
+
+/**
+ * {@link CsvWriter}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class CsvWriterTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(CsvWriterTest.class);
+
+    /**
+     * テストで出力する行を作成します。カンマ、「"」、改行、長さ０の項目、
+     * バッファのサイズを超える項目を含みます。
+     * @return 出力する行を返します。
+     */
+    private static List<List<String>> createRows() {
+        StringBuilder longField = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            longField.append("あいう\"えお,");
+        }
+        String nl = System.lineSeparator();
+        List<List<String>> rows = new ArrayList<List<String>>();
+        rows.add(Arrays.asList("1", "abc", "あいう", " かきく "));
+        rows.add(Arrays.asList("2", "abc,xyz", "def" + nl + "uvw,", "\"", "\"\"", "\"quoted\"", "a\"b"));
+        rows.add(Arrays.asList(""));
+        rows.add(new ArrayList<String>());
+        rows.add(Arrays.asList("", ""));
+        rows.add(Arrays.asList("3", "", "𠮷", longField.toString()));
+        return rows;
+    }
+
+    /**
+     * {@link CsvWriter#writeRow(List)}のテストを実行します。
+     * <ul>
+     * <li>{@link java.io.Writer}に出力したCSVデータを{@link CsvIterator}で読み込むと同じ行となること</li>
+     * <li>
+     *   {@link java.nio.channels.WritableByteChannel}に文字セットを指定して出力した
+     *   CSVデータを{@link CsvIterator}で読み込むと同じ行となること
+     * </li>
+     * <li>特殊文字を含む項目のみが「"」で囲まれること</li>
+     * </ul>
+     */
+    @Test
+    public void testWriteRow() {
+        logger.debug("***** BEGIN testWriteRow");
+
+        List<List<String>> rows = createRows();
+        try {
+            StringWriter out = new StringWriter();
+            try (CsvWriter writer = new CsvWriter(out)) {
+                for (List<String> row : rows) {
+                    writer.writeRow(row);
+                }
+            }
+            Assert.assertTrue("特殊文字を含まない項目は「\"」で囲まれないこと",
+                    out.toString().startsWith("1,abc,あいう, かきく \r\n2,\"abc,xyz\","));
+            List<List<String>> actual = new ArrayList<List<String>>();
+            for (List<String> row : new CsvIterator(new StringReader(out.toString()))) {
+                actual.add(row);
+            }
+            Assert.assertEquals("Writerに出力したCSVデータを読み込むと同じ行となること", rows, actual);
+
+            for (Charset charset : new Charset[] {Charset.forName("UTF-8"), Charset.forName("Shift_JIS")}) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (CsvWriter writer = new CsvWriter(Channels.newChannel(bytes), charset)) {
+                    for (List<String> row : rows) {
+                        writer.writeRow(row.toArray(new String[0]));
+                    }
+                }
+                actual = new ArrayList<List<String>>();
+                for (List<String> row : new CsvIterator(new ByteArrayInputStream(bytes.toByteArray()), charset)) {
+                    actual.add(row);
+                }
+                if (charset.newEncoder().canEncode("𠮷")) {
+                    Assert.assertEquals(charset + "で出力したCSVデータを読み込むと同じ行となること", rows, actual);
+                } else {
+                    Assert.assertEquals(charset + "で出力したCSVデータを読み込むと同じ行数となること",
+                            rows.size(), actual.size());
+                    Assert.assertEquals(charset + "で出力したCSVデータを読み込むと同じ項目となること",
+                            rows.get(1), actual.get(1));
+                }
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            logger.debug("***** END testWriteRow");
+        }
+    }
+
+    /**
+     * {@link CsvWriter#writeField(long)}などのプリミティブ型の値を出力するメソッドの
+     * テストを実行します。
+     * <ul>
+     * <li>整数が10進数で出力されること</li>
+     * <li>doubleが{@link Double#toString(double)}の形式で出力されること</li>
+     * <li>booleanが「true」または「false」で出力されること</li>
+     * </ul>
+     */
+    @Test
+    public void testWriteField() {
+        logger.debug("***** BEGIN testWriteField");
+
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            writer.writeField(0);
+            writer.writeField(-1);
+            writer.writeField(Integer.MIN_VALUE);
+            writer.writeField(Long.MAX_VALUE);
+            writer.writeField(Long.MIN_VALUE);
+            writer.endRow();
+            writer.writeField(1.5);
+            writer.writeField(true);
+            writer.writeField((CharSequence) null);
+            writer.endRow();
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            Assert.assertEquals("プリミティブ型の値が出力されること",
+                    "0,-1,-2147483648,9223372036854775807,-9223372036854775808\r\n1.5,true,\r\n", out.toString());
+            logger.debug("***** END testWriteField");
+        }
+    }
+
+    /**
+     * {@link CsvWriter#close()}のテストを実行します。
+     * <ul>
+     * <li>
+     *   {@link java.nio.channels.WritableByteChannel}に出力する場合、最後に出力した
+     *   対になる下位サロゲートの無い上位サロゲートが置換文字として出力されること
+     * </li>
+     * </ul>
+     */
+    @Test
+    public void testClose() {
+        logger.debug("***** BEGIN testClose");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(Channels.newChannel(bytes), Charset.forName("UTF-8"))) {
+            writer.writeField("abc");
+            writer.writeField("x\uD842");
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            Assert.assertEquals("最後の上位サロゲートが置換文字として出力されること",
+                    "abc,x?", new String(bytes.toByteArray(), Charset.forName("UTF-8")));
+            logger.debug("***** END testClose");
+        }
+    }
+}
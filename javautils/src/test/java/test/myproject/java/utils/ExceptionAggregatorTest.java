@@ -0,0 +1,276 @@
+package test.myproject.java.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.ExceptionAggregator;
+import myproject.java.utils.ExceptionUtils;
+
+/**
+ * {@link ExceptionAggregator}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class ExceptionAggregatorTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(ExceptionAggregatorTest.class);
+
+    /**
+     * 同じ箇所で例外を作成します。
+     * @param message 例外のメッセージ
+     * @return 作成した例外を返します。
+     */
+    private static Exception createException(String message) {
+        return new IllegalStateException(message);
+    }
+
+    /**
+     * {@link ExceptionAggregator#record(Throwable)}、{@link ExceptionAggregator#summarize()}の
+     * テストを実行します。
+     * <ul>
+     * <li>抽出しない場合は、最初の発生でのみスタックトレースの文字列が返されること</li>
+     * <li>フレーム数の上限までが同じ例外は同じ指紋として集計されること</li>
+     * <li>異なる箇所で発生した例外は別に集計されること</li>
+     * <li>前回の集計からの発生回数と合計が集計され、発生回数の多い順となること</li>
+     * <li>発生していない例外は集計結果に含まれないこと</li>
+     * <li>割合に1を指定すると全ての発生でスタックトレースの文字列が返されること</li>
+     * </ul>
+     */
+    @Test
+    public void testRecord() {
+        logger.debug("***** BEGIN testRecord");
+
+        ExceptionAggregator aggregator = new ExceptionAggregator(1, 0);
+        int rendered = 0;
+        Exception first = null;
+        for (int i = 0; i < 100; i++) {
+            Exception e = createException("message" + i);
+            if (first == null) {
+                first = e;
+            }
+            String stackTrace = aggregator.record(e);
+            if (stackTrace != null) {
+                rendered++;
+                Assert.assertEquals("最初の発生でスタックトレースの文字列が返されること",
+                        ExceptionUtils.getStackTraceString(first, 1), stackTrace);
+            }
+        }
+        Assert.assertEquals("最初の発生でのみスタックトレースの文字列が返されること", 1, rendered);
+        Assert.assertNotNull("異なる箇所で発生した例外は最初の発生で文字列が返されること",
+                aggregator.record(new IllegalStateException("other")));
+
+        List<ExceptionAggregator.Summary> summaries = aggregator.summarize();
+        logger.debug("aggregator.summarize() ==> {}", summaries);
+        Assert.assertEquals("異なる箇所で発生した例外は別に集計されること", 2, summaries.size());
+        Assert.assertEquals("発生回数の多い順となること", 100, summaries.get(0).getCount());
+        Assert.assertSame("最初に発生した例外が保持されること", first, summaries.get(0).getFirstException());
+        Assert.assertEquals("指紋が保持されること", ExceptionUtils.fingerprint(first, 1),
+                summaries.get(0).getFingerprint());
+        Assert.assertEquals("発生回数が集計されること", 1, summaries.get(1).getCount());
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertNull("２回目以降はスタックトレースの文字列が返されないこと",
+                    aggregator.record(createException("message")));
+        }
+        summaries = aggregator.summarize();
+        Assert.assertEquals("発生していない例外は集計結果に含まれないこと", 1, summaries.size());
+        Assert.assertEquals("前回の集計からの発生回数が集計されること", 5, summaries.get(0).getCount());
+        Assert.assertEquals("発生回数の合計が集計されること", 105, summaries.get(0).getTotal());
+        Assert.assertTrue("発生していない場合は空の一覧となること", aggregator.summarize().isEmpty());
+
+        ExceptionAggregator sampling = new ExceptionAggregator(1, 1);
+        for (int i = 0; i < 3; i++) {
+            Assert.assertNotNull("割合に1を指定すると全ての発生で文字列が返されること",
+                    sampling.record(createException("message")));
+        }
+
+        logger.debug("***** END testRecord");
+    }
+
+    /**
+     * {@link ExceptionAggregator#summarize()}で発生しなくなった指紋を削除するテストを実行します。
+     * <ul>
+     * <li>１回の集計の間に発生しなかった指紋は削除されないこと</li>
+     * <li>２回続けて集計の間に発生しなかった指紋は削除され、再び発生すると最初の発生として扱われること</li>
+     * </ul>
+     */
+    @Test
+    public void testEviction() {
+        logger.debug("***** BEGIN testEviction");
+
+        ExceptionAggregator aggregator = new ExceptionAggregator(1, 0);
+        Assert.assertNotNull("最初の発生で文字列が返されること", aggregator.record(createException("message")));
+        Assert.assertEquals("発生回数が集計されること", 1, aggregator.summarize().size());
+        Assert.assertTrue("発生していない場合は空の一覧となること", aggregator.summarize().isEmpty());
+        Assert.assertNull("１回の集計の間に発生しなかった指紋は削除されないこと",
+                aggregator.record(createException("message")));
+        Assert.assertEquals("発生回数の合計が保持されること", 2, aggregator.summarize().get(0).getTotal());
+
+        aggregator.summarize();
+        aggregator.summarize();
+        Assert.assertNotNull("２回続けて発生しなかった指紋は削除され、再び発生すると最初の発生として扱われること",
+                aggregator.record(createException("message")));
+        Assert.assertEquals("削除した指紋の発生回数の合計は引き継がれないこと", 1,
+                aggregator.summarize().get(0).getTotal());
+
+        logger.debug("***** END testEviction");
+    }
+
+    /**
+     * 複数のスレッドから{@link ExceptionAggregator#record(Throwable)}を呼び出すテストを実行します。
+     * <ul>
+     * <li>全ての発生回数が集計されること</li>
+     * <li>最初の発生のスタックトレースの文字列は１回だけ返されること</li>
+     * </ul>
+     */
+    @Test
+    public void testConcurrentRecord() {
+        logger.debug("***** BEGIN testConcurrentRecord");
+
+        ExceptionAggregator aggregator = new ExceptionAggregator(10, 0);
+        Exception exception = createException("message");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<Callable<Integer>>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(() -> {
+                    int rendered = 0;
+                    for (int j = 0; j < 10000; j++) {
+                        if (aggregator.record(exception) != null) {
+                            rendered++;
+                        }
+                    }
+                    return rendered;
+                });
+            }
+            int rendered = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                rendered += future.get();
+            }
+            Assert.assertEquals("最初の発生の文字列は１回だけ返されること", 1, rendered);
+            Assert.assertEquals("全ての発生回数が集計されること", 40000, aggregator.summarize().get(0).getCount());
+        } catch (InterruptedException | ExecutionException e) {
+            Assert.fail(e.toString());
+        } finally {
+            executor.shutdown();
+            logger.debug("***** END testConcurrentRecord");
+        }
+    }
+
+    /**
+     * {@link ExceptionAggregator#record(Throwable)}と{@link ExceptionAggregator#summarize()}を
+     * 同時に呼び出し、指紋の削除と記録が競合するテストを実行します。
+     * <ul>
+     * <li>削除と同時に記録された発生回数も失われずに集計されること</li>
+     * </ul>
+     */
+    @Test
+    public void testConcurrentEviction() {
+        logger.debug("***** BEGIN testConcurrentEviction");
+
+        ExceptionAggregator aggregator = new ExceptionAggregator(10, 0);
+        Exception exception = createException("message");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < 20000; j++) {
+                        aggregator.record(exception);
+                        if (j % 100 == 0) {
+                            Thread.yield();
+                        }
+                    }
+                    return null;
+                });
+            }
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            long count = 0;
+            for (Future<Void> future : futures) {
+                while (!future.isDone()) {
+                    for (ExceptionAggregator.Summary summary : aggregator.summarize()) {
+                        count += summary.getCount();
+                    }
+                }
+                future.get();
+            }
+            for (ExceptionAggregator.Summary summary : aggregator.summarize()) {
+                count += summary.getCount();
+            }
+            Assert.assertEquals("削除と同時に記録された発生回数も集計されること", 80000, count);
+        } catch (InterruptedException | ExecutionException e) {
+            Assert.fail(e.toString());
+        } finally {
+            executor.shutdown();
+            logger.debug("***** END testConcurrentEviction");
+        }
+    }
+
+    /**
+     * {@link ExceptionAggregator#scheduleSummary(ScheduledExecutorService, long, TimeUnit,
+     * java.util.function.Consumer)}のテストを実行します。
+     * <ul>
+     * <li>例外が発生した場合は定期的に集計結果が通知されること</li>
+     * <li>集計結果を受け取る処理で例外が発生しても定期的な実行が継続されること</li>
+     * <li>取り消した後は通知されないこと</li>
+     * </ul>
+     */
+    @Test
+    public void testScheduleSummary() {
+        logger.debug("***** BEGIN testScheduleSummary");
+
+        ExceptionAggregator aggregator = new ExceptionAggregator(10, 0);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        BlockingQueue<List<ExceptionAggregator.Summary>> queue =
+                new LinkedBlockingQueue<List<ExceptionAggregator.Summary>>();
+        try {
+            aggregator.record(createException("message"));
+            AtomicBoolean thrown = new AtomicBoolean();
+            Future<?> future = aggregator.scheduleSummary(executor, 10, TimeUnit.MILLISECONDS, summaries -> {
+                if (thrown.compareAndSet(false, true)) {
+                    throw new IllegalStateException("consumer failure");
+                }
+                queue.add(summaries);
+            });
+            List<ExceptionAggregator.Summary> summaries = null;
+            while (summaries == null) {
+                if (!thrown.get()) {
+                    Thread.sleep(10);
+                    continue;
+                }
+                aggregator.record(createException("message"));
+                summaries = queue.poll(100, TimeUnit.MILLISECONDS);
+                Assert.assertFalse("受け取る処理で例外が発生しても実行が継続されること", future.isDone());
+            }
+            Assert.assertEquals("発生回数が通知されること", 1, summaries.get(0).getCount());
+
+            future.cancel(false);
+            Thread.sleep(50);
+            queue.clear();
+            aggregator.record(createException("message"));
+            Assert.assertNull("取り消した後は通知されないこと", queue.poll(100, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException e) {
+            Assert.fail(e.toString());
+        } finally {
+            executor.shutdown();
+            logger.debug("***** END testScheduleSummary");
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package test.myproject.java.utils;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.slf4j.Logger;
@@ -47,4 +51,177 @@ public class ExceptionUtilsTest {
             logger.debug("***** END testGetStackTraceString");
         }
     }
+
+    /**
+     * テストで使用する、原因となった例外と抑制された例外を持つ例外を作成します。
+     * @return 例外を返します。
+     */
+    private static Exception createException() {
+        try {
+            try {
+                Integer.parseInt("abc");
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("wrapped", e);
+            }
+        } catch (IllegalStateException e) {
+            Exception suppressed = new IOException("suppressed");
+            suppressed.addSuppressed(new RuntimeException("nested"));
+            e.addSuppressed(suppressed);
+            return e;
+        }
+        return null;
+    }
+
+    /**
+     * {@link Throwable#printStackTrace(PrintWriter)}の出力を、字下げをタブから空白４つに置き換えて取得します。
+     * @param t 例外
+     * @return スタックトレースを返します。
+     */
+    private static String printStackTrace(Throwable t) {
+        StringWriter sw = new StringWriter();
+        try (PrintWriter pw = new PrintWriter(sw)) {
+            t.printStackTrace(pw);
+        }
+        return sw.toString().replace("\t", "    ");
+    }
+
+    /**
+     * {@link ExceptionUtils#appendStackTrace(StringBuilder, Throwable, int)}、
+     * {@link ExceptionUtils#appendStackTrace(Appendable, Throwable, int)}メソッドのテストをします。
+     * <ul>
+     * <li>原因となった例外、抑制された例外、共通するフレームの省略が
+     * {@link Throwable#printStackTrace()}と同じ形式で出力されること</li>
+     * <li>循環した参照が出力されること</li>
+     * <li>例外ごとのフレーム数が上限までとなり、残りのフレーム数が出力されること</li>
+     * <li>{@link Appendable}に同じ内容が出力されること</li>
+     * <li>{@link StringBuilder}の既存の内容に追加されること</li>
+     * </ul>
+     */
+    @Test
+    public void testAppendStackTrace() {
+        logger.debug("***** BEGIN testAppendStackTrace");
+
+        try {
+            Exception e = createException();
+            String stackTrace = ExceptionUtils.getStackTraceString(e);
+            logger.debug("ExceptionUtils.getStackTraceString(e)\n    ==> {}", stackTrace);
+            Assert.assertEquals("printStackTrace()と同じ形式で出力されること", printStackTrace(e), stackTrace);
+
+            Exception first = new Exception("first");
+            Exception second = new Exception("second", first);
+            first.initCause(second);
+            Assert.assertEquals("循環した参照が出力されること", printStackTrace(first),
+                    ExceptionUtils.getStackTraceString(first));
+
+            String[] lines = ExceptionUtils.getStackTraceString(e, 2).split(System.lineSeparator());
+            Assert.assertEquals("フレーム数が上限までとなること", "    at " + e.getStackTrace()[1].toString(), lines[2]);
+            Assert.assertEquals("残りのフレーム数が出力されること",
+                    "    ... " + (e.getStackTrace().length - 2) + " more", lines[3]);
+            Assert.assertEquals("抑制された例外が字下げして出力されること", "    Suppressed: java.io.IOException: suppressed",
+                    lines[4]);
+            Assert.assertEquals("フレーム数が0の場合は例外のみ出力されること", e.toString(),
+                    ExceptionUtils.getStackTraceString(e, 0).split(System.lineSeparator())[0]);
+
+            StringWriter sw = new StringWriter();
+            ExceptionUtils.appendStackTrace(sw, e, 5);
+            ExceptionUtils.appendStackTrace(sw, e, 5);
+            String expected = ExceptionUtils.getStackTraceString(e, 5);
+            Assert.assertEquals("Appendableに同じ内容が出力されること", expected + expected, sw.toString());
+            Assert.assertEquals("StringBuilderの既存の内容に追加されること", "> " + expected,
+                    ExceptionUtils.appendStackTrace(new StringBuilder("> "), e, 5).toString());
+        } catch (IOException e) {
+            Assert.fail(e.toString());
+        } finally {
+            logger.debug("***** END testAppendStackTrace");
+        }
+    }
+
+    /**
+     * 同じ箇所で例外を発生させます。
+     * @param message 例外のメッセージ
+     * @return 発生させた例外を返します。
+     */
+    private static Exception throwAtSameSite(String message) {
+        try {
+            throw new IllegalArgumentException(message, new IOException(message));
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    /**
+     * {@link ExceptionUtils#fingerprint(Throwable, int)}メソッドのテストをします。
+     * <ul>
+     * <li>同じ箇所で発生した同じ種類の例外は、メッセージが異なっても同じハッシュ値となること</li>
+     * <li>異なる箇所で発生した例外は異なるハッシュ値となること</li>
+     * <li>原因となった例外の種類が異なると異なるハッシュ値となること</li>
+     * <li>フレーム数の上限より後のフレームはハッシュ値に含まれないこと</li>
+     * </ul>
+     */
+    @Test
+    public void testFingerprint() {
+        logger.debug("***** BEGIN testFingerprint");
+
+        Exception[] exceptions = new Exception[2];
+        for (int i = 0; i < exceptions.length; i++) {
+            exceptions[i] = throwAtSameSite("message" + i);
+        }
+        Exception e1 = exceptions[0];
+        Exception e2 = exceptions[1];
+        logger.debug("ExceptionUtils.fingerprint(e1, 5) ==> {}", ExceptionUtils.fingerprint(e1, 5));
+        Assert.assertEquals("同じ箇所で発生した例外は同じハッシュ値となること",
+                ExceptionUtils.fingerprint(e1, 5), ExceptionUtils.fingerprint(e2, 5));
+        Assert.assertNotEquals("異なる箇所で発生した例外は異なるハッシュ値となること",
+                ExceptionUtils.fingerprint(e1, 5), ExceptionUtils.fingerprint(createException(), 5));
+        Exception e3 = new IllegalArgumentException("first", new RuntimeException("first"));
+        e3.setStackTrace(e1.getStackTrace());
+        e3.getCause().setStackTrace(e1.getCause().getStackTrace());
+        Assert.assertNotEquals("原因となった例外の種類が異なると異なるハッシュ値となること",
+                ExceptionUtils.fingerprint(e1, 5), ExceptionUtils.fingerprint(e3, 5));
+
+        Exception e4 = throwAtSameSite("first");
+        StackTraceElement[] trace = e1.getStackTrace();
+        trace[2] = new StackTraceElement("Other", "other", "Other.java", 1);
+        e4.setStackTrace(trace);
+        e4.getCause().setStackTrace(trace);
+        Assert.assertEquals("上限より後のフレームはハッシュ値に含まれないこと",
+                ExceptionUtils.fingerprint(e1, 2), ExceptionUtils.fingerprint(e4, 2));
+        Assert.assertNotEquals("上限までのフレームはハッシュ値に含まれること",
+                ExceptionUtils.fingerprint(e1, 3), ExceptionUtils.fingerprint(e4, 3));
+
+        logger.debug("***** END testFingerprint");
+    }
+
+    /**
+     * {@link ExceptionUtils#captureStack(int, int)}、{@link ExceptionUtils#callSiteFingerprint(int, int)}
+     * メソッドのテストをします。
+     * <ul>
+     * <li>呼び出し元のメソッドのフレームから取得されること</li>
+     * <li>読み飛ばすフレーム数とフレーム数の上限が反映されること</li>
+     * <li>同じ箇所からの呼び出しは同じハッシュ値となり、異なる箇所からの呼び出しは異なるハッシュ値となること</li>
+     * </ul>
+     */
+    @Test
+    public void testCaptureStack() {
+        logger.debug("***** BEGIN testCaptureStack");
+
+        StackTraceElement[] frames = ExceptionUtils.captureStack(0, 3);
+        Assert.assertEquals("フレーム数の上限まで取得されること", 3, frames.length);
+        Assert.assertEquals("呼び出し元のクラスのフレームから取得されること",
+                ExceptionUtilsTest.class.getName(), frames[0].getClassName());
+        Assert.assertEquals("呼び出し元のメソッドのフレームから取得されること", "testCaptureStack",
+                frames[0].getMethodName());
+        StackTraceElement[] skipped = ExceptionUtils.captureStack(1, 2);
+        Assert.assertEquals("読み飛ばすフレーム数が反映されること", frames[1], skipped[0]);
+
+        long[] hashes = new long[2];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = ExceptionUtils.callSiteFingerprint(0, 5);
+        }
+        Assert.assertEquals("同じ箇所からの呼び出しは同じハッシュ値となること", hashes[0], hashes[1]);
+        Assert.assertNotEquals("異なる箇所からの呼び出しは異なるハッシュ値となること", hashes[0],
+                ExceptionUtils.callSiteFingerprint(0, 5));
+
+        logger.debug("***** END testCaptureStack");
+    }
 }
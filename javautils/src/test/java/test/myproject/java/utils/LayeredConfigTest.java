@@ -0,0 +1,115 @@
+package test.myproject.java.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.ConfigSnapshot;
+import myproject.java.utils.LayeredConfig;
+
+/**
+ * {@link LayeredConfig}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class LayeredConfigTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(LayeredConfigTest.class);
+
+    /** テストで使用するクラスパスのプロパティファイル。 */
+    private static final String RESOURCE = "test/myproject/java/utils/testprop.properties";
+
+    /**
+     * {@link LayeredConfig#get()}のテストを実行します。
+     * <ul>
+     * <li>後から追加したレイヤーの値が優先されること</li>
+     * <li>レイヤーをまたいでキーワードが置換されること</li>
+     * <li>存在しないファイルは{@link LayeredConfig#optionalFile(Path)}では無視されること</li>
+     * <li>キーが{@link String#intern()}されること</li>
+     * <li>２回目以降は同じ設定値が返され、{@link LayeredConfig#invalidate()}の後は読み込み直されること</li>
+     * </ul>
+     */
+    @Test
+    public void testGet() {
+        logger.debug("***** BEGIN testGet");
+
+        Path file = null;
+        String property = LayeredConfigTest.class.getName() + ".key";
+        try {
+            file = Files.createTempFile("LayeredConfigTest", ".properties");
+            Files.write(file, ("key1=file1\nkey3=file3\n" + property + "=file\n").getBytes(StandardCharsets.ISO_8859_1));
+            System.setProperty(property, "system");
+
+            LayeredConfig layers = new LayeredConfig().resource(RESOURCE).file(file)
+                    .optionalFile(Paths.get("target", "notfound.properties")).systemProperties();
+            ConfigSnapshot config = layers.get();
+            Assert.assertEquals("後から追加したファイルの値が優先されること", "file1", config.get("key1"));
+            Assert.assertEquals("後のレイヤーにないキーは前のレイヤーの値となること", "値その２",
+                    config.get("key2"));
+            Assert.assertEquals("システムプロパティの値が優先されること", "system", config.get(property));
+            Assert.assertEquals("レイヤーをまたいでキーワードが置換されること", "key3の値は\"file3\"です",
+                    config.get("key4"));
+            for (String key : config.keySet()) {
+                if (key.equals("key1")) {
+                    Assert.assertSame("キーがinternされること", "key1", key);
+                }
+            }
+
+            Assert.assertSame("２回目以降は同じ設定値が返されること", config, layers.get());
+            System.setProperty(property, "changed");
+            Assert.assertEquals("読み込み直すまでは変更が反映されないこと", "system", layers.get().get(property));
+            layers.invalidate();
+            Assert.assertEquals("invalidate()の後は読み込み直されること", "changed", layers.get().get(property));
+        } catch (IOException e) {
+            Assert.fail(e.toString());
+        } finally {
+            System.clearProperty(property);
+            try {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+            } catch (IOException e) {
+                // 何もしない
+            }
+            logger.debug("***** END testGet");
+        }
+    }
+
+    /**
+     * {@link LayeredConfig#environment()}、{@link LayeredConfig#environment(String)}のテストを実行します。
+     * <ul>
+     * <li>環境変数名をキーとして追加されること</li>
+     * <li>接頭辞を指定した場合は、接頭辞を除いて小文字に変換し「_」を「.」に置き換えたキーとなること</li>
+     * <li>存在しないファイルを{@link LayeredConfig#file(Path)}で指定すると{@link IOException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testEnvironment() {
+        logger.debug("***** BEGIN testEnvironment");
+
+        try {
+            String path = System.getenv("PATH");
+            Assert.assertEquals("環境変数名をキーとして追加されること", path,
+                    new LayeredConfig().environment().get().get("PATH"));
+            Assert.assertEquals("接頭辞を除いて小文字に変換したキーとなること", path,
+                    new LayeredConfig().environment("PA").get().get("th"));
+        } catch (IOException e) {
+            Assert.fail(e.toString());
+        }
+
+        try {
+            new LayeredConfig().file(Paths.get("target", "notfound.properties")).get();
+            Assert.fail("存在しないファイルを指定するとIOExceptionが発生すること：例外が発生しない");
+        } catch (IOException e) {
+            // OK
+        } finally {
+            logger.debug("***** END testEnvironment");
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package test.myproject.java.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.PropertiesParser;
+
+/**
+ * {@link PropertiesParser}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class PropertiesParserTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(PropertiesParserTest.class);
+
+    /** テストで解析するプロパティファイルの内容。 */
+    private static final String CONTENT = "# comment\n"
+            + "! comment \\\n"
+            + "plain=value\n"
+            + "   indented   =   spaces around   \n"
+            + "colon:value\n"
+            + "space value\n"
+            + "tab\t\tvalue\n"
+            + "empty=\n"
+            + "keyonly\n"
+            + "twice==value\n"
+            + "sep = : value\n"
+            + "escaped\\ key\\=\\:=a\\tb\\nc\\rd\\fe\\\\f\\qg\n"
+            + "unicode=\\u5024\\u305D\\u306e\\uFF12\n"
+            + "latin1=café\n"
+            + "continued=first \\\n"
+            + "          second \\\r\n"
+            + "\tthird\r"
+            + "cont\\\n"
+            + "   inued\\\n"
+            + "   key = x\n"
+            + "separator \\\n"
+            + "   = next line\n"
+            + "backslashes=a\\\\\\\\\n"
+            + "=empty key\n"
+            + "\\\n"
+            + "\n"
+            + "duplicate=1\n"
+            + "duplicate=2\n"
+            + "\r\n"
+            + "last=no newline\\";
+
+    /**
+     * {@link Properties#load(java.io.Reader)}で読み込んだキーと値の表を取得します。
+     * @param content プロパティファイルの内容
+     * @return キーと値の表を返します。
+     * @throws IOException 読み込みに失敗した場合
+     */
+    private static Map<String, String> load(String content) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = new ByteArrayInputStream(content.getBytes(StandardCharsets.ISO_8859_1))) {
+            properties.load(in);
+        }
+        Map<String, String> values = new HashMap<String, String>();
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, properties.getProperty(key));
+        }
+        return values;
+    }
+
+    /**
+     * {@link PropertiesParser#parse(byte[])}のテストを実行します。
+     * <ul>
+     * <li>コメント行、区切り文字、エスケープ、行の継続を
+     * {@link Properties#load(java.io.InputStream)}と同じく解析すること</li>
+     * <li>ISO8859-1の文字を解析できること</li>
+     * <li>同じキーが複数ある場合は後の値となること</li>
+     * </ul>
+     */
+    @Test
+    public void testParse() {
+        logger.debug("***** BEGIN testParse");
+
+        try {
+            Map<String, String> values = PropertiesParser.parse(CONTENT.getBytes(StandardCharsets.ISO_8859_1));
+            logger.debug("values ==> {}", values);
+            Assert.assertEquals("Properties.loadと同じく解析すること", load(CONTENT), values);
+
+            Assert.assertEquals("前後の空白を除いたキーとなること", "spaces around   ", values.get("indented"));
+            Assert.assertEquals("エスケープが変換されること", "a\tb\nc\rd\fe\\fqg", values.get("escaped key=:"));
+            Assert.assertEquals("ユニコードのエスケープが変換されること", "値その２", values.get("unicode"));
+            Assert.assertEquals("ISO8859-1の文字を解析できること", "café", values.get("latin1"));
+            Assert.assertEquals("継続行の前の空白が除かれること", "first second third", values.get("continued"));
+            Assert.assertEquals("キーの途中で行を継続できること", "x", values.get("continuedkey"));
+            Assert.assertEquals("同じキーが複数ある場合は後の値となること", "2", values.get("duplicate"));
+            Assert.assertEquals("最後の「\\」は無視されること", "no newline", values.get("last"));
+        } catch (IOException e) {
+            Assert.fail(e.toString());
+        } finally {
+            logger.debug("***** END testParse");
+        }
+    }
+
+    /**
+     * {@link PropertiesParser#parse(ByteBuffer)}、{@link PropertiesParser#parse(byte[], int, int)}の
+     * テストを実行します。
+     * <ul>
+     * <li>ヒープ及びダイレクトのバッファの位置から終了位置までを解析すること</li>
+     * <li>バッファの位置が変更されないこと</li>
+     * <li>バイト配列の範囲を解析すること</li>
+     * <li>「&#92;uXXXX」のエスケープが正しくない場合は{@link IllegalArgumentException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testParseBuffer() {
+        logger.debug("***** BEGIN testParseBuffer");
+
+        byte[] bytes = "skipped=1\nkey=value\nlimit=1".getBytes(StandardCharsets.ISO_8859_1);
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put("key", "value");
+
+        ByteBuffer heap = ByteBuffer.wrap(bytes, 10, 10);
+        Assert.assertEquals("ヒープのバッファの範囲を解析すること", expected, PropertiesParser.parse(heap));
+        Assert.assertEquals("バッファの位置が変更されないこと", 10, heap.position());
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).position(10).limit(20);
+        Assert.assertEquals("ダイレクトのバッファの範囲を解析すること", expected, PropertiesParser.parse(direct));
+        Assert.assertEquals("バッファの位置が変更されないこと", 10, direct.position());
+        Assert.assertEquals("バイト配列の範囲を解析すること", expected, PropertiesParser.parse(bytes, 10, 10));
+
+        for (String content : new String[] {"key=\\u12", "key=\\u12G4"}) {
+            try {
+                PropertiesParser.parse(content.getBytes(StandardCharsets.ISO_8859_1));
+                Assert.fail("エスケープが正しくない場合はIllegalArgumentExceptionが発生すること：例外が発生しない");
+            } catch (IllegalArgumentException e) {
+                // OK
+            }
+        }
+
+        logger.debug("***** END testParseBuffer");
+    }
+}
@@ -1,6 +1,7 @@
 package test.myproject.java.utils;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Properties;
 
 import org.junit.Assert;
@@ -8,6 +9,7 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import myproject.java.utils.ConfigSnapshot;
 import myproject.java.utils.PropertiesUtils;
 
 /**
@@ -100,4 +102,152 @@ public class PropertiesUtilsTest {
             logger.debug("***** END testReplaceKeyword *****");
         }
     }
+
+    /**
+     * {@link myproject.java.utils.PropertiesUtils#replaceKeyword(Properties)}メソッドで、
+     * キーワードが再帰的に置換されることをテストします。
+     * <ul>
+     * <li>参照先の値に含まれるキーワードも置換されること</li>
+     * <li>キーワードの中のキーワードが先に置換されること</li>
+     * <li>見つからないキーワード、閉じられていない「${」、「${}」はそのまま残ること</li>
+     * <li>参照が循環している場合は{@link IllegalArgumentException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testReplaceKeywordRecursive() {
+        logger.debug("***** BEGIN testReplaceKeywordRecursive *****");
+
+        Properties prop = new Properties();
+        prop.setProperty("url", "http://${host}:${port}/${path}");
+        prop.setProperty("host", "${env}.${domain}");
+        prop.setProperty("env", "dev");
+        prop.setProperty("domain", "example.com");
+        prop.setProperty("port", "${${env}.port}");
+        prop.setProperty("dev.port", "8080");
+        prop.setProperty("path", "${unknown}/${}/${user.dir");
+        PropertiesUtils.replaceKeyword(prop);
+        Assert.assertEquals("参照先の値に含まれるキーワードも置換されること", "dev.example.com", prop.getProperty("host"));
+        Assert.assertEquals("キーワードの中のキーワードが先に置換されること", "8080", prop.getProperty("port"));
+        Assert.assertEquals("見つからないキーワードはそのまま残ること", "${unknown}/${}/${user.dir",
+                prop.getProperty("path"));
+        Assert.assertEquals("全てのキーワードが置換されること",
+                "http://dev.example.com:8080/${unknown}/${}/${user.dir", prop.getProperty("url"));
+
+        prop = new Properties();
+        prop.setProperty("a", "${b}");
+        prop.setProperty("b", "x${c}");
+        prop.setProperty("c", "${a}");
+        try {
+            PropertiesUtils.replaceKeyword(prop);
+            Assert.fail("参照が循環している場合はIllegalArgumentExceptionが発生すること：例外が発生しない");
+        } catch (IllegalArgumentException e) {
+            logger.debug(e.getMessage());
+            Assert.assertEquals("循環した参照の経路が例外のメッセージに含まれること",
+                    "Circular reference: a -> b -> c -> a", e.getMessage());
+        } finally {
+            logger.debug("***** END testReplaceKeywordRecursive *****");
+        }
+    }
+
+    /**
+     * {@link myproject.java.utils.PropertiesUtils#replaceKeyword(Properties)}メソッドで、
+     * 長い参照の連鎖と深い入れ子が置換されることをテストします。
+     * <ul>
+     * <li>100000個のプロパティの参照の連鎖が{@link StackOverflowError}にならずに置換されること</li>
+     * <li>閉じられていない100000個の入れ子の「${」がそのまま残ること</li>
+     * <li>閉じられていない「${」の中の閉じられたキーワードは置換されずにそのまま残ること</li>
+     * </ul>
+     */
+    @Test
+    public void testReplaceKeywordDeep() {
+        logger.debug("***** BEGIN testReplaceKeywordDeep *****");
+
+        int depth = 100000;
+        Properties prop = new Properties();
+        for (int i = 0; i < depth; i++) {
+            prop.setProperty("key" + i, "${key" + (i + 1) + "}");
+        }
+        prop.setProperty("key" + depth, "end");
+        StringBuilder nested = new StringBuilder("x");
+        for (int i = 0; i < depth; i++) {
+            nested.append("${");
+        }
+        nested.append("a");
+        prop.setProperty("nested", nested.toString());
+        prop.setProperty("partial", "x${a${key0}");
+        PropertiesUtils.replaceKeyword(prop);
+        Assert.assertEquals("長い参照の連鎖が置換されること", "end", prop.getProperty("key0"));
+        Assert.assertEquals("閉じられていない入れ子の「${」がそのまま残ること", nested.toString(),
+                prop.getProperty("nested"));
+        Assert.assertEquals("閉じられていない「${」の中のキーワードは置換されないこと", "x${a${key0}",
+                prop.getProperty("partial"));
+
+        logger.debug("***** END testReplaceKeywordDeep *****");
+    }
+
+    /**
+     * {@link PropertiesUtils#loadConfig(String)}メソッドのテストを実行します。
+     * <ul>
+     * <li>キーワードが置換された設定値が取得できること</li>
+     * <li>２回目以降はキャッシュした同じインスタンスが返ること</li>
+     * <li>{@link PropertiesUtils#invalidateConfig(String)}の後は読み込み直されること</li>
+     * <li>存在しないリソースを指定すると{@link IOException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testLoadConfig() {
+        logger.debug("***** BEGIN testLoadConfig *****");
+        try {
+            ConfigSnapshot config = PropertiesUtils.loadConfig("test/myproject/java/utils/testprop.properties");
+            Assert.assertEquals("キーワードが置換されること",
+                    "java.runtime.name=" + System.getProperty("java.runtime.name"), config.get("key5"));
+            Assert.assertSame("２回目以降は同じインスタンスが返ること", config,
+                    PropertiesUtils.loadConfig("test/myproject/java/utils/testprop.properties"));
+
+            PropertiesUtils.invalidateConfig("test/myproject/java/utils/testprop.properties");
+            ConfigSnapshot reloaded = PropertiesUtils.loadConfig("test/myproject/java/utils/testprop.properties");
+            Assert.assertNotSame("キャッシュを削除すると読み込み直されること", config, reloaded);
+            Assert.assertEquals("読み込み直しても同じ値となること", config.asMap(), reloaded.asMap());
+            Assert.assertNull("引数にnullを指定するとnullが返ること", PropertiesUtils.loadConfig(null));
+
+            try {
+                PropertiesUtils.loadConfig("test/myproject/java/utils/notfound.properties");
+                Assert.fail("存在しないリソースを指定するとIOExceptionが発生すること：例外が発生しない");
+            } catch (IOException e) {
+                // OK
+            }
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            logger.debug("***** END testLoadConfig *****");
+        }
+    }
+
+    /**
+     * {@link PropertiesUtils#loadResourceAsMap(String)}、{@link PropertiesUtils#replaceKeywordInMap(java.util.Map)}
+     * メソッドのテストを実行します。
+     * <ul>
+     * <li>{@link PropertiesUtils#loadResource(String)}と同じ値の表が取得できること</li>
+     * <li>表の値のキーワードが置換されること</li>
+     * <li>引数にnullを指定するとnullが返ること</li>
+     * </ul>
+     */
+    @Test
+    public void testLoadResourceAsMap() {
+        logger.debug("***** BEGIN testLoadResourceAsMap *****");
+        try {
+            Map<String, String> values = PropertiesUtils.loadResourceAsMap(
+                    "test/myproject/java/utils/testprop.properties");
+            Properties prop = PropertiesUtils.loadResource("test/myproject/java/utils/testprop.properties");
+            Assert.assertEquals("loadResourceと同じ値の表が取得できること", prop, values);
+
+            PropertiesUtils.replaceKeywordInMap(values);
+            Assert.assertEquals("表の値のキーワードが置換されること", "key3の値は\"置換元の値\"です", values.get("key4"));
+            Assert.assertNull("引数にnullを指定するとnullが返ること", PropertiesUtils.loadResourceAsMap(null));
+        } catch (IOException ioe) {
+            Assert.fail(ioe.toString());
+        } finally {
+            logger.debug("***** END testLoadResourceAsMap *****");
+        }
+    }
 }
@@ -0,0 +1,215 @@
+package test.myproject.java.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.ConfigSnapshot;
+import myproject.java.utils.ReloadableConfig;
+
+/**
+ * {@link ReloadableConfig}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class ReloadableConfigTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(ReloadableConfigTest.class);
+
+    /** 通知を待つ時間（秒）。 */
+    private static final long TIMEOUT_SECONDS = 30;
+
+    /**
+     * プロパティファイルの内容を書き換えます。
+     * @param file プロパティファイル
+     * @param content 内容
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private static void write(Path file, String content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), "write", ".tmp");
+        Files.write(temp, content.getBytes(StandardCharsets.ISO_8859_1));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * {@link ReloadableConfig}のファイルの監視のテストを実行します。
+     * <ul>
+     * <li>構築時にプロパティファイルが読み込まれ、キーワードが置換されること</li>
+     * <li>ファイルを書き換えると、リスナーに変更前後の設定値と変更されたキーが通知されること</li>
+     * <li>参照元のキーが変更されると、キーワードを置換したキーも変更されたキーとして通知されること</li>
+     * <li>読み込みに失敗すると失敗が通知され、直前の設定値が保持されること</li>
+     * <li>変更されていない場合は{@link ReloadableConfig#reload()}が空の集合を返すこと</li>
+     * <li>{@link ReloadableConfig#close()}の後はファイルを書き換えても通知されないこと</li>
+     * </ul>
+     */
+    @Test
+    public void testWatch() {
+        logger.debug("***** BEGIN testWatch");
+
+        Path dir = null;
+        Path file = null;
+        try {
+            dir = Files.createTempDirectory("ReloadableConfigTest");
+            file = dir.resolve("app.properties");
+            write(file, "host=localhost\nport=8080\nurl=http://${host}:${port}/\nremoved=1\n");
+
+            BlockingQueue<Object[]> changes = new LinkedBlockingQueue<Object[]>();
+            BlockingQueue<Exception> failures = new LinkedBlockingQueue<Exception>();
+            // close()の後の動作を確認するため、try-with-resourcesではなくfinallyで閉じる
+            ReloadableConfig config = new ReloadableConfig(file);
+            try {
+                config.addListener(new ReloadableConfig.Listener() {
+                    @Override
+                    public void configChanged(ConfigSnapshot oldConfig, ConfigSnapshot newConfig,
+                            Set<String> changedKeys) {
+                        changes.add(new Object[] {oldConfig, newConfig, changedKeys});
+                    }
+
+                    @Override
+                    public void reloadFailed(Exception e) {
+                        failures.add(e);
+                    }
+                });
+                ConfigSnapshot first = config.get();
+                Assert.assertEquals("構築時にキーワードが置換されること", "http://localhost:8080/", first.get("url"));
+
+                write(file, "host=localhost\nport=9090\nurl=http://${host}:${port}/\nadded=2\n");
+                Object[] change = changes.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                Assert.assertNotNull("ファイルを書き換えるとリスナーに通知されること", change);
+                Assert.assertSame("変更前の設定値が通知されること", first, change[0]);
+                Assert.assertSame("変更後の設定値が公開されること", config.get(), change[1]);
+                Assert.assertEquals("変更されたキーが通知されること",
+                        new HashSet<String>(Arrays.asList("port", "url", "removed", "added")), change[2]);
+                Assert.assertEquals("キーワードが置換されること", "http://localhost:9090/", config.get().get("url"));
+                Assert.assertEquals("変更前の設定値は変更されないこと", "8080", first.get("port"));
+
+                ConfigSnapshot second = config.get();
+                write(file, "host=localhost\nport=${url}\nurl=http://${host}:${port}/\n");
+                Assert.assertNotNull("読み込みに失敗すると通知されること",
+                        failures.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                Assert.assertSame("読み込みに失敗すると直前の設定値が保持されること", second, config.get());
+
+                config.close();
+                write(file, "host=localhost\nport=9090\nurl=http://${host}:${port}/\nadded=2\n");
+                Assert.assertEquals("reload()で変更されていない場合は空の集合が返されること",
+                        Collections.emptySet(), config.reload());
+                Assert.assertSame("変更されていない場合は設定値が置き換えられないこと", second, config.get());
+
+                write(file, "host=example.com\n");
+                Assert.assertNull("close()の後は通知されないこと", changes.poll(1, TimeUnit.SECONDS));
+                Assert.assertSame("close()の後は設定値が変更されないこと", second, config.get());
+            } finally {
+                config.close();
+            }
+        } catch (IOException | InterruptedException e) {
+            Assert.fail(e.toString());
+        } finally {
+            try {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+                if (dir != null) {
+                    Files.deleteIfExists(dir);
+                }
+            } catch (IOException e) {
+                // 何もしない
+            }
+            logger.debug("***** END testWatch");
+        }
+    }
+
+    /**
+     * 例外を発生させるリスナーが登録されている場合の{@link ReloadableConfig}のテストを実行します。
+     * <ul>
+     * <li>先に登録されたリスナーで例外が発生しても、残りのリスナーに変更が通知されること</li>
+     * <li>変更の通知で例外が発生しても、読み込みの失敗として通知されないこと</li>
+     * <li>失敗の通知で例外が発生しても、残りのリスナーに失敗が通知されること</li>
+     * <li>リスナーで例外が発生した後も、ファイルの変更が監視されること</li>
+     * </ul>
+     */
+    @Test
+    public void testThrowingListener() {
+        logger.debug("***** BEGIN testThrowingListener");
+
+        Path dir = null;
+        Path file = null;
+        try {
+            dir = Files.createTempDirectory("ReloadableConfigTest");
+            file = dir.resolve("app.properties");
+            write(file, "port=8080\n");
+
+            BlockingQueue<Set<String>> changes = new LinkedBlockingQueue<Set<String>>();
+            BlockingQueue<Exception> failures = new LinkedBlockingQueue<Exception>();
+            ReloadableConfig config = new ReloadableConfig(file);
+            try {
+                config.addListener(new ReloadableConfig.Listener() {
+                    @Override
+                    public void configChanged(ConfigSnapshot oldConfig, ConfigSnapshot newConfig,
+                            Set<String> changedKeys) {
+                        throw new IllegalStateException("configChanged");
+                    }
+
+                    @Override
+                    public void reloadFailed(Exception e) {
+                        throw new IllegalStateException("reloadFailed");
+                    }
+                });
+                config.addListener(new ReloadableConfig.Listener() {
+                    @Override
+                    public void configChanged(ConfigSnapshot oldConfig, ConfigSnapshot newConfig,
+                            Set<String> changedKeys) {
+                        changes.add(changedKeys);
+                    }
+
+                    @Override
+                    public void reloadFailed(Exception e) {
+                        failures.add(e);
+                    }
+                });
+
+                write(file, "port=9090\n");
+                Assert.assertEquals("例外が発生しても残りのリスナーに変更が通知されること",
+                        Collections.singleton("port"), changes.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                Assert.assertEquals("変更後の設定値が公開されること", "9090", config.get().get("port"));
+
+                write(file, "port=${port2}\nport2=${port}\n");
+                Assert.assertNotNull("失敗の通知で例外が発生しても残りのリスナーに失敗が通知されること",
+                        failures.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+                write(file, "port=7070\n");
+                Assert.assertEquals("リスナーで例外が発生した後もファイルの変更が監視されること",
+                        Collections.singleton("port"), changes.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+                Assert.assertTrue("変更の通知で発生した例外は読み込みの失敗として通知されないこと", failures.isEmpty());
+            } finally {
+                config.close();
+            }
+        } catch (IOException | InterruptedException e) {
+            Assert.fail(e.toString());
+        } finally {
+            try {
+                if (file != null) {
+                    Files.deleteIfExists(file);
+                }
+                if (dir != null) {
+                    Files.deleteIfExists(dir);
+                }
+            } catch (IOException e) {
+                // 何もしない
+            }
+            logger.debug("***** END testThrowingListener");
+        }
+    }
+}
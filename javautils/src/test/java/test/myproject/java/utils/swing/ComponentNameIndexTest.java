@@ -0,0 +1,172 @@
+package test.myproject.java.utils.swing;
+
+import javax.swing.JButton;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import myproject.java.utils.ComponentNameIndex;
+import myproject.java.utils.SwingUtils;
+
+/**
+ * {@link ComponentNameIndex}クラスのテストを実行します。
+ * @author ycookjp my project
+ */
+public class ComponentNameIndexTest {
+    /** Logger. */
+    private static Logger logger = LoggerFactory.getLogger(ComponentNameIndexTest.class);
+
+    /**
+     * 名前を指定して{@link JButton}を作成します。
+     * @param name 名前
+     * @return 作成した{@link JButton}を返します。
+     */
+    private static JButton createButton(String name) {
+        JButton button = new JButton(name);
+        button.setName(name);
+        return button;
+    }
+
+    /**
+     * {@link ComponentNameIndex#get(String)}、{@link ComponentNameIndex#get(String, Class)}の
+     * テストを実行します。
+     * <ul>
+     * <li>入れ子になった{@link java.awt.Container}の{@link java.awt.Component}が取得できること</li>
+     * <li>{@link SwingUtils#getComponentByName(java.awt.Container, String)}と同じ{@link java.awt.Component}が
+     * 取得できること</li>
+     * <li>存在しない名前、及びnullを指定するとnullを返すこと</li>
+     * <li>型を指定して取得できること</li>
+     * <li>型が異なる場合は{@link ClassCastException}が発生すること</li>
+     * </ul>
+     */
+    @Test
+    public void testGet() {
+        logger.debug("***** BEGIN testGet");
+
+        JPanel root = new JPanel();
+        JPanel panel = new JPanel();
+        panel.setName("panel");
+        JPanel nested = new JPanel();
+        nested.add(createButton("button1"));
+        panel.add(nested);
+        root.add(panel);
+        root.add(createButton("button2"));
+
+        ComponentNameIndex index = new ComponentNameIndex(root);
+        Assert.assertSame("入れ子になったComponentが取得できること",
+                SwingUtils.getComponentByName(root, "button1"), index.get("button1"));
+        Assert.assertSame("getComponentByNameと同じComponentが取得できること",
+                SwingUtils.getComponentByName(root, "button2"), index.get("button2"));
+        Assert.assertSame("名前のあるContainerが取得できること", panel, index.get("panel"));
+        Assert.assertNull("存在しない名前を指定するとnullを返すこと", index.get("unknown"));
+        Assert.assertNull("nullを指定するとnullを返すこと", index.get(null));
+        Assert.assertEquals("型を指定して取得できること", "button1", index.get("button1", JButton.class).getText());
+        try {
+            index.get("button1", JTextField.class);
+            Assert.fail("型が異なる場合はClassCastExceptionが発生すること");
+        } catch (ClassCastException e) {
+            logger.debug("index.get(\"button1\", JTextField.class) ==> {}", e.toString());
+        }
+
+        logger.debug("***** END testGet");
+    }
+
+    /**
+     * 同じ名前の{@link java.awt.Component}が複数ある場合の{@link ComponentNameIndex#get(String)}の
+     * テストを実行します。
+     * <ul>
+     * <li>後から登録された浅い階層の{@link java.awt.Component}が取得できること</li>
+     * <li>同じ階層の場合は、階層の順に辿って先に見つかる{@link java.awt.Component}が取得できること</li>
+     * <li>{@link SwingUtils#getComponentByName(java.awt.Container, String)}と同じ{@link java.awt.Component}が
+     * 取得できること</li>
+     * </ul>
+     */
+    @Test
+    public void testDuplicateName() {
+        logger.debug("***** BEGIN testDuplicateName");
+
+        JPanel root = new JPanel();
+        JPanel panel1 = new JPanel();
+        panel1.add(createButton("x"));
+        panel1.add(createButton("y"));
+        JPanel panel2 = new JPanel();
+        panel2.add(createButton("y"));
+        panel2.add(createButton("x"));
+        JButton x = createButton("x");
+        root.add(panel1);
+        root.add(x);
+        root.add(panel2);
+
+        ComponentNameIndex index = new ComponentNameIndex(root);
+        Assert.assertSame("浅い階層のComponentが取得できること", x, index.get("x"));
+        Assert.assertSame("同じ階層の場合は先に見つかるComponentが取得できること", panel1.getComponent(1),
+                index.get("y"));
+        for (String name : new String[] {"x", "y"}) {
+            Assert.assertSame("getComponentByNameと同じComponentが取得できること",
+                    SwingUtils.getComponentByName(root, name), index.get(name));
+        }
+
+        root.remove(x);
+        panel2.add(createButton("y"), 0);
+        Assert.assertSame("削除後はgetComponentByNameと同じComponentが取得できること",
+                SwingUtils.getComponentByName(root, "x"), index.get("x"));
+        Assert.assertSame("同じ階層の順に従うこと", panel1.getComponent(1), index.get("y"));
+
+        index.dispose();
+        logger.debug("***** END testDuplicateName");
+    }
+
+    /**
+     * {@link java.awt.Component}の追加、削除、名前の変更に対するテストを実行します。
+     * <ul>
+     * <li>追加した{@link java.awt.Component}とその子孫が取得できること</li>
+     * <li>削除した{@link java.awt.Component}とその子孫が取得できなくなること</li>
+     * <li>名前を変更すると新しい名前で取得でき、古い名前では取得できなくなること</li>
+     * <li>同じ名前の{@link java.awt.Component}が削除されても、残りの{@link java.awt.Component}が取得できること</li>
+     * <li>{@link ComponentNameIndex#dispose()}の後は変更が反映されないこと</li>
+     * </ul>
+     */
+    @Test
+    public void testUpdate() {
+        logger.debug("***** BEGIN testUpdate");
+
+        JPanel root = new JPanel();
+        ComponentNameIndex index = new ComponentNameIndex(root);
+
+        JPanel panel = new JPanel();
+        JButton button1 = createButton("button1");
+        panel.add(button1);
+        root.add(panel);
+        Assert.assertSame("追加したComponentの子孫が取得できること", button1, index.get("button1"));
+        JButton button2 = createButton("button2");
+        panel.add(button2);
+        Assert.assertSame("追加したContainerに追加したComponentが取得できること", button2, index.get("button2"));
+
+        button2.setName("renamed");
+        Assert.assertSame("名前を変更すると新しい名前で取得できること", button2, index.get("renamed"));
+        Assert.assertNull("名前を変更すると古い名前では取得できなくなること", index.get("button2"));
+
+        JButton duplicate = createButton("button1");
+        root.add(duplicate);
+        Assert.assertSame("同じ名前の場合は浅い階層のComponentが取得できること", duplicate, index.get("button1"));
+        root.remove(duplicate);
+        Assert.assertSame("同じ名前のComponentが削除されても残りが取得できること", button1, index.get("button1"));
+
+        root.remove(panel);
+        Assert.assertNull("削除したContainerの子孫が取得できなくなること", index.get("renamed"));
+        button2.setName("button2");
+        Assert.assertNull("削除したComponentの名前の変更は反映されないこと", index.get("button2"));
+
+        index.dispose();
+        Assert.assertNull("dispose()の後は索引が破棄されること", index.get("button1"));
+        root.add(createButton("button3"));
+        Assert.assertNull("dispose()の後は追加が反映されないこと", index.get("button3"));
+        Assert.assertEquals("dispose()の後はリスナーが削除されること", 0, root.getContainerListeners().length);
+
+        logger.debug("***** END testUpdate");
+    }
+}
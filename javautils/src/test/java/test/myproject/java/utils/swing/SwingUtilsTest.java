@@ -1,10 +1,14 @@
 package test.myproject.java.utils.swing;
 
 import java.awt.Component;
+import java.awt.Container;
 import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
+import javax.swing.JPanel;
 import javax.swing.JTextPane;
 
 import org.junit.After;
@@ -149,4 +153,132 @@ public class SwingUtilsTest implements Runnable {
         textPaneText = textPane.getText();
         Assert.assertEquals(expectedText, textPaneText);
     }
+
+    /**
+     * テストで使用する、入れ子になったパネルを作成します。
+     * <p>
+     * ルートのパネルに"button1"、"button2"を持つパネルと"button3"を追加し、
+     * "button1"を持つパネルの中に同じ名前の"button3"を持つパネルを追加します。
+     * </p>
+     * @return ルートのパネルを返します。
+     */
+    private static Container createPanel() {
+        JPanel root = new JPanel();
+        JPanel panel = new JPanel();
+        panel.setName("panel");
+        JPanel nested = new JPanel();
+        nested.add(createButton("button3", false));
+        panel.add(createButton("button1", true));
+        panel.add(nested);
+        panel.add(createButton("button2", false));
+        root.add(panel);
+        root.add(createButton("button3", true));
+        return root;
+    }
+
+    /**
+     * 名前を指定してボタンを作成します。
+     * @param name 名前
+     * @param enabled ボタンが有効かどうか
+     * @return 作成したボタンを返します。
+     */
+    private static JButton createButton(String name, boolean enabled) {
+        JButton button = new JButton(name);
+        button.setName(name);
+        button.setEnabled(enabled);
+        return button;
+    }
+
+    /**
+     * {@link SwingUtils#getComponentByName(Container, String)}、
+     * {@link SwingUtils#getComponentByName(Container, String, Class)}メソッドの階層の検索のテストを実行します。
+     * <ul>
+     * <li>同じ名前の{@link Component}が複数ある場合は最も浅い階層のものを返すこと</li>
+     * <li>型を指定して取得できること</li>
+     * <li>深く入れ子になった{@link Container}から取得できること</li>
+     * </ul>
+     */
+    @Test
+    public void testGetComponentByNameBreadthFirst() {
+        logger.debug("***** BEGIN testGetComponentByNameBreadthFirst");
+
+        Container root = createPanel();
+        JButton button3 = SwingUtils.getComponentByName(root, "button3", JButton.class);
+        Assert.assertTrue("最も浅い階層のComponentを返すこと", button3.isEnabled());
+        Assert.assertEquals("型を指定して取得できること", "button2",
+                SwingUtils.getComponentByName(root, "button2", JButton.class).getText());
+        Assert.assertNull("見つからなかった場合はnullを返すこと",
+                SwingUtils.getComponentByName(root, "unknown", JButton.class));
+
+        Container deep = new JPanel();
+        Container parent = deep;
+        for (int i = 0; i < 5000; i++) {
+            JPanel child = new JPanel();
+            parent.add(child);
+            parent = child;
+        }
+        parent.add(createButton("leaf", true));
+        Assert.assertNotNull("深く入れ子になったContainerから取得できること",
+                SwingUtils.getComponentByName(deep, "leaf"));
+
+        logger.debug("***** END testGetComponentByNameBreadthFirst");
+    }
+
+    /**
+     * {@link SwingUtils#getComponentsByName(Container, String...)}メソッドのテストを実行します。
+     * <ul>
+     * <li>指定した全ての名前の{@link Component}が取得できること</li>
+     * <li>同じ名前の{@link Component}が複数ある場合は最も浅い階層のものを返すこと</li>
+     * <li>見つからなかった名前は結果に含まれないこと</li>
+     * <li>containerにnullを指定すると空の表を返すこと</li>
+     * </ul>
+     */
+    @Test
+    public void testGetComponentsByName() {
+        logger.debug("***** BEGIN testGetComponentsByName");
+
+        Container root = createPanel();
+        Map<String, Component> components =
+                SwingUtils.getComponentsByName(root, "button1", "button2", "button3", "panel", "unknown");
+        logger.debug("SwingUtils.getComponentsByName(root, ...).keySet() ==> {}", components.keySet());
+        Assert.assertEquals("見つからなかった名前は結果に含まれないこと", 4, components.size());
+        for (String name : components.keySet()) {
+            Assert.assertSame("getComponentByNameと同じComponentが取得できること",
+                    SwingUtils.getComponentByName(root, name), components.get(name));
+        }
+        Assert.assertTrue("最も浅い階層のComponentを返すこと", components.get("button3").isEnabled());
+        Assert.assertTrue("containerにnullを指定すると空の表を返すこと",
+                SwingUtils.getComponentsByName(null, "button1").isEmpty());
+
+        logger.debug("***** END testGetComponentsByName");
+    }
+
+    /**
+     * {@link SwingUtils#findAll(Container, Class, java.util.function.Predicate)}メソッドのテストを実行します。
+     * <ul>
+     * <li>指定した型の{@link Component}が階層の浅い順に全て取得できること</li>
+     * <li>条件を満たす{@link Component}のみ取得できること</li>
+     * <li>containerにnullを指定すると空のリストを返すこと</li>
+     * </ul>
+     */
+    @Test
+    public void testFindAll() {
+        logger.debug("***** BEGIN testFindAll");
+
+        Container root = createPanel();
+        List<JButton> buttons = SwingUtils.findAll(root, JButton.class, null);
+        Assert.assertEquals("指定した型のComponentが全て取得できること", 4, buttons.size());
+        Assert.assertEquals("階層の浅い順に取得できること", "button3", buttons.get(0).getName());
+        Assert.assertEquals("階層の浅い順に取得できること", "button1", buttons.get(1).getName());
+        Assert.assertEquals("階層の浅い順に取得できること", "button2", buttons.get(2).getName());
+
+        List<JButton> enabled = SwingUtils.findAll(root, JButton.class, JButton::isEnabled);
+        Assert.assertEquals("条件を満たすComponentのみ取得できること", 2, enabled.size());
+        Assert.assertEquals("入れ子になったJPanelが取得できること", 2, SwingUtils.findAll(root, JPanel.class,
+                panel -> true).size());
+        Assert.assertTrue("containerにnullを指定すると空のリストを返すこと",
+                SwingUtils.findAll(null, JButton.class, null).isEmpty());
+
+        logger.debug("***** END testFindAll");
+    }
 }